@@ -0,0 +1,14 @@
+package com.example.video.editor.client;
+
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+import com.example.video.editor.dto.TranslationRequest;
+import com.example.video.editor.dto.TranslationResponse;
+
+@FeignClient(name = "translationClient", url = "${translation.url:http://localhost:5002}")
+public interface TranslationClient {
+	@PostMapping("/translate")
+	TranslationResponse translate(@RequestBody TranslationRequest request);
+}
@@ -0,0 +1,22 @@
+package com.example.video.editor.config;
+
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JpaBatchConfig {
+	public static final int BATCH_SIZE = 500;
+
+	// Gom các câu INSERT/UPDATE/DELETE cùng loại thành JDBC batch (dùng cho segment phụ đề).
+	// Với MySQL nên bật thêm rewriteBatchedStatements=true trên JDBC URL.
+	@Bean
+	HibernatePropertiesCustomizer jdbcBatchingCustomizer() {
+		return properties -> {
+			properties.putIfAbsent("hibernate.jdbc.batch_size", BATCH_SIZE);
+			properties.putIfAbsent("hibernate.order_inserts", true);
+			properties.putIfAbsent("hibernate.order_updates", true);
+			properties.putIfAbsent("hibernate.jdbc.batch_versioned_data", true);
+		};
+	}
+}
@@ -0,0 +1,10 @@
+package com.example.video.editor.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+
+// Nạp mặc định của actuator (management.properties); giá trị trong application.properties được ưu tiên hơn
+@Configuration
+@PropertySource("classpath:management.properties")
+public class ManagementConfig {
+}
@@ -1,10 +1,17 @@
 package com.example.video.editor.config;
 
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.RedisCacheManagerBuilderCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
 
+import com.example.video.editor.service.MultiLanguageTranscriptionService;
+
 @Configuration
 public class RedisConfig {
 	@Bean
@@ -18,4 +25,14 @@ public class RedisConfig {
 		template.setConnectionFactory(lettuceConnectionFactory());
 		return template;
 	}
+
+	// Transcript và bản dịch chỉ là cache theo URL video: có TTL để Redis không giữ chúng mãi
+	@Bean
+	RedisCacheManagerBuilderCustomizer transcriptionCacheTtl(
+			@Value("${transcription.cache.ttl:PT24H}") Duration ttl) {
+		RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig().entryTtl(ttl);
+		return builder -> builder
+				.withCacheConfiguration(MultiLanguageTranscriptionService.TRANSCRIPT_CACHE, config)
+				.withCacheConfiguration(MultiLanguageTranscriptionService.TRANSLATION_CACHE, config);
+	}
 }
@@ -0,0 +1,66 @@
+package com.example.video.editor.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.AnyNestedCondition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import com.example.video.editor.service.RedisUserCacheSignal;
+import com.example.video.editor.service.progess.RedisProgressBroadcaster;
+import com.example.video.editor.service.progess.RedisTaskQueueSignal;
+
+/**
+ * Một RedisMessageListenerContainer (một kết nối subscribe) cho mọi channel
+ * pub/sub của ứng dụng: relay progress (task.progress.relay=redis), đánh thức
+ * hàng đợi (task.queue.signal=redis) và bỏ cache user (user.cache.signal=redis).
+ * Chỉ channel nào được bật mới được subscribe.
+ */
+@Configuration
+@Conditional(RedisListenerConfig.AnyRedisChannel.class)
+public class RedisListenerConfig {
+
+	@Bean
+	RedisMessageListenerContainer redisListenerContainer(RedisConnectionFactory connectionFactory,
+			ObjectProvider<RedisProgressBroadcaster> progressBroadcaster,
+			ObjectProvider<RedisTaskQueueSignal> taskQueueSignal, ObjectProvider<RedisUserCacheSignal> userCacheSignal) {
+		RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+		container.setConnectionFactory(connectionFactory);
+		// Mặc định mỗi message chạy trên một thread riêng, dễ làm đảo thứ tự progress/complete.
+		// Các listener đều ngắn (đẩy vào broker, đặt cờ, bỏ một entry cache) nên chạy luôn trên thread của Redis
+		container.setTaskExecutor(new SyncTaskExecutor());
+		progressBroadcaster.ifAvailable(listener -> subscribe(container, listener, RedisProgressBroadcaster.CHANNEL));
+		taskQueueSignal.ifAvailable(listener -> subscribe(container, listener, RedisTaskQueueSignal.CHANNEL));
+		userCacheSignal.ifAvailable(listener -> subscribe(container, listener, RedisUserCacheSignal.CHANNEL));
+		return container;
+	}
+
+	private static void subscribe(RedisMessageListenerContainer container, MessageListener listener, String channel) {
+		container.addMessageListener(listener, new ChannelTopic(channel));
+	}
+
+	static class AnyRedisChannel extends AnyNestedCondition {
+
+		AnyRedisChannel() {
+			super(ConfigurationPhase.REGISTER_BEAN);
+		}
+
+		@ConditionalOnProperty(name = "task.progress.relay", havingValue = "redis")
+		static class ProgressRelayEnabled {
+		}
+
+		@ConditionalOnProperty(name = "task.queue.signal", havingValue = "redis")
+		static class TaskQueueSignalEnabled {
+		}
+
+		@ConditionalOnProperty(name = "user.cache.signal", havingValue = "redis")
+		static class UserCacheSignalEnabled {
+		}
+	}
+}
@@ -13,7 +13,7 @@ public class WebConfig {
 			@Override
 			public void addCorsMappings(CorsRegistry registry) {
 				registry.addMapping("/**").allowedOrigins("http://localhost:3000") // cho phép tất cả
-						.allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS").allowCredentials(true); // không cho
+						.allowedMethods("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS").allowCredentials(true); // không cho
 																											// phép
 																											// credentials
 			}
@@ -4,8 +4,9 @@ import java.util.List;
 
 public class SecurityConstants {
 
+	// /api/tasks/* (không gồm /api/tasks/batches/**): TaskProcessingService tự kiểm tra người submit
 	public static final List<String> PUBLIC_URLS = List.of("/api/webhook/**", "/test/**", "/api/subtitles/**",
-			"/api/public/**", "/oauth2/**", "/sub/**", "/topic/progress/**", "/ws/**", "/swagger-ui.html",
-			"/swagger-ui/**", "/v3/api-docs", "/v3/api-docs/**", "/swagger-resources", "/swagger-resources/**",
-			"/webjars/**");
+			"/api/public/**", "/api/tasks/*", "/oauth2/**", "/sub/**", "/topic/progress/**", "/ws/**",
+			"/swagger-ui.html", "/swagger-ui/**", "/v3/api-docs", "/v3/api-docs/**", "/swagger-resources",
+			"/swagger-resources/**", "/webjars/**", "/actuator/health");
 }
\ No newline at end of file
@@ -12,6 +12,8 @@ public class WebSocketMessageBrokerConfig implements WebSocketMessageBrokerConfi
 
 	@Override
 	public void configureMessageBroker(MessageBrokerRegistry config) {
+		// Simple broker chỉ phục vụ client của instance này; event từ instance khác đến qua
+		// ProgressBroadcaster (task.progress.relay=redis)
 		config.enableSimpleBroker("/topic/progress"); // Các prefix destination mà server sẽ publish
 		config.setApplicationDestinationPrefixes("/app"); // Prefix cho các message mà client gửi đến server
 	}
@@ -8,6 +8,8 @@ import java.util.Map;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -15,11 +17,13 @@ import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.servlet.NoHandlerFoundException;
 
 import com.example.video.editor.exception.AlreadyExistsException;
 import com.example.video.editor.exception.InvalidJwtTokenException;
 import com.example.video.editor.exception.NotFoundException;
+import com.example.video.editor.exception.VersionConflictException;
 
 import jakarta.servlet.http.HttpServletRequest;
 
@@ -71,6 +75,44 @@ public class GlobalExceptionHandler {
 		return new ResponseEntity<>(body, HttpStatus.CONFLICT);
 	}
 
+	@ExceptionHandler({ VersionConflictException.class, ObjectOptimisticLockingFailureException.class })
+	public ResponseEntity<Object> handleVersionConflictException(RuntimeException ex, WebRequest request) {
+		Map<String, Object> body = new HashMap<>();
+		body.put("timestamp", LocalDateTime.now());
+		body.put("status", HttpStatus.CONFLICT.value());
+		body.put("error", "Version Conflict");
+		body.put("message", ex instanceof VersionConflictException ? ex.getMessage()
+				: "Dữ liệu đã bị thay đổi bởi một yêu cầu khác, vui lòng tải lại.");
+		body.put("path", ((ServletWebRequest) request).getRequest().getRequestURI());
+
+		return new ResponseEntity<>(body, HttpStatus.CONFLICT);
+	}
+
+	// Lỗi đã mang sẵn HTTP status (400, 409...), không để rơi xuống handler 500 bên dưới
+	@ExceptionHandler(ResponseStatusException.class)
+	public ResponseEntity<Object> handleResponseStatusException(ResponseStatusException ex, WebRequest request) {
+		Map<String, Object> body = new HashMap<>();
+		body.put("timestamp", LocalDateTime.now());
+		body.put("status", ex.getStatusCode().value());
+		body.put("message", ex.getReason());
+		body.put("path", ((ServletWebRequest) request).getRequest().getRequestURI());
+
+		return new ResponseEntity<>(body, ex.getStatusCode());
+	}
+
+	// @PreAuthorize từ chối (không có quyền trên workspace/project): 403 thay vì rơi xuống 500
+	@ExceptionHandler(AccessDeniedException.class)
+	public ResponseEntity<Object> handleAccessDeniedException(AccessDeniedException ex, WebRequest request) {
+		Map<String, Object> body = new HashMap<>();
+		body.put("timestamp", LocalDateTime.now());
+		body.put("status", HttpStatus.FORBIDDEN.value());
+		body.put("error", "Forbidden");
+		body.put("message", ex.getMessage());
+		body.put("path", ((ServletWebRequest) request).getRequest().getRequestURI());
+
+		return new ResponseEntity<>(body, HttpStatus.FORBIDDEN);
+	}
+
 	// Xử lý tất cả lỗi chung chung
 	@ExceptionHandler(Exception.class)
 	public ResponseEntity<String> handleException(Exception ex) {
@@ -6,13 +6,17 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.example.video.editor.dto.ProjectCreationRequest;
+import com.example.video.editor.dto.ProjectPageDto;
+import com.example.video.editor.dto.ProjectSort;
 import com.example.video.editor.dto.RenameRequest;
 import com.example.video.editor.exception.NotFoundException;
 import com.example.video.editor.model.SecurityUser;
@@ -27,6 +31,16 @@ public class ProjectController {
 
 	private final ProjectService projectService;
 
+	// Phân trang keyset: truyền lại nextCursor của trang trước để lấy trang sau
+	@GetMapping
+	@PreAuthorize("@workspacePermission.hasAccess(#user.userId, #workspacePublicId)")
+	public ResponseEntity<ProjectPageDto> listProjects(@PathVariable String workspacePublicId,
+			@RequestParam(defaultValue = "UPDATED") ProjectSort sort, @RequestParam(required = false) String prefix,
+			@RequestParam(required = false) String cursor, @RequestParam(defaultValue = "20") int size,
+			@AuthenticationPrincipal SecurityUser user) {
+		return ResponseEntity.ok(projectService.listProjects(workspacePublicId, sort, prefix, cursor, size));
+	}
+
 	@PostMapping
 //	@PreAuthorize("@workspacePermission.hasAccess(#user.userId, #workspacePublicId)")
 //	@CacheEvict(key = "#user.userId")
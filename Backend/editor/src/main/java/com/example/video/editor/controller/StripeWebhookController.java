@@ -1,6 +1,7 @@
 package com.example.video.editor.controller;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -12,6 +13,7 @@ import org.springframework.web.bind.annotation.RestController;
 import com.cloudinary.api.exceptions.NotFound;
 import com.example.video.editor.model.AccountTier;
 import com.example.video.editor.repository.UserRepository;
+import com.example.video.editor.service.UserChangedEvent;
 import com.stripe.exception.SignatureVerificationException;
 import com.stripe.model.Event;
 import com.stripe.model.checkout.Session;
@@ -26,6 +28,7 @@ public class StripeWebhookController {
 	@Value("${stripe.webhook-secret}")
 	private String endpointSecret;
 	private final UserRepository userRepository;
+	private final ApplicationEventPublisher eventPublisher;
 
 	@PostMapping
 	public ResponseEntity<String> handleStripeEvent(@RequestBody String payload,
@@ -49,7 +52,9 @@ public class StripeWebhookController {
 				var user = userRepository.findById(userId)
 						.orElseThrow(() -> new NotFound("Not Found userId : " + userId));
 				user.setAccountTier(tier);
+				user.revokeTokens();
 				userRepository.save(user);
+				eventPublisher.publishEvent(new UserChangedEvent(userId, user.getEmail()));
 
 			}
 		}
@@ -0,0 +1,126 @@
+package com.example.video.editor.controller;
+
+import java.util.List;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.example.video.editor.dto.SubtitlePatchRequest;
+import com.example.video.editor.dto.SubtitlePatchResponse;
+import com.example.video.editor.dto.SubtitleSegmentDto;
+import com.example.video.editor.dto.SubtitleTrackDto;
+import com.example.video.editor.exception.NotFoundException;
+import com.example.video.editor.model.SecurityUser;
+import com.example.video.editor.service.SaveSubtitlesService;
+import com.example.video.editor.service.SubtitleTrackService;
+import com.example.video.editor.service.progess.TaskProcessingService;
+import com.example.video.editor.service.subtitle.PackedSubtitleTrack;
+import com.example.video.editor.service.subtitle.SubtitleBinaryCodec;
+import com.example.video.editor.service.subtitle.SubtitleFormat;
+import com.example.video.editor.service.subtitle.SubtitleStreamWriter;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/projects/{projectPublicId}/subtitle-tracks")
+@RequiredArgsConstructor
+public class SubtitleTrackController {
+
+	private final SubtitleTrackService subtitleTrackService;
+	private final TaskProcessingService taskProcessingService;
+	private final SaveSubtitlesService saveSubtitlesService;
+
+	@GetMapping("/{language}")
+	@PreAuthorize("@workspacePermission.hasProjectAccess(#user.userId, #projectPublicId)")
+	public ResponseEntity<SubtitleTrackDto> getTrack(@AuthenticationPrincipal SecurityUser user,
+			@PathVariable String projectPublicId, @PathVariable String language) throws NotFoundException {
+		return ResponseEntity.ok(subtitleTrackService.getTrack(projectPublicId, language));
+	}
+
+	@GetMapping(value = "/{language}/packed", produces = SubtitleBinaryCodec.CONTENT_TYPE)
+	@PreAuthorize("@workspacePermission.hasProjectAccess(#user.userId, #projectPublicId)")
+	public ResponseEntity<byte[]> getTrackBinary(@AuthenticationPrincipal SecurityUser user,
+			@PathVariable String projectPublicId, @PathVariable String language) throws NotFoundException {
+		return ResponseEntity.ok(SubtitleBinaryCodec.encode(subtitleTrackService.loadPacked(projectPublicId, language)));
+	}
+
+	@GetMapping("/{language}/export")
+	@PreAuthorize("@workspacePermission.hasProjectAccess(#user.userId, #projectPublicId)")
+	public ResponseEntity<StreamingResponseBody> exportTrack(@AuthenticationPrincipal SecurityUser user,
+			@PathVariable String projectPublicId, @PathVariable String language,
+			@RequestParam(defaultValue = "srt") String format) throws NotFoundException {
+		SubtitleFormat subtitleFormat;
+		try {
+			subtitleFormat = SubtitleFormat.fromString(format);
+		} catch (IllegalArgumentException e) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+		}
+		PackedSubtitleTrack track = subtitleTrackService.loadPacked(projectPublicId, language);
+		StreamingResponseBody body = out -> new SubtitleStreamWriter().write(track, subtitleFormat, out);
+		String fileName = projectPublicId + "." + language + "." + subtitleFormat.getExtension();
+		return ResponseEntity.ok()
+				.contentType(MediaType.parseMediaType(subtitleFormat.getContentType() + ";charset=UTF-8"))
+				.header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"").body(body);
+	}
+
+	@PutMapping("/{language}")
+	@PreAuthorize("@workspacePermission.hasProjectAccess(#user.userId, #projectPublicId)")
+	public ResponseEntity<SubtitleTrackDto> replaceTrack(@AuthenticationPrincipal SecurityUser user,
+			@PathVariable String projectPublicId, @PathVariable String language,
+			@RequestBody List<SubtitleSegmentDto> segments) throws NotFoundException {
+		PackedSubtitleTrack.Builder builder = PackedSubtitleTrack.builder(segments.size());
+		try {
+			segments.forEach(segment -> builder.add(segment.getStartMs(), segment.getEndMs(), segment.getText()));
+		} catch (IllegalArgumentException e) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+		}
+		return ResponseEntity.ok(subtitleTrackService.replaceTrack(projectPublicId, language, builder.build()));
+	}
+
+	@PutMapping(value = "/{language}/packed", consumes = SubtitleBinaryCodec.CONTENT_TYPE)
+	@PreAuthorize("@workspacePermission.hasProjectAccess(#user.userId, #projectPublicId)")
+	public ResponseEntity<SubtitleTrackDto> replaceTrackBinary(@AuthenticationPrincipal SecurityUser user,
+			@PathVariable String projectPublicId, @PathVariable String language,
+			@RequestBody byte[] body) throws NotFoundException {
+		PackedSubtitleTrack track;
+		try {
+			track = SubtitleBinaryCodec.decode(body);
+		} catch (IllegalArgumentException e) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+		}
+		return ResponseEntity.ok(subtitleTrackService.replaceTrack(projectPublicId, language, track));
+	}
+
+	@PatchMapping("/{language}")
+	@PreAuthorize("@workspacePermission.hasProjectAccess(#user.userId, #projectPublicId)")
+	public ResponseEntity<SubtitlePatchResponse> patchTrack(@AuthenticationPrincipal SecurityUser user,
+			@PathVariable String projectPublicId, @PathVariable String language,
+			@Valid @RequestBody SubtitlePatchRequest request) throws NotFoundException {
+		return ResponseEntity.ok(subtitleTrackService.patch(projectPublicId, language, request));
+	}
+
+	// Burn track đã lưu vào video, file ASS được sinh phía server; trả về taskId
+	@PostMapping("/{language}/burn")
+	@PreAuthorize("@workspacePermission.hasProjectAccess(#user.userId, #projectPublicId)")
+	public ResponseEntity<String> burnTrack(@AuthenticationPrincipal SecurityUser user,
+			@PathVariable String projectPublicId, @PathVariable String language) {
+		return ResponseEntity
+				.ok(taskProcessingService.startProgressTask(saveSubtitlesService, null, projectPublicId, language));
+	}
+}
@@ -0,0 +1,50 @@
+package com.example.video.editor.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.video.editor.dto.BatchStatusDto;
+import com.example.video.editor.dto.TaskStatusSnapshot;
+import com.example.video.editor.exception.NotFoundException;
+import com.example.video.editor.model.SecurityUser;
+import com.example.video.editor.service.TaskBatchService;
+import com.example.video.editor.service.progess.TaskProcessingService;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/tasks")
+public class TaskController {
+	private final TaskProcessingService taskProcessingService;
+	private final TaskBatchService taskBatchService;
+
+	// Trạng thái mới nhất của task (progress hoặc kết quả), dùng khi không có/đã mất WebSocket.
+	// Route public để người submit ẩn danh cũng poll được; 403 nếu không phải người submit
+	@GetMapping("/{taskId}")
+	public ResponseEntity<TaskStatusSnapshot> getTaskStatus(@PathVariable String taskId,
+			@AuthenticationPrincipal SecurityUser user) throws NotFoundException {
+		return ResponseEntity.ok(taskProcessingService.getStatus(taskId, user == null ? null : user.getUserId()));
+	}
+
+	// Tiến độ gộp và trạng thái từng project của một batch
+	@GetMapping("/batches/{batchId}")
+	public ResponseEntity<BatchStatusDto> getBatchStatus(@PathVariable String batchId,
+			@AuthenticationPrincipal SecurityUser user) throws NotFoundException {
+		return ResponseEntity.ok(taskBatchService.getStatus(batchId, user.getUserId()));
+	}
+
+	// Hủy task đang chờ/đang chạy (hoặc rời khỏi task dùng chung); 403 nếu không phải người submit,
+	// 409 nếu task đã kết thúc
+	@DeleteMapping("/{taskId}")
+	public ResponseEntity<Void> cancelTask(@PathVariable String taskId, @AuthenticationPrincipal SecurityUser user)
+			throws NotFoundException {
+		taskProcessingService.cancel(taskId, user == null ? null : user.getUserId());
+		return ResponseEntity.noContent().build();
+	}
+}
@@ -2,12 +2,19 @@ package com.example.video.editor.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import jakarta.validation.Valid;
+
+import com.example.video.editor.dto.MultiLanguageTranscriptionRequest;
 import com.example.video.editor.dto.TranscriptionRequest;
+import com.example.video.editor.model.SecurityUser;
+import com.example.video.editor.service.MultiLanguageTranscriptionService;
 import com.example.video.editor.service.TranscriptionService;
 import com.example.video.editor.service.progess.TaskProcessingService;
 
@@ -18,10 +25,26 @@ public class TranscriptionController {
 	private TaskProcessingService taskProcessingService;
 	@Autowired
 	private TranscriptionService transcriptionService;
+	@Autowired
+	private MultiLanguageTranscriptionService multiLanguageTranscriptionService;
 
+	// Route public: transcribe ẩn danh được, nhưng lưu vào project thì phải là chủ project
 	@PostMapping
-	public ResponseEntity<?> getSrt(@RequestBody TranscriptionRequest request) {
+	@PreAuthorize("#request.projectPublicId == null"
+			+ " or (#user != null and @workspacePermission.hasProjectAccess(#user.userId, #request.projectPublicId))")
+	public ResponseEntity<?> getSrt(@RequestBody TranscriptionRequest request,
+			@AuthenticationPrincipal SecurityUser user) {
 		var taskId = taskProcessingService.startProgressTask(transcriptionService, request);
 		return ResponseEntity.ok(taskId);
 	}
-}
\ No newline at end of file
+
+	// Transcribe một lần, dịch song song; mỗi ngôn ngữ xong sẽ gửi event status "partial"
+	@PostMapping("/multi")
+	@PreAuthorize("#request.projectPublicId == null"
+			+ " or (#user != null and @workspacePermission.hasProjectAccess(#user.userId, #request.projectPublicId))")
+	public ResponseEntity<?> getMultiLanguageSrt(@Valid @RequestBody MultiLanguageTranscriptionRequest request,
+			@AuthenticationPrincipal SecurityUser user) {
+		var taskId = taskProcessingService.startProgressTask(multiLanguageTranscriptionService, request);
+		return ResponseEntity.ok(taskId);
+	}
+}
@@ -5,18 +5,23 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.example.video.editor.dto.BatchStatusDto;
+import com.example.video.editor.dto.BatchTaskRequest;
 import com.example.video.editor.dto.RenameRequest;
 import com.example.video.editor.dto.WorkspaceDto;
 import com.example.video.editor.exception.NotFoundException;
-import com.example.video.editor.mapstruct.WorkspaceMapper;
 import com.example.video.editor.model.SecurityUser;
-import com.example.video.editor.model.Workspace;
+import com.example.video.editor.service.TaskBatchService;
 import com.example.video.editor.service.WorkspaceService;
+import com.example.video.editor.service.WorkspaceViewService;
 
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 
 @RestController
@@ -24,12 +29,12 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class WorkspaceController {
 	private final WorkspaceService workspaceService;
-	private final WorkspaceMapper workspaceMapper;
+	private final WorkspaceViewService workspaceViewService;
+	private final TaskBatchService taskBatchService;
 
 	@GetMapping
 	public ResponseEntity<WorkspaceDto> getWorkspaceByPublicId(@PathVariable String publicId) throws NotFoundException {
-		Workspace workspace = workspaceService.getByPublicId(publicId);
-		WorkspaceDto dto = workspaceMapper.toDto(workspace);
+		WorkspaceDto dto = workspaceViewService.getWorkspace(publicId);
 		return ResponseEntity.ok(dto);
 	}
 
@@ -41,4 +46,12 @@ public class WorkspaceController {
 		return ResponseEntity.ok("Success");
 	}
 
+	// Transcribe/burn/mux nhiều project một lần; theo dõi tiến độ gộp trên /topic/progress/{batchId}
+	@PostMapping("/batch")
+	@PreAuthorize("@workspacePermission.hasAccess(#user.userId, #publicId)")
+	public ResponseEntity<BatchStatusDto> submitBatch(@AuthenticationPrincipal SecurityUser user,
+			@PathVariable String publicId, @Valid @RequestBody BatchTaskRequest request) throws NotFoundException {
+		return ResponseEntity.ok(taskBatchService.submit(user.getUserId(), publicId, request));
+	}
+
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.example.video.editor.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchItemStatusDto {
+	private String projectPublicId;
+	// Subscribe /topic/progress/{taskId} để xem chi tiết từng project; null nếu không submit được
+	private String taskId;
+	// TaskStatusSnapshot.QUEUED/RUNNING/COMPLETE/ERROR
+	private String status;
+	private Integer progress;
+	private String error;
+}
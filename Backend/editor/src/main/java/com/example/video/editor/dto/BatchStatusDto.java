@@ -0,0 +1,29 @@
+package com.example.video.editor.dto;
+
+import java.util.List;
+
+import com.example.video.editor.model.BatchOperation;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Tiến độ gộp của một batch, cũng là kết quả của event complete trên /topic/progress/{batchId}. */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchStatusDto {
+	private String batchId;
+	private BatchOperation operation;
+	private int total;
+	private int queued;
+	private int running;
+	private int succeeded;
+	private int failed;
+	// Trung bình progress của các project, project đã kết thúc tính là 100
+	private int progress;
+	private boolean finished;
+	private List<BatchItemStatusDto> items;
+}
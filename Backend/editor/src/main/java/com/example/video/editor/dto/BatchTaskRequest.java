@@ -0,0 +1,22 @@
+package com.example.video.editor.dto;
+
+import java.util.List;
+
+import com.example.video.editor.model.BatchOperation;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+@Data
+public class BatchTaskRequest {
+	@NotNull(message = "Operation can't be null")
+	private BatchOperation operation;
+	@NotEmpty(message = "Project list can't be empty")
+	@Size(max = 100, message = "A batch can contain at most 100 projects")
+	private List<@NotBlank String> projectPublicIds;
+	// TRANSCRIBE: ngôn ngữ của audio (bỏ trống = tự nhận diện); BURN/MUX: ngôn ngữ của track đã lưu
+	private String language;
+}
@@ -0,0 +1,20 @@
+package com.example.video.editor.dto;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+@Data
+public class MultiLanguageTranscriptionRequest {
+	@NotBlank(message = "Url can't be blank")
+	private String url;
+	// Ngôn ngữ gốc của audio
+	@NotBlank(message = "Source language can't be blank")
+	private String sourceLanguage;
+	@NotEmpty(message = "Target languages can't be empty")
+	private List<String> targetLanguages;
+	// Nếu có, mỗi ngôn ngữ được lưu thành một SubtitleTrack của project
+	private String projectPublicId;
+}
@@ -0,0 +1,18 @@
+package com.example.video.editor.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Một trang project; nextCursor null khi đã hết. */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProjectPageDto {
+	private List<ProjectSummaryDto> items;
+	private String nextCursor;
+}
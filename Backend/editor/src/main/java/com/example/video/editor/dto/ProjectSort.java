@@ -0,0 +1,6 @@
+package com.example.video.editor.dto;
+
+/** Thứ tự của danh sách project: mới sửa trước, hoặc theo tên A-Z. */
+public enum ProjectSort {
+	UPDATED, NAME
+}
@@ -0,0 +1,22 @@
+package com.example.video.editor.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Một project trong danh sách; chi tiết video lấy qua API của project. */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProjectSummaryDto {
+	private String publicId;
+	private String projectName;
+	private LocalDateTime createdAt;
+	private LocalDateTime updatedAt;
+	private String thumbnailUrl;
+	private Float duration;
+}
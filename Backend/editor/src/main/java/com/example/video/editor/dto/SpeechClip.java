@@ -0,0 +1,14 @@
+package com.example.video.editor.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Đoạn audio (tính bằng giây) mà Python API cần transcribe. */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SpeechClip {
+	private double start;
+	private double end;
+}
@@ -0,0 +1,54 @@
+package com.example.video.editor.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class SubtitlePatchRequest {
+	// Version của track mà client đang giữ; null = bỏ qua kiểm tra ở mức track
+	private Long baseVersion;
+
+	@Valid
+	private List<SegmentInsert> inserts = new ArrayList<>();
+
+	@Valid
+	private List<SegmentUpdate> updates = new ArrayList<>();
+
+	@Valid
+	private List<SegmentDelete> deletes = new ArrayList<>();
+
+	@Data
+	public static class SegmentInsert {
+		@Min(value = 0, message = "startMs must be >= 0")
+		private int startMs;
+		@Min(value = 0, message = "endMs must be >= 0")
+		private int endMs;
+		private String text;
+	}
+
+	@Data
+	public static class SegmentUpdate {
+		@NotBlank(message = "Segment id can't be blank")
+		private String id;
+		@NotNull(message = "Segment version is required")
+		private Long version;
+		// Các trường null sẽ được giữ nguyên
+		private Integer startMs;
+		private Integer endMs;
+		private String text;
+	}
+
+	@Data
+	public static class SegmentDelete {
+		@NotBlank(message = "Segment id can't be blank")
+		private String id;
+		@NotNull(message = "Segment version is required")
+		private Long version;
+	}
+}
@@ -0,0 +1,20 @@
+package com.example.video.editor.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SubtitlePatchResponse {
+	private Long version;
+	private int segmentCount;
+	// Theo đúng thứ tự của "inserts" trong request
+	private List<SubtitleSegmentDto> inserted;
+	private List<SubtitleSegmentDto> updated;
+}
@@ -0,0 +1,18 @@
+package com.example.video.editor.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SubtitleSegmentDto {
+	private String id;
+	private int startMs;
+	private int endMs;
+	private String text;
+	private Long version;
+}
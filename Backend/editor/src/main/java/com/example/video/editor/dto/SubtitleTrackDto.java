@@ -0,0 +1,22 @@
+package com.example.video.editor.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SubtitleTrackDto {
+	private String projectPublicId;
+	private String language;
+	private Long version;
+	private int segmentCount;
+	private LocalDateTime updatedAt;
+	private List<SubtitleSegmentDto> segments;
+}
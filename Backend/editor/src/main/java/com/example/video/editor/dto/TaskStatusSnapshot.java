@@ -0,0 +1,59 @@
+package com.example.video.editor.dto;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Trạng thái mới nhất của một task, dùng cho GET /api/tasks/{taskId} và replay khi subscribe. */
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskStatusSnapshot {
+	public static final String QUEUED = "queued";
+	public static final String RUNNING = "running";
+	public static final String COMPLETE = "complete";
+	public static final String ERROR = "error";
+
+	private String taskId;
+	private String status;
+	private Integer progress;
+	// Vị trí trong hàng đợi khi status là queued (1 = chạy kế tiếp)
+	private Integer queuePosition;
+	private String message;
+	// Chỉ có khi kết quả nhỏ (URL video...), xem TaskStatusStore
+	private Object result;
+	private String error;
+	private LocalDateTime updatedAt;
+
+	@JsonIgnore
+	public boolean isFinished() {
+		return COMPLETE.equals(status) || ERROR.equals(status);
+	}
+
+	/** Event cùng định dạng client nhận trên /topic/progress/{taskId}. */
+	public Map<String, Object> toEvent() {
+		Map<String, Object> event = new LinkedHashMap<>();
+		if (COMPLETE.equals(status)) {
+			event.put("status", status);
+			event.put("result", result);
+		} else if (ERROR.equals(status)) {
+			event.put("status", status);
+			event.put("error", error == null ? "" : error);
+		} else {
+			event.put("progress", progress == null ? 0 : progress);
+			if (queuePosition != null) {
+				event.put("queuePosition", queuePosition);
+			}
+		}
+		event.put("message", message == null ? "" : message);
+		return event;
+	}
+}
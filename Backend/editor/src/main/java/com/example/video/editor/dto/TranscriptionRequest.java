@@ -1,5 +1,7 @@
 package com.example.video.editor.dto;
 
+import java.util.List;
+
 import lombok.Data;
 
 @Data
@@ -7,5 +9,9 @@ public class TranscriptionRequest {
 	private String url;
 	private String language;
 	private boolean translate;
+	// Nếu có, kết quả sẽ được lưu thành SubtitleTrack của project
+	private String projectPublicId;
+	// Chỉ transcribe các đoạn này (đã bỏ im lặng), null = toàn bộ audio
+	private List<SpeechClip> clips;
 	// Getters and Setters
 }
\ No newline at end of file
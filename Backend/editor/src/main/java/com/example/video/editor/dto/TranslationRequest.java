@@ -0,0 +1,17 @@
+package com.example.video.editor.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TranslationRequest {
+	private List<String> q;
+	private String source;
+	private String target;
+	private String format;
+}
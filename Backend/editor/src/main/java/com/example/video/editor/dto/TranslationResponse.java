@@ -0,0 +1,10 @@
+package com.example.video.editor.dto;
+
+import java.util.List;
+
+import lombok.Data;
+
+@Data
+public class TranslationResponse {
+	private List<String> translatedText;
+}
@@ -0,0 +1,9 @@
+package com.example.video.editor.exception;
+
+// Ném ra trong ProgressTask khi lỗi là tạm thời (mạng, Cloudinary, Python API...):
+// job được đưa lại hàng đợi kể cả khi task đã gọi errorCallback trước đó
+public class RetryableTaskException extends RuntimeException {
+	public RetryableTaskException(String message, Throwable cause) {
+		super(message, cause);
+	}
+}
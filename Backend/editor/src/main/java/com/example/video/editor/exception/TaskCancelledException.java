@@ -0,0 +1,8 @@
+package com.example.video.editor.exception;
+
+// Ném ra trong ProgressTask khi task đã bị hủy qua DELETE /api/tasks/{taskId}
+public class TaskCancelledException extends RuntimeException {
+	public TaskCancelledException(String taskId) {
+		super("Task đã bị hủy: " + taskId);
+	}
+}
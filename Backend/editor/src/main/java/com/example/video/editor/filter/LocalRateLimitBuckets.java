@@ -0,0 +1,29 @@
+package com.example.video.editor.filter;
+
+import java.time.Duration;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+
+/**
+ * Chạy một instance: bucket nằm trong bộ nhớ. Bucket không được dùng trong
+ * một khoảng thì đã đầy lại, bỏ đi cũng không đổi kết quả.
+ */
+@Component
+@ConditionalOnProperty(name = "rate-limiting.store", havingValue = "local", matchIfMissing = true)
+public class LocalRateLimitBuckets implements RateLimitBuckets {
+
+	private final Cache<String, Bucket> buckets = Caffeine.newBuilder().maximumSize(100_000)
+			.expireAfterAccess(Duration.ofMinutes(10)).build();
+
+	@Override
+	public Bucket bucket(String key, Bandwidth limit) {
+		return buckets.get(key, ignored -> Bucket.builder().addLimit(limit).build());
+	}
+}
@@ -0,0 +1,10 @@
+package com.example.video.editor.filter;
+
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+
+/** Nơi giữ trạng thái token bucket theo key (user hoặc IP, theo loại route). */
+public interface RateLimitBuckets {
+
+	Bucket bucket(String key, Bandwidth limit);
+}
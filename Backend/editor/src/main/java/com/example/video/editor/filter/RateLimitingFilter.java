@@ -0,0 +1,178 @@
+package com.example.video.editor.filter;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.example.video.editor.model.AccountTier;
+import com.example.video.editor.model.SecurityUser;
+
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.ConsumptionProbe;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Giới hạn số request theo từng user (theo gói {@link AccountTier}) hoặc theo IP
+ * khi không có token. Route nặng (upload, transcribe, burn/mux) dùng bucket
+ * riêng chặt hơn; các route /api còn lại dùng bucket thường. Nơi giữ bucket do
+ * {@link RateLimitBuckets} quyết định (bộ nhớ hoặc Redis dùng chung).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RateLimitingFilter extends OncePerRequestFilter {
+	private static final AntPathMatcher pathMatcher = new AntPathMatcher();
+	private static final List<String> HEAVY_ROUTES = List.of("/sub/**", "/api/subtitles/**",
+			"/api/projects/*/videos", "/api/projects/*/subtitle-tracks/*/burn", "/api/workspaces/*/batch");
+	private static final List<String> LIMITED_ROUTES = List.of("/api/**");
+	// Webhook Stripe có chữ ký riêng và không được phép bị trả 429
+	private static final List<String> EXCLUDED_ROUTES = List.of("/api/webhook/**");
+	// Chỉ nhận literal IPv4/IPv6, không để giá trị trong header gây ra DNS lookup
+	private static final Pattern IP_LITERAL = Pattern.compile("[0-9a-fA-F:.]+");
+	private static final long FAIL_OPEN_LOG_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+	private final RateLimitBuckets buckets;
+	// Lần cuối ghi log "rate limiting unavailable" và số request cho qua từ đó
+	private final AtomicLong failOpenLoggedAt = new AtomicLong(System.nanoTime() - FAIL_OPEN_LOG_INTERVAL_NANOS);
+	private final AtomicLong failOpenSinceLog = new AtomicLong();
+
+	@Value("${rate-limiting.anonymous.requests-per-minute:30}")
+	private int anonymousRequestsPerMinute;
+
+	@Value("${rate-limiting.anonymous.heavy-requests-per-minute:3}")
+	private int anonymousHeavyRequestsPerMinute;
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		String path = request.getServletPath();
+		return "OPTIONS".equals(request.getMethod()) || matches(EXCLUDED_ROUTES, path)
+				|| !(matches(HEAVY_ROUTES, path) || matches(LIMITED_ROUTES, path));
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		boolean heavy = matches(HEAVY_ROUTES, request.getServletPath());
+		Caller caller = resolveCaller(request);
+		int perMinute = caller.tier() == null
+				? heavy ? anonymousHeavyRequestsPerMinute : anonymousRequestsPerMinute
+				: heavy ? caller.tier().getHeavyRequestsPerMinute() : caller.tier().getRequestsPerMinute();
+		String key = (heavy ? "heavy:" : "api:") + caller.key();
+		// Đổi gói thì cấu hình mới áp dụng cho bucket theo key mới
+		if (caller.tier() != null) {
+			key += ":" + caller.tier().name();
+		}
+
+		ConsumptionProbe probe;
+		try {
+			Bandwidth limit = Bandwidth.builder().capacity(perMinute).refillGreedy(perMinute, Duration.ofMinutes(1))
+					.build();
+			probe = buckets.bucket(key, limit).tryConsumeAndReturnRemaining(1);
+		} catch (RuntimeException e) {
+			// Không giữ được trạng thái bucket (Redis lỗi): cho qua thay vì chặn mọi request
+			logFailOpen(e);
+			filterChain.doFilter(request, response);
+			return;
+		}
+
+		if (!probe.isConsumed()) {
+			long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(probe.getNanosToWaitForRefill()) + 1);
+			response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+			response.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
+			response.setContentType("application/json");
+			response.getWriter().write("{\"error\":\"Too many requests\",\"status\":429}");
+			return; // Ngừng tiếp tục chuỗi bộ lọc
+		}
+		response.setHeader("X-Rate-Limit-Remaining", String.valueOf(probe.getRemainingTokens()));
+		filterChain.doFilter(request, response);
+	}
+
+	private record Caller(String key, AccountTier tier) {
+	}
+
+	/**
+	 * User đã xác thực lấy từ SecurityContext. JwtAuthenticationFilter chạy
+	 * trước và cũng nhận diện người gọi trên route public (kể cả kiểm tra token
+	 * đã bị thu hồi), nên token sai, hết hạn hoặc đã thu hồi đều được tính theo IP.
+	 */
+	private Caller resolveCaller(HttpServletRequest request) {
+		Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+		if (authentication != null && authentication.getPrincipal() instanceof SecurityUser user
+				&& user.getUserId() != null) {
+			return new Caller("user:" + user.getUserId(),
+					user.getAccountTier() == null ? AccountTier.FREE : user.getAccountTier());
+		}
+		return new Caller("ip:" + clientIp(request), null);
+	}
+
+	/**
+	 * IP của client khi đứng sau reverse proxy/load balancer: nếu request đến từ
+	 * địa chỉ nội bộ (proxy) thì đi ngược X-Forwarded-For từ phải sang, bỏ các
+	 * hop nội bộ, lấy địa chỉ công khai đầu tiên. Request đến thẳng từ địa chỉ
+	 * công khai không được tin header này (client tự đặt được).
+	 */
+	private static String clientIp(HttpServletRequest request) {
+		String remoteAddr = request.getRemoteAddr();
+		String forwardedFor = request.getHeader("X-Forwarded-For");
+		if (forwardedFor == null || forwardedFor.isBlank() || !isInternal(remoteAddr)) {
+			return remoteAddr;
+		}
+		String[] hops = forwardedFor.split(",");
+		for (int i = hops.length - 1; i >= 0; i--) {
+			String hop = hops[i].trim();
+			if (!IP_LITERAL.matcher(hop).matches()) {
+				// Giá trị không phải IP: các hop bên trái không còn tin được
+				return i == hops.length - 1 ? remoteAddr : hops[i + 1].trim();
+			}
+			if (!isInternal(hop)) {
+				return hop;
+			}
+		}
+		return hops[0].trim();
+	}
+
+	private static boolean isInternal(String ip) {
+		if (ip == null || !IP_LITERAL.matcher(ip).matches()) {
+			return false;
+		}
+		try {
+			InetAddress address = InetAddress.getByName(ip);
+			return address.isLoopbackAddress() || address.isSiteLocalAddress() || address.isLinkLocalAddress();
+		} catch (UnknownHostException e) {
+			return false;
+		}
+	}
+
+	// Redis lỗi thì mọi request đều vào đây: ghi tối đa một dòng mỗi phút
+	private void logFailOpen(RuntimeException e) {
+		long skipped = failOpenSinceLog.incrementAndGet();
+		long last = failOpenLoggedAt.get();
+		long now = System.nanoTime();
+		if (now - last >= FAIL_OPEN_LOG_INTERVAL_NANOS && failOpenLoggedAt.compareAndSet(last, now)) {
+			failOpenSinceLog.addAndGet(-skipped);
+			log.warn("Rate limiting unavailable, {} request(s) allowed without limit: {}", skipped, e.getMessage());
+		}
+	}
+
+	private static boolean matches(List<String> patterns, String path) {
+		return patterns.stream().anyMatch(pattern -> pathMatcher.match(pattern, path));
+	}
+}
@@ -0,0 +1,93 @@
+package com.example.video.editor.filter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.data.redis.RedisProperties;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.distributed.ExpirationAfterWriteStrategy;
+import io.github.bucket4j.distributed.proxy.ProxyManager;
+import io.github.bucket4j.distributed.proxy.optimization.DelayParameters;
+import io.github.bucket4j.distributed.proxy.optimization.Optimization;
+import io.github.bucket4j.distributed.proxy.optimization.Optimizations;
+import io.github.bucket4j.redis.lettuce.cas.LettuceBasedProxyManager;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.codec.ByteArrayCodec;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Bucket dùng chung giữa các instance, lưu trong Redis ({@code editor:rate:*})
+ * qua LettuceBasedProxyManager (compare-and-swap). Mỗi instance giữ proxy của
+ * bucket đang dùng trong bộ nhớ với optimization "delaying": token được trừ cục
+ * bộ và chỉ đồng bộ với Redis khi đã dùng {@code rate-limiting.sync.max-tokens}
+ * token hoặc sau {@code rate-limiting.sync.max-delay-ms}, nên đa số request
+ * không có round trip Redis. Đổi lại, toàn cluster có thể vượt giới hạn tối đa
+ * (số instance x max-tokens) request trong một khoảng đồng bộ.
+ */
+@Component
+@ConditionalOnProperty(name = "rate-limiting.store", havingValue = "redis")
+public class RedisRateLimitBuckets implements RateLimitBuckets {
+	private static final String KEY_PREFIX = "editor:rate:";
+
+	private final RedisClient redisClient;
+	private final StatefulRedisConnection<byte[], byte[]> connection;
+	private final ProxyManager<byte[]> proxyManager;
+	private final Optimization optimization;
+	private final Cache<String, Bucket> nearCache = Caffeine.newBuilder().maximumSize(100_000)
+			.expireAfterAccess(Duration.ofMinutes(10)).build();
+
+	public RedisRateLimitBuckets(RedisProperties redisProperties,
+			@Value("${rate-limiting.sync.max-tokens:5}") long maxUnsynchronizedTokens,
+			@Value("${rate-limiting.sync.max-delay-ms:500}") long maxUnsynchronizedMillis) {
+		this.redisClient = RedisClient.create(redisUri(redisProperties));
+		this.connection = redisClient.connect(ByteArrayCodec.INSTANCE);
+		// Key tự hết hạn khi bucket đã đầy lại, Redis không giữ bucket của user không còn hoạt động
+		this.proxyManager = LettuceBasedProxyManager.builderFor(connection)
+				.withExpirationStrategy(
+						ExpirationAfterWriteStrategy.basedOnTimeForRefillingBucketUpToMax(Duration.ofMinutes(1)))
+				.build();
+		this.optimization = Optimizations.delaying(
+				new DelayParameters(maxUnsynchronizedTokens, Duration.ofMillis(maxUnsynchronizedMillis)));
+	}
+
+	@Override
+	public Bucket bucket(String key, Bandwidth limit) {
+		return nearCache.get(key,
+				ignored -> proxyManager.builder().withOptimization(optimization).build(
+						(KEY_PREFIX + key).getBytes(StandardCharsets.UTF_8),
+						() -> BucketConfiguration.builder().addLimit(limit).build()));
+	}
+
+	@PreDestroy
+	void shutdown() {
+		connection.close();
+		redisClient.shutdown();
+	}
+
+	// Cùng cấu hình spring.data.redis.* như phần còn lại của ứng dụng
+	private static RedisURI redisUri(RedisProperties properties) {
+		if (properties.getUrl() != null) {
+			return RedisURI.create(properties.getUrl());
+		}
+		RedisURI uri = RedisURI.builder().withHost(properties.getHost()).withPort(properties.getPort())
+				.withDatabase(properties.getDatabase()).build();
+		if (properties.getPassword() != null) {
+			uri.setPassword(properties.getPassword().toCharArray());
+		}
+		if (properties.getUsername() != null) {
+			uri.setUsername(properties.getUsername());
+		}
+		return uri;
+	}
+}
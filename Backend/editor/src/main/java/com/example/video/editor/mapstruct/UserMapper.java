@@ -15,6 +15,12 @@ public interface UserMapper {
 	@Mapping(target = "roleName", source = "role.roleName")
 	UserDTO toDto(User user);
 
+	// Workspace (kèm project) đọc riêng qua WorkspaceViewService để không nạp lazy từng project
+	@Mapping(target = "workspace", ignore = true)
+	@Mapping(target = "accountTier", expression = "java(mapAccountTier(user.getAccountTier()))")
+	@Mapping(target = "roleName", source = "role.roleName")
+	UserDTO toDtoWithoutWorkspace(User user);
+
 	default AccountTierDTO mapAccountTier(AccountTier tier) {
 
 		if (tier == null)
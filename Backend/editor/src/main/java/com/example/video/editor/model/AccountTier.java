@@ -1,17 +1,22 @@
 package com.example.video.editor.model;
 
 public enum AccountTier {
-	FREE(0, 100), // 0đ - 100MB
-	BASIC(200, 100), // $2 = 200 cent - 100MB
-	PRO(500, 500), // $5 = 500 cent - 500MB
-	PREMIUM(1000, 1024); // $10 = 1000 cent - 1GB
+	FREE(0, 100, 60, 5), // 0đ - 100MB
+	BASIC(200, 100, 120, 10), // $2 = 200 cent - 100MB
+	PRO(500, 500, 300, 30), // $5 = 500 cent - 500MB
+	PREMIUM(1000, 1024, 600, 60); // $10 = 1000 cent - 1GB
 
 	private final int priceInCents; 
 	private final int storageLimitMb;
+	// Số request mỗi phút: API thường và route nặng (upload, transcribe, burn)
+	private final int requestsPerMinute;
+	private final int heavyRequestsPerMinute;
 
-	AccountTier(int priceInCents, int storageLimitMb) {
+	AccountTier(int priceInCents, int storageLimitMb, int requestsPerMinute, int heavyRequestsPerMinute) {
 		this.priceInCents = priceInCents;
 		this.storageLimitMb = storageLimitMb;
+		this.requestsPerMinute = requestsPerMinute;
+		this.heavyRequestsPerMinute = heavyRequestsPerMinute;
 	}
 
 	public int getPriceInCents() {
@@ -22,6 +27,14 @@ public enum AccountTier {
 		return storageLimitMb;
 	}
 
+	public int getRequestsPerMinute() {
+		return requestsPerMinute;
+	}
+
+	public int getHeavyRequestsPerMinute() {
+		return heavyRequestsPerMinute;
+	}
+
 	public String getFormattedPrice() {
 		return priceInCents == 0 ? "Free" : String.format("$%.2f", priceInCents / 100.0);
 	}
@@ -0,0 +1,10 @@
+package com.example.video.editor.model;
+
+public enum BatchOperation {
+	// Transcribe audio của video và lưu thành SubtitleTrack
+	TRANSCRIBE,
+	// Burn SubtitleTrack đã lưu vào hình (encode lại video)
+	BURN,
+	// Gắn SubtitleTrack đã lưu thành track phụ đề riêng, không encode lại
+	MUX
+}
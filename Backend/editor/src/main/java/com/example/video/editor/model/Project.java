@@ -9,10 +9,12 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToOne;
 import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -22,7 +24,10 @@ import lombok.Setter;
 import lombok.ToString;
 
 @Entity
-@Table(name = "projects")
+// Index cho danh sách project phân trang keyset theo updated_at hoặc tên
+@Table(name = "projects", indexes = {
+		@Index(name = "idx_projects_workspace_updated", columnList = "workspace_id, updated_at, project_id"),
+		@Index(name = "idx_projects_workspace_name", columnList = "workspace_id, project_name, project_id") })
 @Getter
 @Setter
 @NoArgsConstructor
@@ -64,5 +69,18 @@ public class Project {
 		if (this.publicId == null) {
 			this.publicId = UUID.randomUUID().toString();
 		}
+		// Builder không dùng giá trị khởi tạo của field
+		if (this.createdAt == null) {
+			this.createdAt = LocalDateTime.now();
+		}
+		if (this.updatedAt == null) {
+			this.updatedAt = this.createdAt;
+		}
+	}
+
+	// Đổi tên, gắn video mới... đưa project lên đầu danh sách sắp theo updated_at
+	@PreUpdate
+	public void touchUpdatedAt() {
+		this.updatedAt = LocalDateTime.now();
 	}
 }
\ No newline at end of file
@@ -26,28 +26,48 @@ public class SecurityUser  implements UserDetails {
     private Boolean isCredentialsNonExpired;
     private  Boolean isEnabled;
     private String roleName;
+    private UserStatus status;
+    private AccountTier accountTier;
 
     public static SecurityUser build(User user) {
 //        List<SimpleGrantedAuthority> authorities = null;
         String userRoleName = user.getRole() != null ? user.getRole().getRoleName() : "USER"; // Default to "USER" if role is null
+        return of(user.getUserId(), user.getEmail(), user.getPasswordHash(), userRoleName, user.getStatus(),
+                user.getAccountTier());
+    }
+
+    /**
+     * Dựng lại principal từ các claim của access token (uid, role, status, tier), không
+     * cần query DB. Không có mật khẩu: principal này chỉ dùng sau khi token đã
+     * được xác thực.
+     */
+    public static SecurityUser fromTokenClaims(Long userId, String email, String roleName, UserStatus status,
+            AccountTier accountTier) {
+        return of(userId, email, null, roleName, status, accountTier);
+    }
+
+    private static SecurityUser of(Long userId, String email, String password, String userRoleName, UserStatus status,
+            AccountTier accountTier) {
 
         // 2. Create authorities list for Spring Security
         // It's common practice in Spring Security to prefix roles with "ROLE_"
         List<SimpleGrantedAuthority> authorities = Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + userRoleName));
 
         // 3. Determine account status based on UserStatus enum
-        boolean isAccountNonLocked = user.getStatus() != UserStatus.BLOCKED;
-        boolean isEnabled = user.getStatus() == UserStatus.ACTIVE;
+        boolean isAccountNonLocked = status != UserStatus.BLOCKED;
+        boolean isEnabled = status == UserStatus.ACTIVE;
         return new SecurityUser(
-                user.getUserId(),
-                user.getEmail(),
-                user.getPasswordHash(),
+                userId,
+                email,
+                password,
                 authorities,
                 true,
                 isAccountNonLocked,
                 true,
                 isEnabled,
-                userRoleName // Dựa trên trạng thái kích hoạt của user
+                userRoleName, // Dựa trên trạng thái kích hoạt của user
+                status,
+                accountTier
         );
     }
 
@@ -0,0 +1,57 @@
+package com.example.video.editor.model;
+
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+@Entity
+@Table(name = "subtitle_segments", indexes = @Index(name = "idx_subtitle_segments_track_start", columnList = "track_id, start_ms"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString(exclude = { "track" })
+public class SubtitleSegment {
+
+	// UUID sinh phía ứng dụng (không dùng IDENTITY) để Hibernate có thể batch insert
+	@Id
+	@GeneratedValue(strategy = GenerationType.UUID)
+	@Column(name = "segment_id", length = 36)
+	private String segmentId;
+
+	@ManyToOne(fetch = FetchType.LAZY)
+	@JoinColumn(name = "track_id", nullable = false)
+	@OnDelete(action = OnDeleteAction.CASCADE)
+	private SubtitleTrack track;
+
+	@Column(name = "start_ms", nullable = false)
+	private int startMs;
+
+	@Column(name = "end_ms", nullable = false)
+	private int endMs;
+
+	@Column(name = "text", columnDefinition = "TEXT")
+	private String text;
+
+	@Version
+	@Column(name = "version")
+	private Long version;
+}
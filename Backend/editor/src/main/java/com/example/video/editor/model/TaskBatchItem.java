@@ -0,0 +1,62 @@
+package com.example.video.editor.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Một project trong một batch. Job được tham chiếu qua jobId chứ không lưu
+ * batch trên TaskJob, vì nhờ single-flight một job có thể thuộc nhiều batch
+ * (hoặc đã được submit lẻ từ trước).
+ */
+@Entity
+@Table(name = "task_batch_items", indexes = { @Index(name = "idx_task_batch_items_batch", columnList = "batch_id"),
+		@Index(name = "idx_task_batch_items_job", columnList = "job_id") })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskBatchItem {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@Column(name = "item_id")
+	private Long itemId;
+
+	@Column(name = "batch_id", nullable = false, length = 36)
+	private String batchId;
+
+	@Column(name = "project_public_id", nullable = false, length = 36)
+	private String projectPublicId;
+
+	@Enumerated(EnumType.STRING)
+	@Column(name = "operation", nullable = false, length = 16)
+	private BatchOperation operation;
+
+	// null nếu project không submit được (ví dụ chưa có video), lý do nằm ở error
+	@Column(name = "job_id", length = 36)
+	private String jobId;
+
+	@Column(name = "error", length = 255)
+	private String error;
+
+	@Column(name = "owner_id")
+	private Long ownerId;
+
+	@Column(name = "created_at", nullable = false, updatable = false)
+	private LocalDateTime createdAt;
+}
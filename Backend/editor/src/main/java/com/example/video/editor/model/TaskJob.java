@@ -0,0 +1,100 @@
+package com.example.video.editor.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Một ProgressTask đã được submit, lưu trong DB để sống sót qua restart. Worker
+ * claim job bằng lease (lockedBy + leaseUntil); job RUNNING có lease hết hạn
+ * được coi là worker đã chết và sẽ được chạy lại.
+ */
+@Entity
+@Table(name = "task_jobs", indexes = { @Index(name = "idx_task_jobs_status_next", columnList = "status, next_attempt_at"),
+		@Index(name = "idx_task_jobs_priority", columnList = "status, priority, created_at") },
+		uniqueConstraints = @UniqueConstraint(name = "uk_task_jobs_active_key", columnNames = "active_key"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString(exclude = { "payload" })
+public class TaskJob {
+
+	// Cũng là taskId client dùng để subscribe /topic/progress/{taskId}
+	@Id
+	@Column(name = "job_id", length = 36)
+	private String jobId;
+
+	// Tên bean của ProgressTask
+	@Column(name = "task_type", nullable = false, length = 100)
+	private String taskType;
+
+	@Column(name = "fingerprint", length = 64)
+	private String fingerprint;
+
+	// "taskType:fingerprint" khi job còn QUEUED/RUNNING, NULL khi đã kết thúc. Unique
+	// nên hai instance không thể cùng tạo hai job đang chạy cho cùng một việc
+	@Column(name = "active_key", length = 170)
+	private String activeKey;
+
+	@Enumerated(EnumType.STRING)
+	@Column(name = "status", nullable = false, length = 16)
+	private TaskJobStatus status;
+
+	// Người submit (null nếu gọi ẩn danh) và gói tài khoản lúc submit, dùng để xếp lịch
+	@Column(name = "owner_id")
+	private Long ownerId;
+
+	@Enumerated(EnumType.STRING)
+	@Column(name = "account_tier", length = 20)
+	private AccountTier accountTier;
+
+	// AccountTier.ordinal(): số lớn hơn được ưu tiên hơn
+	@Column(name = "priority", nullable = false)
+	private int priority;
+
+	// Tham số của task, xem TaskPayloadCodec
+	@Column(name = "payload", nullable = false, columnDefinition = "LONGTEXT")
+	private String payload;
+
+	@Column(name = "attempts", nullable = false)
+	private int attempts;
+
+	@Column(name = "max_attempts", nullable = false)
+	private int maxAttempts;
+
+	@Column(name = "locked_by", length = 100)
+	private String lockedBy;
+
+	@Column(name = "lease_until")
+	private LocalDateTime leaseUntil;
+
+	@Column(name = "next_attempt_at")
+	private LocalDateTime nextAttemptAt;
+
+	@Column(name = "last_error", length = 2000)
+	private String lastError;
+
+	@Column(name = "created_at", nullable = false, updatable = false)
+	private LocalDateTime createdAt;
+
+	@Column(name = "started_at")
+	private LocalDateTime startedAt;
+
+	@Column(name = "finished_at")
+	private LocalDateTime finishedAt;
+}
@@ -0,0 +1,13 @@
+package com.example.video.editor.model;
+
+public enum TaskJobStatus {
+	QUEUED,
+	RUNNING,
+	SUCCEEDED,
+	FAILED,
+	CANCELLED;
+
+	public boolean isFinished() {
+		return this == SUCCEEDED || this == FAILED || this == CANCELLED;
+	}
+}
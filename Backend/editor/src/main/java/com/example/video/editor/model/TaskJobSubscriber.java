@@ -0,0 +1,47 @@
+package com.example.video.editor.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Một lần submit đang chờ kết quả của một job. Nhờ single-flight nhiều lần
+ * submit (của nhiều người) có thể dùng chung một job; job chỉ bị hủy khi người
+ * chờ cuối cùng hủy, những người trước đó chỉ rời khỏi job.
+ */
+@Entity
+@Table(name = "task_job_subscribers",
+		indexes = @Index(name = "idx_task_job_subscribers_job", columnList = "job_id, user_id"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskJobSubscriber {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@Column(name = "subscriber_id")
+	private Long subscriberId;
+
+	@Column(name = "job_id", nullable = false, length = 36)
+	private String jobId;
+
+	// null nếu submit ẩn danh: vẫn tính là người chờ, ai có taskId đều xem được trạng thái nhưng không hủy được
+	@Column(name = "user_id")
+	private Long userId;
+
+	@Column(name = "created_at", nullable = false, updatable = false)
+	private LocalDateTime createdAt;
+}
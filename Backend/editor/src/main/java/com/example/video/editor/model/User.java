@@ -65,6 +65,23 @@ public class User {
 	@Column(name = "last_failed_login_time")
 	private LocalDateTime lastFailedLoginTime; // To store the timestamp of the last failed login
 
+	// Tổng bytes video của user, chỉ đổi qua UPDATE cộng dồn trong UserRepository
+	// (updatable = false để save() entity không ghi đè bằng giá trị đã đọc từ trước)
+	@Builder.Default
+	@Column(name = "used_bytes", nullable = false, updatable = false)
+	private long usedBytes = 0;
+
+	// Phiên bản token (claim ver), xem TokenRevocationStore. Lưu trong DB nên không mất khi
+	// restart và mọi instance đọc cùng một giá trị
+	@Builder.Default
+	@Column(name = "token_version", nullable = false)
+	private long tokenVersion = 0;
+
+	/** Thu hồi mọi access token đã phát; có hiệu lực khi transaction đang chạy commit. */
+	public void revokeTokens() {
+		tokenVersion++;
+	}
+
 
 
 }
\ No newline at end of file
@@ -1,8 +1,14 @@
 package com.example.video.editor.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.example.video.editor.model.Project;
@@ -11,5 +17,53 @@ import com.example.video.editor.model.Project;
 public interface ProjectRepository extends JpaRepository<Project, Long> {
 	Optional<Project> findByPublicId(String publicId);
 
-	
+	@Query("SELECT COUNT(p) > 0 FROM Project p WHERE p.publicId = :projectPublicId"
+			+ " AND p.workspace.user.userId = :userId")
+	boolean hasPermission(@Param("userId") Long userId, @Param("projectPublicId") String projectPublicId);
+
+	/** Các project (kèm video) thuộc workspace trong một query, dùng cho batch. */
+	@Query("SELECT p FROM Project p LEFT JOIN FETCH p.video WHERE p.workspace.publicId = :workspacePublicId"
+			+ " AND p.publicId IN :publicIds")
+	List<Project> findAllInWorkspaceWithVideo(@Param("workspacePublicId") String workspacePublicId,
+			@Param("publicIds") Collection<String> publicIds);
+
+	/** Một dòng của danh sách project: chỉ các cột hiển thị, không nạp entity. */
+	interface ProjectListRow {
+		Long getProjectId();
+
+		String getPublicId();
+
+		String getProjectName();
+
+		LocalDateTime getCreatedAt();
+
+		LocalDateTime getUpdatedAt();
+
+		String getThumbnailUrl();
+
+		Float getDuration();
+	}
+
+	String PROJECT_LIST_SELECT = "SELECT p.projectId AS projectId, p.publicId AS publicId,"
+			+ " p.projectName AS projectName, p.createdAt AS createdAt, p.updatedAt AS updatedAt,"
+			+ " v.thumbnailUrl AS thumbnailUrl, v.duration AS duration FROM Project p LEFT JOIN p.video v"
+			+ " WHERE p.workspace.publicId = :workspacePublicId AND p.projectName LIKE :namePattern ESCAPE '!'";
+
+	/**
+	 * Trang kế tiếp theo updated_at giảm dần, sau vị trí (updatedAt, projectId)
+	 * của dòng cuối trang trước. Đi theo idx_projects_workspace_updated, không
+	 * dùng OFFSET.
+	 */
+	@Query(PROJECT_LIST_SELECT + " AND (p.updatedAt < :updatedAt OR (p.updatedAt = :updatedAt"
+			+ " AND p.projectId < :projectId)) ORDER BY p.updatedAt DESC, p.projectId DESC")
+	List<ProjectListRow> findPageByUpdatedAt(@Param("workspacePublicId") String workspacePublicId,
+			@Param("namePattern") String namePattern, @Param("updatedAt") LocalDateTime updatedAt,
+			@Param("projectId") Long projectId, Pageable limit);
+
+	/** Như trên, theo tên tăng dần (idx_projects_workspace_name). */
+	@Query(PROJECT_LIST_SELECT + " AND (p.projectName > :projectName OR (p.projectName = :projectName"
+			+ " AND p.projectId > :projectId)) ORDER BY p.projectName ASC, p.projectId ASC")
+	List<ProjectListRow> findPageByName(@Param("workspacePublicId") String workspacePublicId,
+			@Param("namePattern") String namePattern, @Param("projectName") String projectName,
+			@Param("projectId") Long projectId, Pageable limit);
 }
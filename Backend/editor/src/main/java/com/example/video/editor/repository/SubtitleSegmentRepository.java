@@ -0,0 +1,26 @@
+package com.example.video.editor.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.example.video.editor.model.SubtitleSegment;
+
+@Repository
+public interface SubtitleSegmentRepository extends JpaRepository<SubtitleSegment, String> {
+
+	@Query("SELECT s FROM SubtitleSegment s WHERE s.track.trackId = :trackId ORDER BY s.startMs, s.endMs, s.segmentId")
+	List<SubtitleSegment> findOrderedByTrackId(@Param("trackId") Long trackId);
+
+	@Query("SELECT s FROM SubtitleSegment s WHERE s.track.trackId = :trackId AND s.segmentId IN :segmentIds")
+	List<SubtitleSegment> findByTrackIdAndIds(@Param("trackId") Long trackId,
+			@Param("segmentIds") List<String> segmentIds);
+
+	@Modifying
+	@Query("DELETE FROM SubtitleSegment s WHERE s.track.trackId = :trackId")
+	int deleteAllByTrackId(@Param("trackId") Long trackId);
+}
@@ -0,0 +1,13 @@
+package com.example.video.editor.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.example.video.editor.model.SubtitleTrack;
+
+@Repository
+public interface SubtitleTrackRepository extends JpaRepository<SubtitleTrack, Long> {
+	Optional<SubtitleTrack> findByProject_PublicIdAndLanguage(String projectPublicId, String language);
+}
@@ -0,0 +1,19 @@
+package com.example.video.editor.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.example.video.editor.model.TaskBatchItem;
+
+@Repository
+public interface TaskBatchItemRepository extends JpaRepository<TaskBatchItem, Long> {
+
+	List<TaskBatchItem> findByBatchIdOrderByItemIdAsc(String batchId);
+
+	@Query("SELECT DISTINCT i.batchId FROM TaskBatchItem i WHERE i.jobId = :jobId")
+	List<String> findBatchIdsByJobId(@Param("jobId") String jobId);
+}
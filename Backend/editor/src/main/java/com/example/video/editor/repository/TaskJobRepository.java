@@ -0,0 +1,120 @@
+package com.example.video.editor.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.example.video.editor.model.AccountTier;
+import com.example.video.editor.model.TaskJob;
+import com.example.video.editor.model.TaskJobStatus;
+
+import jakarta.persistence.LockModeType;
+
+@Repository
+public interface TaskJobRepository extends JpaRepository<TaskJob, String> {
+
+	@Query("SELECT j.jobId FROM TaskJob j WHERE j.activeKey = :activeKey")
+	Optional<String> findJobIdByActiveKey(@Param("activeKey") String activeKey);
+
+	// Khóa dòng job để thêm/bớt người chờ và hủy job không chen vào nhau
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("SELECT j FROM TaskJob j WHERE j.jobId = :jobId")
+	Optional<TaskJob> findByIdForUpdate(@Param("jobId") String jobId);
+
+	// Job đang chờ đến lượt, hoặc đang RUNNING nhưng worker giữ nó đã mất lease
+	interface ClaimableJob {
+		String getJobId();
+
+		String getTaskType();
+
+		Long getOwnerId();
+
+		AccountTier getAccountTier();
+
+		LocalDateTime getCreatedAt();
+	}
+
+	// Thứ tự lấy (theo thời gian hoặc theo priority) do Pageable quyết định
+	@Query("SELECT j.jobId AS jobId, j.taskType AS taskType, j.ownerId AS ownerId, j.accountTier AS accountTier,"
+			+ " j.createdAt AS createdAt FROM TaskJob j WHERE (j.status = com.example.video.editor.model.TaskJobStatus.QUEUED"
+			+ " AND (j.nextAttemptAt IS NULL OR j.nextAttemptAt <= :now))"
+			+ " OR (j.status = com.example.video.editor.model.TaskJobStatus.RUNNING AND j.leaseUntil < :now)")
+	List<ClaimableJob> findClaimable(@Param("now") LocalDateTime now, Pageable pageable);
+
+	interface OwnerLoad {
+		Long getOwnerId();
+
+		long getRunning();
+	}
+
+	/** Số job đang chạy (lease còn hạn) của từng người dùng trên toàn cluster. */
+	@Query("SELECT j.ownerId AS ownerId, COUNT(j) AS running FROM TaskJob j"
+			+ " WHERE j.status = com.example.video.editor.model.TaskJobStatus.RUNNING AND j.leaseUntil >= :now"
+			+ " GROUP BY j.ownerId")
+	List<OwnerLoad> countRunningByOwner(@Param("now") LocalDateTime now);
+
+	/** Người dùng gói cao hơn submit trùng job đang chờ: nâng priority của job đó. */
+	@Modifying
+	@Query("UPDATE TaskJob j SET j.priority = :priority, j.accountTier = :tier WHERE j.jobId = :jobId"
+			+ " AND j.priority < :priority AND j.status = com.example.video.editor.model.TaskJobStatus.QUEUED")
+	int raisePriority(@Param("jobId") String jobId, @Param("priority") int priority, @Param("tier") AccountTier tier);
+
+	/** Claim có điều kiện: chỉ một worker cập nhật được 1 dòng. */
+	@Modifying
+	@Query("UPDATE TaskJob j SET j.status = com.example.video.editor.model.TaskJobStatus.RUNNING,"
+			+ " j.lockedBy = :worker, j.leaseUntil = :leaseUntil, j.attempts = j.attempts + 1, j.startedAt = :now"
+			+ " WHERE j.jobId = :jobId AND ((j.status = com.example.video.editor.model.TaskJobStatus.QUEUED"
+			+ " AND (j.nextAttemptAt IS NULL OR j.nextAttemptAt <= :now))"
+			+ " OR (j.status = com.example.video.editor.model.TaskJobStatus.RUNNING AND j.leaseUntil < :now))")
+	int claim(@Param("jobId") String jobId, @Param("worker") String worker,
+			@Param("leaseUntil") LocalDateTime leaseUntil, @Param("now") LocalDateTime now);
+
+	@Modifying
+	@Query("UPDATE TaskJob j SET j.leaseUntil = :leaseUntil WHERE j.jobId IN :jobIds AND j.lockedBy = :worker"
+			+ " AND j.status = com.example.video.editor.model.TaskJobStatus.RUNNING")
+	int renewLeases(@Param("jobIds") Collection<String> jobIds, @Param("worker") String worker,
+			@Param("leaseUntil") LocalDateTime leaseUntil);
+
+	@Modifying
+	@Query("UPDATE TaskJob j SET j.status = :status, j.lastError = :error, j.finishedAt = :now,"
+			+ " j.lockedBy = NULL, j.leaseUntil = NULL, j.activeKey = NULL"
+			+ " WHERE j.jobId = :jobId AND j.lockedBy = :worker"
+			+ " AND j.status = com.example.video.editor.model.TaskJobStatus.RUNNING")
+	int finish(@Param("jobId") String jobId, @Param("worker") String worker, @Param("status") TaskJobStatus status,
+			@Param("error") String error, @Param("now") LocalDateTime now);
+
+	@Modifying
+	@Query("UPDATE TaskJob j SET j.status = com.example.video.editor.model.TaskJobStatus.QUEUED,"
+			+ " j.lastError = :error, j.nextAttemptAt = :nextAttemptAt, j.lockedBy = NULL, j.leaseUntil = NULL"
+			+ " WHERE j.jobId = :jobId AND j.lockedBy = :worker"
+			+ " AND j.status = com.example.video.editor.model.TaskJobStatus.RUNNING")
+	int requeue(@Param("jobId") String jobId, @Param("worker") String worker, @Param("error") String error,
+			@Param("nextAttemptAt") LocalDateTime nextAttemptAt);
+
+	/** Hủy job chưa kết thúc, bất kể worker nào đang giữ lease. */
+	@Modifying
+	@Query("UPDATE TaskJob j SET j.status = com.example.video.editor.model.TaskJobStatus.CANCELLED,"
+			+ " j.lastError = :reason, j.finishedAt = :now, j.lockedBy = NULL, j.leaseUntil = NULL,"
+			+ " j.activeKey = NULL"
+			+ " WHERE j.jobId = :jobId AND j.status IN (com.example.video.editor.model.TaskJobStatus.QUEUED,"
+			+ " com.example.video.editor.model.TaskJobStatus.RUNNING)")
+	int cancel(@Param("jobId") String jobId, @Param("reason") String reason, @Param("now") LocalDateTime now);
+
+	@Query("SELECT j.jobId FROM TaskJob j WHERE j.jobId IN :jobIds"
+			+ " AND j.status = com.example.video.editor.model.TaskJobStatus.CANCELLED")
+	List<String> findCancelledIn(@Param("jobIds") Collection<String> jobIds);
+
+	@Modifying
+	@Query("DELETE FROM TaskJob j WHERE j.status IN :statuses AND j.finishedAt < :before")
+	int deleteFinishedBefore(@Param("statuses") Collection<TaskJobStatus> statuses,
+			@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,28 @@
+package com.example.video.editor.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.example.video.editor.model.TaskJobSubscriber;
+
+@Repository
+public interface TaskJobSubscriberRepository extends JpaRepository<TaskJobSubscriber, Long> {
+
+	boolean existsByJobIdAndUserId(String jobId, Long userId);
+
+	boolean existsByJobIdAndUserIdIsNull(String jobId);
+
+	long countByJobId(String jobId);
+
+	@Modifying
+	@Query("DELETE FROM TaskJobSubscriber s WHERE s.jobId = :jobId AND s.userId = :userId")
+	int deleteByJobIdAndUserId(@Param("jobId") String jobId, @Param("userId") Long userId);
+
+	// Dọn sau khi job đã bị purge khỏi task_jobs
+	@Modifying
+	@Query("DELETE FROM TaskJobSubscriber s WHERE NOT EXISTS (SELECT j.jobId FROM TaskJob j WHERE j.jobId = s.jobId)")
+	int deleteOrphans();
+}
@@ -1,27 +1,73 @@
 package com.example.video.editor.repository;
 
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.example.video.editor.model.AccountTier;
 import com.example.video.editor.model.User;
 
+import jakarta.transaction.Transactional;
+
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
 	Optional<User> findByUsername(String username);
 
 	Optional<User> findByEmail(String email);
 
+	/** Danh sách user kèm role và workspace trong một query (project đọc riêng qua WorkspaceViewService). */
+	@Query("SELECT u FROM User u JOIN FETCH u.role LEFT JOIN FETCH u.workspace ORDER BY u.userId")
+	List<User> findAllWithRoleAndWorkspace();
+
+	@Query("SELECT u.accountTier FROM User u WHERE u.userId = :userId")
+	Optional<AccountTier> findAccountTierByUserId(@Param("userId") Long userId);
+
+	@Query("SELECT u.tokenVersion FROM User u WHERE u.userId = :userId")
+	Optional<Long> findTokenVersionByUserId(@Param("userId") Long userId);
+
+	@Query("SELECT u.usedBytes FROM User u WHERE u.userId = :userId")
+	Optional<Long> findUsedBytesByUserId(@Param("userId") Long userId);
+
+	/** Cộng dồn nguyên tử, chạy trong cùng transaction với thao tác thêm/xóa Video. */
+	@Modifying
+	@Query("UPDATE User u SET u.usedBytes = u.usedBytes + :delta WHERE u.userId = :userId")
+	int addUsedBytes(@Param("userId") Long userId, @Param("delta") long delta);
+
+	@Modifying
+	@Query("UPDATE User u SET u.usedBytes = :usedBytes WHERE u.userId = :userId")
+	int setUsedBytes(@Param("userId") Long userId, @Param("usedBytes") long usedBytes);
+
+	/** Sửa bộ đếm có điều kiện: bỏ qua nếu đã có upload/xóa khác chen vào sau lúc tính. */
+	@Transactional
+	@Modifying
+	@Query("UPDATE User u SET u.usedBytes = :actualBytes WHERE u.userId = :userId AND u.usedBytes = :expectedBytes")
+	int correctUsedBytes(@Param("userId") Long userId, @Param("expectedBytes") long expectedBytes,
+			@Param("actualBytes") long actualBytes);
+
+	/** Một trang (keyset theo userId) gồm bộ đếm hiện tại và tổng thật từ bảng video. */
 	@Query("""
-			    SELECT SUM(v.bytes)
-			    FROM Video v
-			    JOIN v.project p
-			    JOIN p.workspace w
-			    JOIN w.user u
-			    WHERE u.id = :userId
+			    SELECT u.userId AS userId, u.usedBytes AS usedBytes, COALESCE(SUM(v.bytes), 0) AS actualBytes
+			    FROM User u
+			    LEFT JOIN u.workspace w
+			    LEFT JOIN w.projects p
+			    LEFT JOIN p.video v
+			    WHERE u.userId > :afterUserId
+			    GROUP BY u.userId, u.usedBytes
+			    ORDER BY u.userId
 			""")
-	Long getUsedStorageByUserId(@Param("userId") Long userId);
+	List<StorageUsageRow> findStorageUsagePage(@Param("afterUserId") Long afterUserId, Pageable limit);
+
+	interface StorageUsageRow {
+		Long getUserId();
+
+		long getUsedBytes();
+
+		Long getActualBytes();
+	}
 }
\ No newline at end of file
@@ -12,6 +12,4 @@ public interface VideoRepository extends JpaRepository<Video,Long> {
 
 	Optional<Video> findByCloudinaryPublicId(String publicId);
 
-	void deleteByCloudinaryPublicId(String publicId);
-
 }
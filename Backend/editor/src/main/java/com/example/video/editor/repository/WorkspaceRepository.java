@@ -1,5 +1,8 @@
 package com.example.video.editor.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -13,4 +16,76 @@ public interface WorkspaceRepository extends JpaRepository<Workspace, Long> {
 	boolean hasPermission(@Param("userId") Long userId, @Param("workspacePublicId") String workspacePublicId);
 
 	Optional<Workspace> findByPublicId(String publicId);
+
+	/**
+	 * Một dòng cho mỗi project của workspace (kèm video nếu có); workspace không
+	 * có project vẫn có một dòng với các cột project/video null. Chỉ đọc cột cần
+	 * hiển thị nên không nạp entity và không kéo theo quan hệ lazy/eager.
+	 */
+	interface WorkspaceViewRow {
+		Long getWorkspaceId();
+
+		String getWorkspacePublicId();
+
+		String getWorkspaceName();
+
+		String getWorkspaceDescription();
+
+		LocalDateTime getWorkspaceCreatedAt();
+
+		LocalDateTime getWorkspaceUpdatedAt();
+
+		Long getProjectId();
+
+		String getProjectPublicId();
+
+		String getProjectName();
+
+		String getProjectDescription();
+
+		LocalDateTime getProjectCreatedAt();
+
+		LocalDateTime getProjectUpdatedAt();
+
+		Long getVideoId();
+
+		String getVideoTitle();
+
+		String getVideoCloudinaryPublicId();
+
+		String getVideoUrl();
+
+		String getVideoThumbnailUrl();
+
+		String getVideoSecureUrl();
+
+		String getVideoResourceType();
+
+		String getVideoFormat();
+
+		Float getVideoDuration();
+
+		Long getVideoBytes();
+
+		Integer getVideoWidth();
+
+		Integer getVideoHeight();
+	}
+
+	String WORKSPACE_VIEW_SELECT = "SELECT w.workspaceId AS workspaceId, w.publicId AS workspacePublicId,"
+			+ " w.workspaceName AS workspaceName, w.description AS workspaceDescription,"
+			+ " w.createdAt AS workspaceCreatedAt, w.updatedAt AS workspaceUpdatedAt, p.projectId AS projectId,"
+			+ " p.publicId AS projectPublicId, p.projectName AS projectName, p.description AS projectDescription,"
+			+ " p.createdAt AS projectCreatedAt, p.updatedAt AS projectUpdatedAt, v.videoId AS videoId,"
+			+ " v.title AS videoTitle, v.cloudinaryPublicId AS videoCloudinaryPublicId, v.url AS videoUrl,"
+			+ " v.thumbnailUrl AS videoThumbnailUrl, v.secureUrl AS videoSecureUrl,"
+			+ " v.resourceType AS videoResourceType, v.format AS videoFormat, v.duration AS videoDuration,"
+			+ " v.bytes AS videoBytes, v.width AS videoWidth, v.height AS videoHeight"
+			+ " FROM Workspace w LEFT JOIN w.projects p LEFT JOIN p.video v";
+
+	@Query(WORKSPACE_VIEW_SELECT + " WHERE w.publicId = :publicId ORDER BY p.projectId")
+	List<WorkspaceViewRow> findViewRowsByPublicId(@Param("publicId") String publicId);
+
+	@Query(WORKSPACE_VIEW_SELECT + " WHERE w.workspaceId IN :workspaceIds ORDER BY w.workspaceId, p.projectId")
+	List<WorkspaceViewRow> findViewRowsByWorkspaceIds(@Param("workspaceIds") Collection<Long> workspaceIds);
 }
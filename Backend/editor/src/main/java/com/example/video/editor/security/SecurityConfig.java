@@ -67,8 +67,9 @@ public class SecurityConfig {
 												   ClientRegistrationRepository clientRegistrationRepository) throws Exception {
 		http.csrf(csrf -> csrf.disable())
 				.authorizeHttpRequests(auth -> auth.requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
-						.requestMatchers(SecurityConstants.PUBLIC_URLS.toArray(new String[0])).permitAll().anyRequest()
-						.authenticated())
+						.requestMatchers(SecurityConstants.PUBLIC_URLS.toArray(new String[0])).permitAll()
+						// Ngoài health (public), actuator chỉ cho ADMIN, ví dụ scraper Prometheus dùng token ADMIN
+						.requestMatchers("/actuator/**").hasRole("ADMIN").anyRequest().authenticated())
 				.sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
 				.authenticationProvider(daoAuthenticationProvider())
 				.addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
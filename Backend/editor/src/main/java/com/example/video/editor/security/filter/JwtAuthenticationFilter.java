@@ -14,6 +14,8 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import com.example.video.editor.config.constant.SecurityConstants;
 import com.example.video.editor.security.jwt.JwtService;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -40,7 +42,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 		boolean isExcluded = SecurityConstants.PUBLIC_URLS.stream()
 				.anyMatch(pattern -> pathMatcher.match(pattern, request.getServletPath()));
 		if (isExcluded) {
-
+			// Route public vẫn nhận diện người gọi nếu có token hợp lệ (owner của task,
+			// gói tài khoản, kiểm tra quyền project); token thiếu/sai thì coi là ẩn danh
+			String authHeader = request.getHeader("Authorization");
+			if (authHeader != null && authHeader.startsWith("Bearer ")) {
+				try {
+					authenticate(authHeader.substring(7), request);
+				} catch (RuntimeException e) {
+					SecurityContextHolder.clearContext();
+				}
+			}
 			filterChain.doFilter(request, response);
 			return;
 		}
@@ -56,22 +67,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
 		final String jwt = authHeader.substring(7);
 		try {
-			final String userEmail = jwtService.extractUsername(jwt);
-			if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-				UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
-				if (!jwtService.isTokenValid(jwt, userDetails)) {
-					response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-					response.setContentType("application/json");
-					response.getWriter().write("{\"error\":\"JWT token is invalid or expired\",\"status\":401}");
-					return; // Kết thúc filter chain, không tiếp tục xử lý request
-				}
-				UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(userDetails,
-						null, userDetails.getAuthorities());
-				authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-				SecurityContextHolder.getContext().setAuthentication(authToken);
+			if (!authenticate(jwt, request)) {
+				response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+				response.setContentType("application/json");
+				response.getWriter().write("{\"error\":\"JWT token is invalid or expired\",\"status\":401}");
+				return; // Kết thúc filter chain, không tiếp tục xử lý request
 			}
 
 			filterChain.doFilter(request, response);
+		} catch (JwtException e) {
+			response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+			response.setContentType("application/json");
+			response.getWriter().write("{\"error\":\"JWT token is invalid or expired\",\"status\":401}");
+			return;
 		} catch (Exception e) {
 			response.setStatus(HttpServletResponse.SC_BAD_GATEWAY);
 			response.setContentType("application/json");
@@ -79,4 +87,34 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 			return;
 		}
 	}
+
+	/**
+	 * Verify token (đúng một lần, các bước sau dùng lại claims) và đặt principal
+	 * vào SecurityContext. Trả về false nếu token không khớp user hoặc user bị khóa.
+	 *
+	 * @throws JwtException token sai chữ ký, hết hạn hoặc đã bị thu hồi
+	 */
+	private boolean authenticate(String jwt, HttpServletRequest request) {
+		final Claims claims = jwtService.verify(jwt);
+		final String userEmail = claims.getSubject();
+		if (userEmail == null) {
+			return false;
+		}
+		if (SecurityContextHolder.getContext().getAuthentication() != null) {
+			return true;
+		}
+		// Token mang đủ uid/role/status thì không cần query user
+		UserDetails userDetails = jwtService.principalFrom(claims);
+		if (userDetails == null) {
+			userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+		}
+		if (!jwtService.isTokenValid(claims, userDetails) || !userDetails.isAccountNonLocked()) {
+			return false;
+		}
+		UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(userDetails, null,
+				userDetails.getAuthorities());
+		authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+		SecurityContextHolder.getContext().setAuthentication(authToken);
+		return true;
+	}
 }
@@ -0,0 +1,61 @@
+package com.example.video.editor.security.jwt;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.video.editor.repository.UserRepository;
+import com.example.video.editor.service.UserCacheEvictEvent;
+import com.example.video.editor.service.UserChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Đọc phiên bản token từ cột users.token_version qua Caffeine cache
+ * ({@code jwt.revocation.cache-max-entries}, {@code jwt.revocation.cache-ttl-seconds}).
+ * Entry bị bỏ sau khi transaction thay đổi user commit, trên các instance khác
+ * qua {@link com.example.video.editor.service.UserCacheSignal}; không có tín
+ * hiệu thì token đã thu hồi còn được chấp nhận tối đa một TTL.
+ */
+@Component
+public class DatabaseTokenRevocationStore implements TokenRevocationStore {
+	public static final String CACHE_NAME = "tokenVersion";
+
+	private final UserRepository userRepository;
+	private final Cache<Long, Long> versions;
+
+	public DatabaseTokenRevocationStore(UserRepository userRepository, MeterRegistry meterRegistry,
+			@Value("${jwt.revocation.cache-max-entries:10000}") long maxEntries,
+			@Value("${jwt.revocation.cache-ttl-seconds:30}") long ttlSeconds) {
+		this.userRepository = userRepository;
+		this.versions = Caffeine.newBuilder().maximumSize(maxEntries)
+				.expireAfterWrite(Duration.ofSeconds(ttlSeconds)).recordStats().build();
+		CaffeineCacheMetrics.monitor(meterRegistry, versions, CACHE_NAME);
+	}
+
+	// User đã bị xóa: coi như mọi token đều bị thu hồi
+	@Override
+	public long currentVersion(Long userId) {
+		return versions.get(userId, id -> userRepository.findTokenVersionByUserId(id).orElse(Long.MAX_VALUE));
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onUserChanged(UserChangedEvent event) {
+		if (event.userId() != null) {
+			versions.invalidate(event.userId());
+		}
+	}
+
+	@EventListener
+	public void onRemoteUserChanged(UserCacheEvictEvent event) {
+		if (event.userId() != null) {
+			versions.invalidate(event.userId());
+		}
+	}
+}
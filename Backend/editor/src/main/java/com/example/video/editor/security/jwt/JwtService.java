@@ -1,6 +1,11 @@
 package com.example.video.editor.security.jwt;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -10,14 +15,38 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import com.example.video.editor.model.AccountTier;
+import com.example.video.editor.model.SecurityUser;
+import com.example.video.editor.model.UserStatus;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
 @Service
+@RequiredArgsConstructor
 public class JwtService {
 
+    // Claim để dựng lại SecurityUser từ token mà không đọc DB
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_STATUS = "status";
+    public static final String CLAIM_TIER = "tier";
+    public static final String CLAIM_VERSION = "ver";
+
+    private final TokenRevocationStore revocationStore;
+
     @Value("${jwt.secret}")
     private String secret;
 
@@ -27,13 +56,48 @@ public class JwtService {
     @Value("${jwt.refresh-token.expiration}")
     private long refreshTokenExpiration;
 
+    // Số token đã xác thực được nhớ lại; token lặp lại không phải verify HMAC lần nữa
+    @Value("${jwt.claims-cache.max-entries:10000}")
+    private long claimsCacheMaxEntries;
+
+    // Key và parser dựng một lần khi khởi động, JwtParser dùng chung được giữa các thread
+    private Key signInKey;
+    private JwtParser jwtParser;
+    private Cache<String, Claims> verifiedClaims;
+
+    @PostConstruct
+    void init() {
+        signInKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+        jwtParser = Jwts.parserBuilder().setSigningKey(signInKey).build();
+        verifiedClaims = Caffeine.newBuilder().maximumSize(claimsCacheMaxEntries).expireAfter(untilTokenExpiry())
+                .build();
+    }
+
+    /**
+     * Xác thực chữ ký và hạn của token rồi trả về claims; token không hợp lệ
+     * ném {@link io.jsonwebtoken.JwtException}. Kết quả được cache theo SHA-256
+     * của token đến thời điểm exp (không quá jwt.expiration), nên mỗi token chỉ
+     * bị parse/verify một lần dù được gửi ở nhiều request. Mỗi lần gọi nhận một
+     * bản sao claims riêng.
+     */
+    public Claims verify(String token) {
+        String key = digest(token);
+        Claims cached = verifiedClaims.getIfPresent(key);
+        if (cached == null) {
+            cached = jwtParser.parseClaimsJws(token).getBody();
+            if (cached.getExpiration() != null) {
+                verifiedClaims.put(key, cached);
+            }
+        }
+        return Jwts.claims(cached);
+    }
+
     public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return verify(token).getSubject();
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+        return claimsResolver.apply(verify(token));
     }
 
     public String generateToken(UserDetails userDetails) {
@@ -41,13 +105,28 @@ public class JwtService {
     }
 
     public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
+        Map<String, Object> claims = new HashMap<>(extraClaims);
+        if (userDetails instanceof SecurityUser user && user.getUserId() != null && user.getStatus() != null) {
+            try {
+                claims.put(CLAIM_VERSION, revocationStore.currentVersion(user.getUserId()));
+                claims.put(CLAIM_USER_ID, user.getUserId());
+                claims.put(CLAIM_ROLE, user.getRoleName());
+                claims.put(CLAIM_STATUS, user.getStatus().name());
+                if (user.getAccountTier() != null) {
+                    claims.put(CLAIM_TIER, user.getAccountTier().name());
+                }
+            } catch (RuntimeException e) {
+                // Không đọc được phiên bản: phát token thường, filter sẽ đọc user từ DB
+                log.warn("Cannot read token version for user {}: {}", user.getUserId(), e.getMessage());
+            }
+        }
         return Jwts
                 .builder()
-                .setClaims(extraClaims)
+                .setClaims(claims)
                 .setSubject(userDetails.getUsername())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + jwtExpiration))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .signWith(signInKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
@@ -57,34 +136,90 @@ public class JwtService {
                 .setSubject(userDetails.getUsername())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + refreshTokenExpiration))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .signWith(signInKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+        return isTokenValid(verify(token), userDetails);
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    /** Kiểm tra trên claims đã verify, không parse lại token. */
+    public boolean isTokenValid(Claims claims, UserDetails userDetails) {
+        return userDetails.getUsername().equals(claims.getSubject()) && !isTokenExpired(claims);
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    /**
+     * Dựng principal từ claims đã verify. Trả về null khi token không mang đủ
+     * claim (token phát trước khi có uid/role/status) hoặc không kiểm tra được
+     * phiên bản, khi đó người gọi tự đọc user từ DB.
+     *
+     * @throws JwtException token đã bị thu hồi (ban, unban, đổi gói sau khi phát)
+     */
+    public SecurityUser principalFrom(Claims claims) {
+        Long userId = claims.get(CLAIM_USER_ID, Long.class);
+        Long version = claims.get(CLAIM_VERSION, Long.class);
+        String role = claims.get(CLAIM_ROLE, String.class);
+        String status = claims.get(CLAIM_STATUS, String.class);
+        if (userId == null || version == null || role == null || status == null) {
+            return null;
+        }
+        long currentVersion;
+        try {
+            currentVersion = revocationStore.currentVersion(userId);
+        } catch (RuntimeException e) {
+            log.warn("Cannot check token version for user {}: {}", userId, e.getMessage());
+            return null;
+        }
+        if (version < currentVersion) {
+            throw new JwtException("JWT token has been revoked");
+        }
+        return SecurityUser.fromTokenClaims(userId, claims.getSubject(), role, UserStatus.valueOf(status),
+                tierOf(claims));
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    /**
+     * Gói tài khoản ghi trong token, FREE nếu token phát trước khi có claim tier.
+     * Đổi gói thì token cũ bị thu hồi nên giá trị này không cũ hơn DB.
+     */
+    public AccountTier tierOf(Claims claims) {
+        String tier = claims.get(CLAIM_TIER, String.class);
+        return tier == null ? AccountTier.FREE : AccountTier.valueOf(tier);
+    }
+
+    private boolean isTokenExpired(Claims claims) {
+        Date expiration = claims.getExpiration();
+        return expiration != null && expiration.before(new Date());
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
     }
 
-    private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secret);
-        return Keys.hmacShaKeyFor(keyBytes);
+    // Entry hết hạn cùng lúc với token, tối đa jwt.expiration kể từ khi verify
+    private Expiry<String, Claims> untilTokenExpiry() {
+        long maxNanos = Duration.ofMillis(jwtExpiration).toNanos();
+        return new Expiry<>() {
+            @Override
+            public long expireAfterCreate(String key, Claims claims, long currentTime) {
+                long remainingMillis = claims.getExpiration().getTime() - System.currentTimeMillis();
+                return Math.max(0, Math.min(maxNanos, Duration.ofMillis(remainingMillis).toNanos()));
+            }
+
+            @Override
+            public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+                return currentDuration;
+            }
+
+            @Override
+            public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+                return currentDuration;
+            }
+        };
     }
-}
\ No newline at end of file
+}
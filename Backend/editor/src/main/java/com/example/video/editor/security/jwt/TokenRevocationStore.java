@@ -0,0 +1,14 @@
+package com.example.video.editor.security.jwt;
+
+/**
+ * Phiên bản token của từng người dùng. Access token mang claim {@code ver} lúc
+ * phát hành; khi tài khoản bị ban, unban hoặc đổi gói thì
+ * {@link com.example.video.editor.model.User#revokeTokens()} tăng phiên bản
+ * trong cùng transaction với thay đổi đó và mọi token cũ hơn bị từ chối, nên
+ * filter không cần đọc lại user từ DB để biết token còn hiệu lực.
+ */
+public interface TokenRevocationStore {
+
+	/** Phiên bản hiện tại, 0 nếu chưa từng thu hồi. */
+	long currentVersion(Long userId);
+}
@@ -1,7 +1,6 @@
 package com.example.video.editor.service;
 
 import java.time.Duration; // NEW IMPORT
-import java.time.LocalDateTime; // NEW IMPORT
 import java.util.HashMap; // NEW IMPORT
 import java.util.Map; // NEW IMPORT
 import java.util.Optional; // NEW IMPORT
@@ -64,22 +63,17 @@ public class AuthenticationService {
 			return response; // Trả về Map ở đây
 		}
 
-		// 3. Check for temporary PENDING (locked) status due to failed attempts
-		if (userService.isAccountLocked(user)) {
-			// Calculate time remaining for lockout
-			Duration timeSinceLastFail = Duration.between(user.getLastFailedLoginTime(), LocalDateTime.now());
-			Duration timeLeft = BLOCK_DURATION.minus(timeSinceLastFail);
-
-			if (timeLeft.isNegative() || timeLeft.isZero()) {
-				// Lock duration has passed, reset attempts and allow login attempt
-				userService.resetFailedAttempts(user);
-				System.out.println("Account for " + user.getEmail() + " was unlocked by login attempt. Status reset to ACTIVE.");
-			} else {
-				// Account is still locked (PENDING)
-				response.put("status", "error");
-				response.put("message", "Tài khoản tạm thời bị khóa. Vui lòng thử lại sau " + timeLeft.toMinutes() + " phút.");
-				return response; // Trả về Map ở đây
-			}
+		// 3. Check for temporary lock due to failed attempts (bộ đếm có TTL, không cần job mở khóa)
+		Duration timeLeft = userService.getLockRemaining(user);
+		if (!timeLeft.isZero()) {
+			response.put("status", "error");
+			response.put("message", "Tài khoản tạm thời bị khóa. Vui lòng thử lại sau "
+					+ Math.max(1, (timeLeft.toSeconds() + 59) / 60) + " phút.");
+			return response; // Trả về Map ở đây
+		}
+		// Khóa kiểu cũ (status PENDING trong bảng users) đã hết hạn: mở lại để đăng nhập được
+		if (user.getStatus() == UserStatus.PENDING && user.getFailedLoginAttempts() > 0) {
+			userService.resetFailedAttempts(user);
 		}
 
 		// --- ATTEMPT AUTHENTICATION ---
@@ -118,10 +112,10 @@ public class AuthenticationService {
 		} catch (BadCredentialsException e) {
 			// Password did not match
 			// Increment failed attempts and update user status
-			userService.incrementFailedAttempts(user);
+			int failedAttempts = userService.incrementFailedAttempts(user);
 
 			// Determine the appropriate error message
-			int remainingAttempts = MAX_FAILED_ATTEMPTS - user.getFailedLoginAttempts();
+			int remainingAttempts = MAX_FAILED_ATTEMPTS - failedAttempts;
 			String errorMessage = "Email hoặc mật khẩu không chính xác.";
 			if (remainingAttempts > 0) {
 				errorMessage += " Bạn còn lại " + remainingAttempts + " lần thử.";
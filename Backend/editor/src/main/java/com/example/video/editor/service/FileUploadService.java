@@ -7,11 +7,13 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.example.video.editor.exception.NotFoundException;
+import com.example.video.editor.exception.RetryableTaskException;
 import com.example.video.editor.model.Project;
 import com.example.video.editor.model.Video;
 import com.example.video.editor.repository.ProjectRepository;
-import com.example.video.editor.repository.VideoRepository;
+import com.example.video.editor.service.progess.CancellationToken;
 import com.example.video.editor.service.progess.ProgressTask;
+import com.example.video.editor.service.progess.TaskFingerprint;
 
 import lombok.RequiredArgsConstructor;
 
@@ -20,10 +22,15 @@ import lombok.RequiredArgsConstructor;
 public class FileUploadService extends ProgressTask {
 	public final ProjectRepository projectRepository;
 	public final VideoService videoService;
-	public final VideoRepository videoRepository;
 
+	// Upload lại đúng file đó vào đúng project trong lúc lần trước chưa xong
 	@Override
-	protected void executeTask(BiConsumer<Integer, String> progressCallback,
+	protected String fingerprint(Object... params) {
+		return TaskFingerprint.of(params[0], params[1], params[2]);
+	}
+
+	@Override
+	protected void executeTask(CancellationToken cancellationToken, BiConsumer<Integer, String> progressCallback,
 			BiConsumer<Object, String> completeCallback, BiConsumer<String, String> errorCallback, Object... params)
 			throws Exception {
 		// Lấy tham số từ params
@@ -33,30 +40,26 @@ public class FileUploadService extends ProgressTask {
 
 		progressCallback.accept(0, "Bắt đầu xử lý video");
 
-		Project project = null;
-		Video video = null;
-
 		try {
 			// Bước 1: Tìm kiếm project
 			progressCallback.accept(5, "Đang tìm kiếm Project...");
-			project = projectRepository.findByPublicId(publicProjectId)
+			Project project = projectRepository.findByPublicId(publicProjectId)
 					.orElseThrow(() -> new NotFoundException("Không tìm thấy Project với ID: " + publicProjectId));
 			progressCallback.accept(10, "Đã tìm thấy Project");
 
 			// Bước 2: Tải video lên Cloudinary
+			cancellationToken.throwIfCancelled();
 			progressCallback.accept(30, "Đang tải video lên Cloudinary...");
-			video = videoService.uploadVideoToCloudinary(fileBytes, originName);
+			Video video = timed("upload", () -> videoService.uploadVideoToCloudinary(fileBytes, originName));
+			recordBytes("upload", fileBytes.length);
 			progressCallback.accept(70, "Tải video lên Cloudinary thành công");
 
-			// Bước 3: Lưu video vào database
+			// Bước 3: Lưu video, gắn vào project và cập nhật dung lượng trong một transaction
+			// Hủy sau khi upload xong thì không lưu video vào project nữa
+			cancellationToken.throwIfCancelled();
 			progressCallback.accept(80, "Đang lưu thông tin video vào database...");
-			videoRepository.save(video);
-			progressCallback.accept(90, "Lưu thông tin video vào database thành công");
-
-			// Bước 4: Gắn video vào project và lưu lại
-			progressCallback.accept(95, "Đang liên kết video với Project...");
-			project.setVideo(video);
-			projectRepository.save(project);
+			timed("db_save", () -> videoService.attachToProject(publicProjectId, video));
+			progressCallback.accept(95, "Đã liên kết video với Project");
 
 			progressCallback.accept(100, "Hoàn tất xử lý video");
 			completeCallback.accept(video, "Xử lý video thành công");
@@ -65,8 +68,9 @@ public class FileUploadService extends ProgressTask {
 			errorCallback.accept("PROJECT_NOT_FOUND", e.getMessage());
 			throw e;
 		} catch (IOException e) {
+			// Cloudinary lỗi tạm thời: job được chạy lại, chỉ báo lỗi khi đã hết lượt thử
 			errorCallback.accept("CLOUDINARY_UPLOAD_FAILED", "Lỗi khi tải video lên Cloudinary: " + e.getMessage());
-			throw e;
+			throw new RetryableTaskException("Cloudinary upload failed", e);
 		} catch (Exception e) {
 			errorCallback.accept("DATABASE_ERROR", "Lỗi khi lưu video hoặc cập nhật Project: " + e.getMessage());
 			throw e;
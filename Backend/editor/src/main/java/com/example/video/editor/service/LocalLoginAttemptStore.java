@@ -0,0 +1,79 @@
+package com.example.video.editor.service;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Chạy một instance: bộ đếm trong bộ nhớ, entry hết hạn được bỏ khi đọc lại.
+ * Caffeine giới hạn số entry và tự bỏ entry sau max(cửa sổ đếm, thời gian
+ * khóa), khi đó cả bộ đếm lẫn khóa đều đã hết hiệu lực.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "login.attempts.store", havingValue = "local", matchIfMissing = true)
+public class LocalLoginAttemptStore implements LoginAttemptStore {
+
+	private record Attempts(int failures, long failuresExpireAt, long lockedUntil) {
+	}
+
+	private static final Duration ENTRY_TTL = UserServiceImpl.FAILED_ATTEMPT_WINDOW
+			.compareTo(UserServiceImpl.BLOCK_DURATION) >= 0 ? UserServiceImpl.FAILED_ATTEMPT_WINDOW
+					: UserServiceImpl.BLOCK_DURATION;
+
+	private final Map<Long, Attempts> attempts;
+
+	public LocalLoginAttemptStore(@Value("${login.attempts.max-entries:100000}") long maxEntries,
+			@Value("${task.queue.signal:local}") String queueSignal,
+			@Value("${task.progress.relay:local}") String progressRelay,
+			@Value("${user.cache.signal:local}") String userCacheSignal,
+			@Value("${rate-limiting.store:local}") String rateLimitingStore) {
+		this.attempts = Caffeine.newBuilder().maximumSize(maxEntries).expireAfterWrite(ENTRY_TTL)
+				.<Long, Attempts>build().asMap();
+		if ("redis".equals(queueSignal) || "redis".equals(progressRelay) || "redis".equals(userCacheSignal)
+				|| "redis".equals(rateLimitingStore)) {
+			// Nhiều node: mỗi node đếm riêng nên user có thể thử sai maxAttempts lần trên từng node
+			log.warn("Multi-node Redis features are enabled but login attempts are counted per node; "
+					+ "set login.attempts.store=redis to share lockouts across nodes");
+		}
+	}
+
+	@Override
+	public Duration lockRemaining(Long userId) {
+		long now = System.currentTimeMillis();
+		// Bỏ luôn entry đã hết hạn cả bộ đếm lẫn thời gian khóa
+		Attempts current = attempts.computeIfPresent(userId,
+				(id, entry) -> entry.failuresExpireAt() <= now && entry.lockedUntil() <= now ? null : entry);
+		long remaining = current == null ? 0 : current.lockedUntil() - now;
+		return remaining > 0 ? Duration.ofMillis(remaining) : Duration.ZERO;
+	}
+
+	@Override
+	public int recordFailure(Long userId, int maxAttempts, Duration attemptWindow, Duration lockDuration) {
+		long now = System.currentTimeMillis();
+		int[] failures = new int[1];
+		attempts.compute(userId, (id, current) -> {
+			boolean counting = current != null && current.failuresExpireAt() > now;
+			failures[0] = counting ? current.failures() + 1 : 1;
+			if (failures[0] >= maxAttempts) {
+				// Khóa rồi đếm lại từ đầu, giống bản Redis
+				return new Attempts(0, 0, now + lockDuration.toMillis());
+			}
+			return new Attempts(failures[0], counting ? current.failuresExpireAt() : now + attemptWindow.toMillis(),
+					current == null ? 0 : current.lockedUntil());
+		});
+		return failures[0];
+	}
+
+	@Override
+	public void reset(Long userId) {
+		attempts.remove(userId);
+	}
+}
@@ -0,0 +1,14 @@
+package com.example.video.editor.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/** Chạy một instance: cache local đã được bỏ, không còn ai để báo. */
+@Component
+@ConditionalOnProperty(name = "user.cache.signal", havingValue = "local", matchIfMissing = true)
+public class LocalUserCacheSignal implements UserCacheSignal {
+
+	@Override
+	public void userChanged(Long userId, String email) {
+	}
+}
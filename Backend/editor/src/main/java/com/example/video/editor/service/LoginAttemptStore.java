@@ -0,0 +1,23 @@
+package com.example.video.editor.service;
+
+import java.time.Duration;
+
+/**
+ * Đếm số lần đăng nhập sai và thời gian khóa tạm của từng user. Cả hai tự hết
+ * hạn theo TTL nên không cần job quét bảng users để mở khóa.
+ */
+public interface LoginAttemptStore {
+
+	/** Thời gian còn bị khóa, {@link Duration#ZERO} nếu không bị khóa. */
+	Duration lockRemaining(Long userId);
+
+	/**
+	 * Ghi thêm một lần sai. Khi đạt {@code maxAttempts} thì khóa trong
+	 * {@code lockDuration} và bắt đầu đếm lại.
+	 *
+	 * @return số lần sai liên tiếp tính cả lần này
+	 */
+	int recordFailure(Long userId, int maxAttempts, Duration attemptWindow, Duration lockDuration);
+
+	void reset(Long userId);
+}
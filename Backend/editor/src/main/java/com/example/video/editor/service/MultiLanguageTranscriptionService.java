@@ -0,0 +1,204 @@
+package com.example.video.editor.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+import com.example.video.editor.dto.MultiLanguageTranscriptionRequest;
+import com.example.video.editor.dto.TranscriptionRequest;
+import com.example.video.editor.model.SrtSegment;
+import com.example.video.editor.service.audio.SilenceSkippingTranscriber;
+import com.example.video.editor.service.progess.CancellationToken;
+import com.example.video.editor.service.progess.ProgressTask;
+import com.example.video.editor.service.progess.TaskExecutors;
+import com.example.video.editor.service.progess.TaskFingerprint;
+import com.example.video.editor.service.progess.TaskKind;
+import com.example.video.editor.service.subtitle.PackedSubtitleTrack;
+import com.example.video.editor.service.subtitle.SubtitleBinaryCodec;
+import com.example.video.editor.service.translation.TranslationBackend;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Transcribe audio một lần rồi dịch text sang nhiều ngôn ngữ song song. Mỗi
+ * ngôn ngữ được cache riêng (dạng binary của PackedSubtitleTrack) và được gửi
+ * về client ngay khi dịch xong qua partial result.
+ */
+@Service
+@RequiredArgsConstructor
+public class MultiLanguageTranscriptionService extends ProgressTask {
+	public static final String TRANSCRIPT_CACHE = "transcriptCache";
+	public static final String TRANSLATION_CACHE = "translationCache";
+
+	private final SilenceSkippingTranscriber silenceSkippingTranscriber;
+	private final TranslationBackend translationBackend;
+	private final SubtitleTrackService subtitleTrackService;
+	private final CacheManager cacheManager;
+	private final TaskExecutors taskExecutors;
+
+	@Override
+	protected String fingerprint(Object... params) {
+		MultiLanguageTranscriptionRequest request = (MultiLanguageTranscriptionRequest) params[0];
+		TreeSet<String> targets = new TreeSet<>();
+		request.getTargetLanguages().forEach(language -> targets.add(normalize(language)));
+		return TaskFingerprint.of(request.getUrl().trim(), normalize(request.getSourceLanguage()),
+				String.join(",", targets), request.getProjectPublicId());
+	}
+
+	@Override
+	protected void executeTask(CancellationToken cancellationToken, BiConsumer<Integer, String> progressCallback,
+			BiConsumer<Object, String> completeCallback, BiConsumer<String, String> errorCallback, Object... params)
+			throws Exception {
+		executeWithPartialResults(cancellationToken, progressCallback, (language, result) -> {
+		}, completeCallback, errorCallback, params);
+	}
+
+	@Override
+	protected void executeWithPartialResults(CancellationToken cancellationToken,
+			BiConsumer<Integer, String> progressCallback, BiConsumer<String, Object> partialResultCallback,
+			BiConsumer<Object, String> completeCallback, BiConsumer<String, String> errorCallback, Object... params)
+			throws Exception {
+		MultiLanguageTranscriptionRequest request = (MultiLanguageTranscriptionRequest) params[0];
+		String sourceLanguage = normalize(request.getSourceLanguage());
+		LinkedHashSet<String> targets = new LinkedHashSet<>();
+		request.getTargetLanguages().forEach(language -> targets.add(normalize(language)));
+
+		try {
+			progressCallback.accept(0, "Khởi tạo");
+			PackedSubtitleTrack transcript = transcribeOnce(request.getUrl(), sourceLanguage,
+					cancellationToken, progressCallback);
+			if (transcript.isEmpty()) {
+				errorCallback.accept("SUB_EMPTY", "Phụ đề rỗng hoặc không hợp lệ.");
+				return;
+			}
+			List<String> texts = new ArrayList<>(transcript.size());
+			for (int i = 0; i < transcript.size(); i++) {
+				texts.add(transcript.text(i));
+			}
+
+			progressCallback.accept(50, "Đang dịch sang " + targets.size() + " ngôn ngữ");
+			AtomicInteger finished = new AtomicInteger();
+			Map<String, CompletableFuture<List<SrtSegment>>> futures = new LinkedHashMap<>();
+			for (String target : targets) {
+				futures.put(target, CompletableFuture
+						.supplyAsync(() -> {
+							cancellationToken.throwIfCancelled();
+							return translate(request, transcript, texts, sourceLanguage, target);
+						}, taskExecutors.forKind(TaskKind.IO_BOUND))
+						.thenApply(segments -> {
+							// Gửi kết quả của từng ngôn ngữ ngay khi xong
+							partialResultCallback.accept(target, segments);
+							int done = finished.incrementAndGet();
+							progressCallback.accept(50 + done * 50 / targets.size(),
+									"Đã dịch xong " + target + " (" + done + "/" + targets.size() + ")");
+							return segments;
+						}));
+			}
+
+			// Hủy task thì bỏ các ngôn ngữ chưa dịch xong
+			CancellationToken.Registration cancelTranslations = cancellationToken
+					.onCancel(() -> futures.values().forEach(future -> future.cancel(true)));
+			Map<String, List<SrtSegment>> results = new LinkedHashMap<>();
+			Map<String, String> failures = new LinkedHashMap<>();
+			futures.forEach((language, future) -> {
+				try {
+					results.put(language, future.join());
+				} catch (CompletionException e) {
+					Throwable cause = e.getCause() != null ? e.getCause() : e;
+					failures.put(language, cause.getMessage());
+				} catch (CancellationException e) {
+					failures.put(language, "cancelled");
+				}
+			});
+
+			cancelTranslations.close();
+			cancellationToken.throwIfCancelled();
+			if (results.isEmpty()) {
+				errorCallback.accept("TRANSLATION_FAILED", "Không dịch được ngôn ngữ nào: " + failures);
+				return;
+			}
+			completeCallback.accept(results, failures.isEmpty() ? "success" : "Một số ngôn ngữ lỗi: " + failures);
+		} catch (Exception e) {
+			errorCallback.accept("SYSTEM_ERROR", "Đã xảy ra lỗi: " + e.getMessage());
+		}
+	}
+
+	private PackedSubtitleTrack transcribeOnce(String url, String sourceLanguage, CancellationToken cancellationToken,
+			BiConsumer<Integer, String> progressCallback) {
+		Cache cache = cacheManager.getCache(TRANSCRIPT_CACHE);
+		String key = url + "|" + sourceLanguage;
+		byte[] cached = cache == null ? null : cache.get(key, byte[].class);
+		if (cached != null) {
+			progressCallback.accept(45, "Dùng lại bản transcribe đã có");
+			return SubtitleBinaryCodec.decode(cached);
+		}
+
+		progressCallback.accept(5, "Đang transcribe audio");
+		TranscriptionRequest transcriptionRequest = new TranscriptionRequest();
+		transcriptionRequest.setUrl(url);
+		transcriptionRequest.setLanguage(sourceLanguage);
+		transcriptionRequest.setTranslate(false);
+		List<SrtSegment> segments = timed("transcription_call",
+				() -> silenceSkippingTranscriber.transcribe(transcriptionRequest, cancellationToken, progressCallback));
+		PackedSubtitleTrack transcript = PackedSubtitleTrack.fromSrtSegments(segments);
+		if (cache != null && !transcript.isEmpty()) {
+			cache.put(key, SubtitleBinaryCodec.encode(transcript));
+		}
+		progressCallback.accept(45, "Transcribe xong " + transcript.size() + " đoạn");
+		return transcript;
+	}
+
+	private List<SrtSegment> translate(MultiLanguageTranscriptionRequest request, PackedSubtitleTrack transcript,
+			List<String> texts, String sourceLanguage, String targetLanguage) {
+		PackedSubtitleTrack translated;
+		if (targetLanguage.equals(sourceLanguage)) {
+			translated = transcript;
+		} else {
+			Cache cache = cacheManager.getCache(TRANSLATION_CACHE);
+			String key = request.getUrl() + "|" + sourceLanguage + "|" + targetLanguage;
+			byte[] cached = cache == null ? null : cache.get(key, byte[].class);
+			if (cached != null) {
+				translated = SubtitleBinaryCodec.decode(cached);
+			} else {
+				List<String> translatedTexts = timed("translation_call",
+						() -> translationBackend.translate(texts, sourceLanguage, targetLanguage));
+				PackedSubtitleTrack.Builder builder = PackedSubtitleTrack.builder(transcript.size());
+				for (int i = 0; i < transcript.size(); i++) {
+					builder.add(transcript.startMs(i), transcript.endMs(i), translatedTexts.get(i));
+				}
+				translated = builder.build();
+				if (cache != null) {
+					cache.put(key, SubtitleBinaryCodec.encode(translated));
+				}
+			}
+		}
+
+		if (request.getProjectPublicId() != null) {
+			try {
+				PackedSubtitleTrack toSave = translated;
+				timed("db_save", () -> subtitleTrackService.replaceTrack(request.getProjectPublicId(), targetLanguage,
+						toSave));
+			} catch (Exception e) {
+				throw new CompletionException(e);
+			}
+		}
+		return translated.toSrtSegments();
+	}
+
+	private static String normalize(String language) {
+		return language.trim().toLowerCase(Locale.ROOT);
+	}
+}
@@ -1,16 +1,27 @@
 package com.example.video.editor.service;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
 import java.util.UUID;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
 import com.example.video.editor.dto.ProjectDto;
+import com.example.video.editor.dto.ProjectPageDto;
+import com.example.video.editor.dto.ProjectSort;
+import com.example.video.editor.dto.ProjectSummaryDto;
 import com.example.video.editor.exception.NotFoundException;
 import com.example.video.editor.mapstruct.ProjectMapper;
 import com.example.video.editor.model.Project;
 import com.example.video.editor.model.Workspace;
 import com.example.video.editor.repository.ProjectRepository;
+import com.example.video.editor.repository.ProjectRepository.ProjectListRow;
 import com.example.video.editor.repository.WorkspaceRepository;
 
 import jakarta.transaction.Transactional;
@@ -23,6 +34,85 @@ public class ProjectService {
 	private final ProjectRepository projectRepository;
 	private final WorkspaceRepository workspaceRepository;
 	private final ProjectMapper projectMapper;
+	private final StorageUsageService storageUsageService;
+
+	public static final int MAX_PAGE_SIZE = 100;
+	// Vị trí bắt đầu của trang đầu: sau mọi giá trị updated_at (DATETIME lớn nhất của MySQL) / trước mọi tên
+	private static final LocalDateTime FIRST_PAGE_UPDATED_AT = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+	private static final char CURSOR_SEPARATOR = '|';
+
+	/**
+	 * Danh sách project của workspace, phân trang keyset: {@code cursor} là
+	 * nextCursor của trang trước (null cho trang đầu). Lọc theo tiền tố tên nếu
+	 * có {@code namePrefix}.
+	 */
+	public ProjectPageDto listProjects(String workspacePublicId, ProjectSort sort, String namePrefix, String cursor,
+			int size) {
+		int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+		String namePattern = likePrefix(namePrefix);
+		// Lấy dư một dòng để biết còn trang sau hay không
+		Pageable limit = Pageable.ofSize(pageSize + 1);
+		String[] position = decodeCursor(cursor);
+		List<ProjectListRow> rows;
+		try {
+			rows = sort == ProjectSort.NAME
+					? projectRepository.findPageByName(workspacePublicId, namePattern,
+							position == null ? "" : position[0], position == null ? 0L : Long.parseLong(position[1]),
+							limit)
+					: projectRepository.findPageByUpdatedAt(workspacePublicId, namePattern,
+							position == null ? FIRST_PAGE_UPDATED_AT : LocalDateTime.parse(position[0]),
+							position == null ? Long.MAX_VALUE : Long.parseLong(position[1]), limit);
+		} catch (NumberFormatException | DateTimeParseException e) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+		}
+
+		boolean hasMore = rows.size() > pageSize;
+		List<ProjectListRow> page = hasMore ? rows.subList(0, pageSize) : rows;
+		String nextCursor = null;
+		if (hasMore) {
+			ProjectListRow last = page.get(page.size() - 1);
+			nextCursor = encodeCursor(sort == ProjectSort.NAME ? last.getProjectName() : last.getUpdatedAt().toString(),
+					last.getProjectId());
+		}
+		return ProjectPageDto.builder().items(page.stream().map(ProjectService::toSummary).toList())
+				.nextCursor(nextCursor).build();
+	}
+
+	private static ProjectSummaryDto toSummary(ProjectListRow row) {
+		return ProjectSummaryDto.builder().publicId(row.getPublicId()).projectName(row.getProjectName())
+				.createdAt(row.getCreatedAt()).updatedAt(row.getUpdatedAt()).thumbnailUrl(row.getThumbnailUrl())
+				.duration(row.getDuration()).build();
+	}
+
+	// '!' là ký tự escape khai báo trong query, tiền tố chứa % hoặc _ được so khớp nguyên văn
+	private static String likePrefix(String prefix) {
+		if (prefix == null || prefix.isEmpty()) {
+			return "%";
+		}
+		return prefix.replace("!", "!!").replace("%", "!%").replace("_", "!_") + "%";
+	}
+
+	private static String encodeCursor(String sortValue, Long projectId) {
+		return Base64.getUrlEncoder().withoutPadding()
+				.encodeToString((sortValue + CURSOR_SEPARATOR + projectId).getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static String[] decodeCursor(String cursor) {
+		if (cursor == null || cursor.isBlank()) {
+			return null;
+		}
+		try {
+			String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+			// Tên project có thể chứa '|', id luôn nằm sau dấu cuối cùng
+			int separator = decoded.lastIndexOf(CURSOR_SEPARATOR);
+			if (separator < 0) {
+				throw new IllegalArgumentException(cursor);
+			}
+			return new String[] { decoded.substring(0, separator), decoded.substring(separator + 1) };
+		} catch (IllegalArgumentException e) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+		}
+	}
 
 	public ProjectDto createProject(String workspacePublicId, String projectName, String description)
 			throws NotFoundException {
@@ -51,6 +141,8 @@ public class ProjectService {
 				.orElseThrow(() -> new RuntimeException("Project not found with publicId: " + projectPublicId));
 
 		Workspace workspace = project.getWorkspace();
+		// Video của project bị xóa theo (orphanRemoval), trừ dung lượng trước khi gỡ workspace
+		storageUsageService.recordVideoRemoved(project, project.getVideo());
 
 		if (workspace != null) {
 			workspace.getProjects().remove(project); // Gỡ khỏi set
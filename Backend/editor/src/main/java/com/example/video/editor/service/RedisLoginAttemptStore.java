@@ -0,0 +1,61 @@
+package com.example.video.editor.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Bộ đếm dùng chung giữa các instance qua Redis: {@code editor:login:failures:{userId}}
+ * (INCR, hết hạn sau cửa sổ đếm) và {@code editor:login:lock:{userId}} (hết hạn
+ * khi hết thời gian khóa). Mỗi lần sai chỉ là một lệnh Redis, không ghi DB.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "login.attempts.store", havingValue = "redis")
+public class RedisLoginAttemptStore implements LoginAttemptStore {
+	private static final String FAILURES_PREFIX = "editor:login:failures:";
+	private static final String LOCK_PREFIX = "editor:login:lock:";
+
+	// Tăng bộ đếm, đặt TTL ở lần sai đầu tiên và khóa khi đạt giới hạn trong cùng một bước
+	private static final RedisScript<Long> RECORD_FAILURE = new DefaultRedisScript<>("""
+			local failures = redis.call('INCR', KEYS[1])
+			if failures == 1 then
+				redis.call('PEXPIRE', KEYS[1], ARGV[1])
+			end
+			if failures >= tonumber(ARGV[2]) then
+				redis.call('SET', KEYS[2], '1', 'PX', ARGV[3])
+				redis.call('DEL', KEYS[1])
+			end
+			return failures
+			""", Long.class);
+
+	private final StringRedisTemplate redisTemplate;
+
+	@Override
+	public Duration lockRemaining(Long userId) {
+		Long remaining = redisTemplate.getExpire(LOCK_PREFIX + userId, TimeUnit.MILLISECONDS);
+		// -2: không có key, -1: key không có TTL (không xảy ra với SET PX)
+		return remaining != null && remaining > 0 ? Duration.ofMillis(remaining) : Duration.ZERO;
+	}
+
+	@Override
+	public int recordFailure(Long userId, int maxAttempts, Duration attemptWindow, Duration lockDuration) {
+		Long failures = redisTemplate.execute(RECORD_FAILURE, List.of(FAILURES_PREFIX + userId, LOCK_PREFIX + userId),
+				String.valueOf(attemptWindow.toMillis()), String.valueOf(maxAttempts),
+				String.valueOf(lockDuration.toMillis()));
+		return failures == null ? 0 : failures.intValue();
+	}
+
+	@Override
+	public void reset(Long userId) {
+		redisTemplate.delete(List.of(FAILURES_PREFIX + userId, LOCK_PREFIX + userId));
+	}
+}
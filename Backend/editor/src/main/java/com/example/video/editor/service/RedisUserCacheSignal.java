@@ -0,0 +1,52 @@
+package com.example.video.editor.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Gửi id và email của user vừa đổi qua Redis pub/sub để mọi instance bỏ entry
+ * trong UserDetailsCache và cache phiên bản token. Mất message thì entry cũ vẫn
+ * hết hạn theo TTL của cache.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "user.cache.signal", havingValue = "redis")
+public class RedisUserCacheSignal implements UserCacheSignal, MessageListener {
+	public static final String CHANNEL = "editor:user-changed";
+	private static final char SEPARATOR = '|';
+
+	private final StringRedisTemplate redisTemplate;
+	private final ApplicationEventPublisher eventPublisher;
+	// Bỏ qua message do chính instance này gửi, cache local đã được bỏ trước đó
+	private final String nodeId = UUID.randomUUID().toString();
+
+	@Override
+	public void userChanged(Long userId, String email) {
+		try {
+			redisTemplate.convertAndSend(CHANNEL, nodeId + SEPARATOR + userId + SEPARATOR + email);
+		} catch (Exception e) {
+			log.warn("Cannot publish user cache invalidation through Redis: {}", e.getMessage());
+		}
+	}
+
+	@Override
+	public void onMessage(Message message, byte[] pattern) {
+		// nodeId|userId|email; email nằm cuối nên có chứa '|' cũng không sao
+		String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\" + SEPARATOR, 3);
+		if (parts.length == 3 && !nodeId.equals(parts[0])) {
+			Long userId = parts[1].equals("null") ? null : Long.valueOf(parts[1]);
+			eventPublisher.publishEvent(new UserCacheEvictEvent(userId, parts[2]));
+		}
+	}
+}
@@ -2,36 +2,59 @@ package com.example.video.editor.service;
 
 import java.io.BufferedReader;
 import java.io.File;
+import java.io.BufferedOutputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.net.HttpURLConnection;
 import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.MissingResourceException;
 import java.util.function.BiConsumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import org.springframework.stereotype.Service;
 
 import com.example.video.editor.exception.NotFoundException;
+import com.example.video.editor.exception.RetryableTaskException;
 import com.example.video.editor.model.Project;
 import com.example.video.editor.model.Video;
 import com.example.video.editor.repository.ProjectRepository;
+import com.example.video.editor.service.progess.CancellationToken;
 import com.example.video.editor.service.progess.ProgressTask;
+import com.example.video.editor.service.progess.TaskFingerprint;
+import com.example.video.editor.service.progess.TaskKind;
+import com.example.video.editor.service.subtitle.AssStyle;
+import com.example.video.editor.service.subtitle.PackedSubtitleTrack;
+import com.example.video.editor.service.subtitle.SubtitleFormat;
+import com.example.video.editor.service.subtitle.SubtitleStreamWriter;
 
 import lombok.RequiredArgsConstructor;
 
 @Service
 @RequiredArgsConstructor
 public class SaveSubtitlesService extends ProgressTask {
+    // Dòng tiến độ của FFmpeg: "frame=  120 fps= 48 ... speed=1.93x"
+    private static final Pattern FFMPEG_SPEED = Pattern.compile("speed=\\s*([0-9]+(?:\\.[0-9]+)?)x");
+
     private final ProjectRepository projectRepository;
     private final VideoService videoService;
+    private final SubtitleTrackService subtitleTrackService;
 
     public File addSubtitleToVideo(File videoFile, File subtitleFile) throws IOException, InterruptedException {
+        return addSubtitleToVideo(videoFile, subtitleFile, CancellationToken.none());
+    }
+
+    public File addSubtitleToVideo(File videoFile, File subtitleFile, CancellationToken cancellationToken)
+            throws IOException, InterruptedException {
         // Tạo file đầu ra tạm với tên random, định dạng mp4
         // Sử dụng .toPath() và Files.createTempFile để đảm bảo tạo file an toàn
         Path outputVideoPath = Files.createTempFile("video-with-subtitle-", ".mp4");
@@ -71,27 +94,100 @@ public class SaveSubtitlesService extends ProgressTask {
         // Debug: Log the FFmpeg command
         System.out.println("Executing FFmpeg command: " + String.join(" ", pb.command()));
 
+        runFfmpeg(pb, cancellationToken);
+        return outputVideo;
+    }
+
+    /**
+     * Gắn phụ đề thành track riêng (soft subtitle, mov_text) mà không encode lại
+     * video/audio, nhanh hơn burn nhiều và người xem có thể bật/tắt phụ đề.
+     */
+    public File muxSubtitleIntoVideo(File videoFile, File subtitleFile, String language,
+            CancellationToken cancellationToken) throws IOException, InterruptedException {
+        File outputVideo = Files.createTempFile("video-with-soft-subtitle-", ".mp4").toFile();
+        ProcessBuilder pb = new ProcessBuilder(
+                "ffmpeg",
+                "-y",
+                "-i", videoFile.getAbsolutePath(),
+                "-i", subtitleFile.getAbsolutePath(),
+                "-map", "0:v", "-map", "0:a?", "-map", "1:0",
+                "-c:v", "copy",
+                "-c:a", "copy",
+                "-c:s", "mov_text",
+                "-metadata:s:s:0", "language=" + iso3Language(language),
+                "-movflags", "+faststart",
+                outputVideo.getAbsolutePath()
+        );
+        System.out.println("Executing FFmpeg command: " + String.join(" ", pb.command()));
+        runFfmpeg(pb, cancellationToken);
+        return outputVideo;
+    }
+
+    private static String iso3Language(String language) {
+        if (language == null || language.isBlank()) {
+            return "und";
+        }
+        try {
+            return Locale.forLanguageTag(language.trim()).getISO3Language();
+        } catch (MissingResourceException e) {
+            return "und";
+        }
+    }
+
+    private void runFfmpeg(ProcessBuilder pb, CancellationToken cancellationToken)
+            throws IOException, InterruptedException {
         Map<String, String> env = pb.environment();
         env.put("PYTHONIOENCODING", "utf-8");
         pb.redirectErrorStream(true);
 
         Process process = pb.start();
 
-        // Đọc log ffmpeg (để debug)
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                System.out.println("FFmpeg Output: " + line);
+        // Hủy task: kill FFmpeg cùng các process con, stream log sẽ EOF và waitFor trả về
+        int exitCode;
+        // FFmpeg báo speed trung bình từ đầu encode, nên giá trị cuối cùng là tốc độ của cả lần encode
+        double lastSpeed = 0;
+        try (CancellationToken.Registration kill = cancellationToken.onCancel(() -> destroyProcessTree(process))) {
+            // Đọc log ffmpeg (để debug)
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    System.out.println("FFmpeg Output: " + line);
+                    Matcher speed = FFMPEG_SPEED.matcher(line);
+                    if (speed.find()) {
+                        lastSpeed = Double.parseDouble(speed.group(1));
+                    }
+                }
             }
+            exitCode = process.waitFor();
+        } catch (InterruptedException e) {
+            destroyProcessTree(process);
+            throw e;
         }
+        cancellationToken.throwIfCancelled();
 
-        int exitCode = process.waitFor();
         if (exitCode != 0) {
             String errorOutput = readProcessOutput(process.getErrorStream());
             throw new RuntimeException("FFmpeg process failed with exit code " + exitCode + ". Error: " + errorOutput);
         }
+        if (lastSpeed > 0) {
+            recordFfmpegSpeed(lastSpeed);
+        }
+    }
 
-        return outputVideo;
+    private void writeAssFile(PackedSubtitleTrack track, Video video, File assFile) throws IOException {
+        AssStyle.AssStyleBuilder style = AssStyle.builder();
+        if (video.getWidth() != null && video.getHeight() != null) {
+            style.playResX(video.getWidth()).playResY(video.getHeight())
+                    .fontSize(Math.max(16, video.getHeight() / 20)).marginV(Math.max(10, video.getHeight() / 18));
+        }
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(assFile), 64 * 1024)) {
+            new SubtitleStreamWriter().write(track, SubtitleFormat.ASS, style.build(), out);
+        }
+    }
+
+    private static void destroyProcessTree(Process process) {
+        process.descendants().forEach(ProcessHandle::destroyForcibly);
+        process.destroyForcibly();
     }
 
     private String readProcessOutput(InputStream inputStream) throws IOException {
@@ -105,7 +201,8 @@ public class SaveSubtitlesService extends ProgressTask {
         return output.toString();
     }
 
-    private File loadFileFromCloudinaryVideoUrl(String videoUrl) throws IOException {
+    private File loadFileFromCloudinaryVideoUrl(String videoUrl, CancellationToken cancellationToken)
+            throws IOException {
         URL url = new URL(videoUrl);
         HttpURLConnection connection = (HttpURLConnection) url.openConnection();
         connection.setRequestMethod("GET");
@@ -116,7 +213,9 @@ public class SaveSubtitlesService extends ProgressTask {
         Path tempFilePath = Files.createTempFile("video-", ".mp4");
         File tempFile = tempFilePath.toFile();
 
-        try (InputStream inputStream = connection.getInputStream();
+        // Hủy task thì đóng kết nối, read() đang chờ sẽ ném IOException
+        try (CancellationToken.Registration abort = cancellationToken.onCancel(connection::disconnect);
+             InputStream inputStream = connection.getInputStream();
              FileOutputStream outputStream = new FileOutputStream(tempFile)) {
             byte[] buffer = new byte[8192];
             int bytesRead;
@@ -130,8 +229,33 @@ public class SaveSubtitlesService extends ProgressTask {
         return tempFile;
     }
 
+    // Burn phụ đề = re-encode toàn bộ video bằng FFmpeg
     @Override
-    protected void executeTask(BiConsumer<Integer, String> progressCallback,
+    protected TaskKind kind() {
+        return TaskKind.CPU_BOUND;
+    }
+
+    // Cùng project + cùng nội dung phụ đề (hash file .ass hoặc version của track đã lưu)
+    @Override
+    protected String fingerprint(Object... params) {
+        byte[] fileSub = (byte[]) params[0];
+        String projectPublicId = (String) params[1];
+        boolean mux = isMux(params);
+        if (fileSub != null) {
+            return TaskFingerprint.of(projectPublicId, fileSub, mux);
+        }
+        String language = (String) params[2];
+        return TaskFingerprint.of(projectPublicId, SubtitleTrackService.normalizeLanguage(language),
+                subtitleTrackService.currentVersion(projectPublicId, language), mux);
+    }
+
+    // params[3] = true: gắn phụ đề dạng track riêng thay vì burn vào hình
+    private static boolean isMux(Object... params) {
+        return params.length > 3 && Boolean.TRUE.equals(params[3]);
+    }
+
+    @Override
+    protected void executeTask(CancellationToken cancellationToken, BiConsumer<Integer, String> progressCallback,
                                BiConsumer<Object, String> completeCallback, BiConsumer<String, String> errorCallback, Object... params)
             throws Exception {
         File videoFile = null;
@@ -141,8 +265,11 @@ public class SaveSubtitlesService extends ProgressTask {
         try {
             // Bước 0: Nhận dữ liệu và xác thực
             progressCallback.accept(0, "Bắt đầu xử lý...");
+            // params[0] = nội dung file .ass; nếu null thì dùng SubtitleTrack đã lưu với ngôn ngữ params[2]
             byte[] fileSub = (byte[]) params[0];
             String projectPublicId = (String) params[1];
+            String language = params.length > 2 ? (String) params[2] : null;
+            boolean mux = isMux(params);
 
             progressCallback.accept(10, "Đang tìm project...");
             Project project = projectRepository.findByPublicId(projectPublicId)
@@ -153,33 +280,50 @@ public class SaveSubtitlesService extends ProgressTask {
 
             // Bước 1: Tải video từ Cloudinary
             progressCallback.accept(30, "Đang tải video từ Cloudinary...");
-            videoFile = loadFileFromCloudinaryVideoUrl(urlVideo);
+            videoFile = timed("download", () -> loadFileFromCloudinaryVideoUrl(urlVideo, cancellationToken));
+            recordBytes("download", videoFile.length());
+            cancellationToken.throwIfCancelled();
 
             // Bước 2: Ghi phụ đề vào file tạm thời
             progressCallback.accept(50, "Đang ghi phụ đề...");
             tempAssFile = Files.createTempFile("subtitle-", ".ass").toFile();
-            Files.write(tempAssFile.toPath(), fileSub);
+            if (fileSub != null) {
+                Files.write(tempAssFile.toPath(), fileSub);
+            } else {
+                PackedSubtitleTrack track = subtitleTrackService.loadPacked(projectPublicId, language);
+                writeAssFile(track, video, tempAssFile);
+            }
 
-            // Bước 3: Gắn phụ đề vào video
+            // Bước 3: Gắn phụ đề vào video (burn: encode lại; mux: chỉ copy stream)
             progressCallback.accept(70, "Đang gắn phụ đề vào video...");
-            subbedFile = addSubtitleToVideo(videoFile, tempAssFile);
+            File sourceVideo = videoFile;
+            File assFile = tempAssFile;
+            subbedFile = mux
+                    ? timed("mux", () -> muxSubtitleIntoVideo(sourceVideo, assFile, language, cancellationToken))
+                    : timed("encode", () -> addSubtitleToVideo(sourceVideo, assFile, cancellationToken));
 
             // Bước 4: Upload video mới lên Cloudinary
             progressCallback.accept(90, "Đang upload video mới...");
-            Video newVideo = videoService.uploadVideoToCloudinary(Files.readAllBytes(subbedFile.toPath()),
-                    subbedFile.getName());
+            byte[] encoded = Files.readAllBytes(subbedFile.toPath());
+            String encodedName = subbedFile.getName();
+            Video newVideo = timed("upload", () -> videoService.uploadVideoToCloudinary(encoded, encodedName));
+            recordBytes("upload", encoded.length);
 
             // <--- THÊM VÀO ĐÂY: In ra đường dẫn video mới
             System.out.println("Video processed and uploaded to Cloudinary: " + newVideo.getUrl());
 
             // Bước 5: Cập nhật lại project
-            project.setVideo(newVideo);
-            projectRepository.save(project);
+            timed("db_save", () -> videoService.attachToProject(projectPublicId, newVideo));
 
             // Hoàn tất
             progressCallback.accept(100, "Hoàn tất");
             completeCallback.accept(newVideo.getUrl(), "Hoàn tất upload video");
 
+        } catch (IOException e) {
+            // Download/upload Cloudinary lỗi tạm thời: job được chạy lại
+            errorCallback.accept("Lỗi khi xử lý video", e.getMessage());
+            System.err.println("Error in SaveSubtitlesService: " + e.getMessage());
+            throw new RetryableTaskException("Video I/O failed", e);
         } catch (Exception e) {
             errorCallback.accept("Lỗi khi xử lý video", e.getMessage());
             System.err.println("Error in SaveSubtitlesService: " + e.getMessage());
@@ -0,0 +1,8 @@
+package com.example.video.editor.service;
+
+/**
+ * Bộ đếm dung lượng của user vừa đổi; cache dung lượng bị bỏ sau khi
+ * transaction commit.
+ */
+public record StorageUsageChangedEvent(Long userId) {
+}
@@ -0,0 +1,132 @@
+package com.example.video.editor.service;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.video.editor.model.Project;
+import com.example.video.editor.model.Video;
+import com.example.video.editor.repository.UserRepository;
+import com.example.video.editor.repository.UserRepository.StorageUsageRow;
+
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Dung lượng video của từng user, giữ trong cột users.used_bytes. Mỗi lần thêm,
+ * thay hoặc xóa Video thì bộ đếm được cộng/trừ trong cùng transaction, nên đọc
+ * dung lượng chỉ là một lookup theo khóa chính (và được cache). Job đối soát
+ * định kỳ so bộ đếm với tổng thật từ bảng video và sửa chỗ lệch.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StorageUsageService {
+	public static final String CACHE_NAME = "userStorageCache";
+
+	private final UserRepository userRepository;
+	private final CacheManager cacheManager;
+	private final ApplicationEventPublisher eventPublisher;
+
+	@Value("${storage.usage.reconcile-batch-size:500}")
+	private int reconcileBatchSize;
+
+	@Cacheable(value = CACHE_NAME, key = "#userId")
+	public Long getUsedBytes(Long userId) {
+		return userRepository.findUsedBytesByUserId(userId).orElse(0L);
+	}
+
+	/** Project vừa gắn video mới thay cho video cũ (có thể null ở cả hai phía). */
+	@Transactional
+	public void recordVideoReplaced(Project project, Video oldVideo, Video newVideo) {
+		adjust(ownerOf(project), bytesOf(newVideo) - bytesOf(oldVideo));
+	}
+
+	@Transactional
+	public void recordVideoRemoved(Project project, Video video) {
+		adjust(ownerOf(project), -bytesOf(video));
+	}
+
+	/** Workspace của user bị thay mới (project và video cũ bị xóa theo). */
+	@Transactional
+	public void reset(Long userId) {
+		userRepository.setUsedBytes(userId, 0);
+		eventPublisher.publishEvent(new StorageUsageChangedEvent(userId));
+	}
+
+	private void adjust(Long userId, long deltaBytes) {
+		if (userId == null || deltaBytes == 0) {
+			return;
+		}
+		userRepository.addUsedBytes(userId, deltaBytes);
+		eventPublisher.publishEvent(new StorageUsageChangedEvent(userId));
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onStorageUsageChanged(StorageUsageChangedEvent event) {
+		Cache cache = cacheManager.getCache(CACHE_NAME);
+		if (cache != null) {
+			cache.evict(event.userId());
+		}
+	}
+
+	// Khởi động cũng đối soát một lần để điền cột used_bytes cho dữ liệu có sẵn
+	@EventListener(ApplicationReadyEvent.class)
+	public void reconcileOnStartup() {
+		try {
+			reconcile();
+		} catch (RuntimeException e) {
+			// Không chặn khởi động, lần chạy theo lịch sẽ thử lại
+			log.warn("Storage usage reconciliation failed", e);
+		}
+	}
+
+	/**
+	 * Duyệt user theo trang keyset, mỗi trang một query gộp SUM theo user. Chỉ
+	 * dòng lệch mới được sửa, và chỉ khi bộ đếm chưa đổi kể từ lúc tính, nên chạy
+	 * song song với upload hoặc trên nhiều instance cùng lúc vẫn an toàn.
+	 */
+	@Scheduled(cron = "${storage.usage.reconcile-cron:0 0 4 * * *}")
+	public void reconcile() {
+		long afterUserId = 0;
+		int corrected = 0;
+		List<StorageUsageRow> page;
+		do {
+			page = userRepository.findStorageUsagePage(afterUserId, PageRequest.of(0, reconcileBatchSize));
+			for (StorageUsageRow row : page) {
+				long actualBytes = row.getActualBytes() == null ? 0 : row.getActualBytes();
+				if (row.getUsedBytes() != actualBytes
+						&& userRepository.correctUsedBytes(row.getUserId(), row.getUsedBytes(), actualBytes) == 1) {
+					eventPublisher.publishEvent(new StorageUsageChangedEvent(row.getUserId()));
+					corrected++;
+				}
+				afterUserId = row.getUserId();
+			}
+		} while (page.size() == reconcileBatchSize);
+		if (corrected > 0) {
+			log.info("Storage usage reconciled for {} user(s)", corrected);
+		}
+	}
+
+	private static Long ownerOf(Project project) {
+		if (project == null || project.getWorkspace() == null || project.getWorkspace().getUser() == null) {
+			return null;
+		}
+		return project.getWorkspace().getUser().getUserId();
+	}
+
+	private static long bytesOf(Video video) {
+		return video == null || video.getBytes() == null ? 0 : video.getBytes();
+	}
+}
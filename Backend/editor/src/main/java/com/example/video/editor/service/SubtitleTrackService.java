@@ -0,0 +1,225 @@
+package com.example.video.editor.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.example.video.editor.config.JpaBatchConfig;
+import com.example.video.editor.dto.SubtitlePatchRequest;
+import com.example.video.editor.dto.SubtitlePatchResponse;
+import com.example.video.editor.dto.SubtitleSegmentDto;
+import com.example.video.editor.dto.SubtitleTrackDto;
+import com.example.video.editor.exception.NotFoundException;
+import com.example.video.editor.exception.VersionConflictException;
+import com.example.video.editor.model.Project;
+import com.example.video.editor.model.SubtitleSegment;
+import com.example.video.editor.model.SubtitleTrack;
+import com.example.video.editor.repository.ProjectRepository;
+import com.example.video.editor.repository.SubtitleSegmentRepository;
+import com.example.video.editor.repository.SubtitleTrackRepository;
+import com.example.video.editor.service.subtitle.PackedSubtitleTrack;
+
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+
+@Service
+@RequiredArgsConstructor
+public class SubtitleTrackService {
+
+	private final SubtitleTrackRepository trackRepository;
+	private final SubtitleSegmentRepository segmentRepository;
+	private final ProjectRepository projectRepository;
+	private final EntityManager entityManager;
+
+	@Transactional
+	public SubtitleTrackDto getTrack(String projectPublicId, String language) throws NotFoundException {
+		SubtitleTrack track = findTrack(projectPublicId, language);
+		List<SubtitleSegmentDto> segments = segmentRepository.findOrderedByTrackId(track.getTrackId()).stream()
+				.map(this::toDto).toList();
+		SubtitleTrackDto dto = toDto(projectPublicId, track);
+		dto.setSegments(segments);
+		return dto;
+	}
+
+	/** Đọc track hiện tại dưới dạng packed, dùng cho render/export. */
+	@Transactional
+	public PackedSubtitleTrack loadPacked(String projectPublicId, String language) throws NotFoundException {
+		SubtitleTrack track = findTrack(projectPublicId, language);
+		List<SubtitleSegment> segments = segmentRepository.findOrderedByTrackId(track.getTrackId());
+		PackedSubtitleTrack.Builder builder = PackedSubtitleTrack.builder(segments.size());
+		for (SubtitleSegment segment : segments) {
+			builder.add(segment.getStartMs(), segment.getEndMs(), segment.getText());
+		}
+		return builder.build();
+	}
+
+	/** Version hiện tại của track, null nếu chưa có. */
+	@Transactional
+	public Long currentVersion(String projectPublicId, String language) {
+		return trackRepository.findByProject_PublicIdAndLanguage(projectPublicId, normalizeLanguage(language))
+				.map(SubtitleTrack::getVersion).orElse(null);
+	}
+
+	/** Thay toàn bộ segment của track (tạo track nếu chưa có), ghi theo từng batch. */
+	@Transactional
+	public SubtitleTrackDto replaceTrack(String projectPublicId, String language, PackedSubtitleTrack packed)
+			throws NotFoundException {
+		String normalizedLanguage = normalizeLanguage(language);
+		SubtitleTrack track = trackRepository.findByProject_PublicIdAndLanguage(projectPublicId, normalizedLanguage)
+				.orElse(null);
+		if (track == null) {
+			Project project = projectRepository.findByPublicId(projectPublicId)
+					.orElseThrow(() -> new NotFoundException("Không tìm thấy Project với ID: " + projectPublicId));
+			track = trackRepository.save(SubtitleTrack.builder().project(project).language(normalizedLanguage)
+					.createdAt(LocalDateTime.now()).updatedAt(LocalDateTime.now()).build());
+		} else {
+			segmentRepository.deleteAllByTrackId(track.getTrackId());
+		}
+
+		List<SubtitleSegment> batch = new ArrayList<>(Math.min(packed.size(), JpaBatchConfig.BATCH_SIZE));
+		for (int i = 0; i < packed.size(); i++) {
+			batch.add(SubtitleSegment.builder().track(track).startMs(packed.startMs(i)).endMs(packed.endMs(i))
+					.text(packed.text(i)).build());
+			if (batch.size() == JpaBatchConfig.BATCH_SIZE) {
+				flushBatch(batch);
+			}
+		}
+		flushBatch(batch);
+
+		track.setSegmentCount(packed.size());
+		track.setUpdatedAt(LocalDateTime.now());
+		track = trackRepository.saveAndFlush(track);
+		return toDto(projectPublicId, track);
+	}
+
+	@Transactional
+	public SubtitlePatchResponse patch(String projectPublicId, String language, SubtitlePatchRequest request)
+			throws NotFoundException {
+		SubtitleTrack track = findTrack(projectPublicId, language);
+		if (request.getBaseVersion() != null && !request.getBaseVersion().equals(track.getVersion())) {
+			throw new VersionConflictException("Track đã bị thay đổi (version hiện tại: " + track.getVersion()
+					+ ", version của client: " + request.getBaseVersion() + ")");
+		}
+
+		Map<String, SubtitleSegment> touched = loadTouchedSegments(track, request);
+
+		List<SubtitleSegment> toDelete = new ArrayList<>(request.getDeletes().size());
+		for (SubtitlePatchRequest.SegmentDelete delete : request.getDeletes()) {
+			SubtitleSegment segment = requireVersion(touched, delete.getId(), delete.getVersion());
+			toDelete.add(segment);
+		}
+		segmentRepository.deleteAll(toDelete);
+
+		List<SubtitleSegment> updated = new ArrayList<>(request.getUpdates().size());
+		for (SubtitlePatchRequest.SegmentUpdate update : request.getUpdates()) {
+			SubtitleSegment segment = requireVersion(touched, update.getId(), update.getVersion());
+			int start = update.getStartMs() != null ? update.getStartMs() : segment.getStartMs();
+			int end = update.getEndMs() != null ? update.getEndMs() : segment.getEndMs();
+			validateRange(start, end);
+			segment.setStartMs(start);
+			segment.setEndMs(end);
+			if (update.getText() != null) {
+				segment.setText(update.getText());
+			}
+			updated.add(segment);
+		}
+
+		List<SubtitleSegment> inserted = new ArrayList<>(request.getInserts().size());
+		for (SubtitlePatchRequest.SegmentInsert insert : request.getInserts()) {
+			validateRange(insert.getStartMs(), insert.getEndMs());
+			inserted.add(SubtitleSegment.builder().track(track).startMs(insert.getStartMs()).endMs(insert.getEndMs())
+					.text(insert.getText()).build());
+		}
+		segmentRepository.saveAll(inserted);
+
+		// Luôn thay đổi track để version tăng, kể cả khi chỉ segment thay đổi
+		track.setSegmentCount(track.getSegmentCount() + inserted.size() - toDelete.size());
+		track.setUpdatedAt(LocalDateTime.now());
+		track = trackRepository.saveAndFlush(track);
+
+		return SubtitlePatchResponse.builder().version(track.getVersion()).segmentCount(track.getSegmentCount())
+				.inserted(inserted.stream().map(this::toDto).toList()).updated(updated.stream().map(this::toDto).toList())
+				.build();
+	}
+
+	private Map<String, SubtitleSegment> loadTouchedSegments(SubtitleTrack track, SubtitlePatchRequest request) {
+		List<String> ids = new ArrayList<>(request.getUpdates().size() + request.getDeletes().size());
+		request.getUpdates().forEach(update -> ids.add(update.getId()));
+		request.getDeletes().forEach(delete -> ids.add(delete.getId()));
+		Set<String> unique = new HashSet<>(ids);
+		if (unique.size() != ids.size()) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Một segment chỉ được xuất hiện một lần trong patch");
+		}
+		Map<String, SubtitleSegment> touched = new HashMap<>();
+		if (!ids.isEmpty()) {
+			segmentRepository.findByTrackIdAndIds(track.getTrackId(), ids)
+					.forEach(segment -> touched.put(segment.getSegmentId(), segment));
+		}
+		return touched;
+	}
+
+	private SubtitleSegment requireVersion(Map<String, SubtitleSegment> touched, String segmentId, Long version) {
+		SubtitleSegment segment = touched.get(segmentId);
+		if (segment == null) {
+			throw new VersionConflictException("Segment " + segmentId + " không còn tồn tại");
+		}
+		if (!segment.getVersion().equals(version)) {
+			throw new VersionConflictException("Segment " + segmentId + " đã bị thay đổi (version hiện tại: "
+					+ segment.getVersion() + ", version của client: " + version + ")");
+		}
+		return segment;
+	}
+
+	private void validateRange(int start, int end) {
+		if (start < 0 || end < start) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+					"Khoảng thời gian không hợp lệ: " + start + " -> " + end);
+		}
+	}
+
+	private void flushBatch(List<SubtitleSegment> batch) {
+		if (batch.isEmpty()) {
+			return;
+		}
+		segmentRepository.saveAll(batch);
+		entityManager.flush();
+		// Không giữ các segment đã ghi trong persistence context
+		batch.forEach(entityManager::detach);
+		batch.clear();
+	}
+
+	private SubtitleTrack findTrack(String projectPublicId, String language) throws NotFoundException {
+		String normalizedLanguage = normalizeLanguage(language);
+		return trackRepository.findByProject_PublicIdAndLanguage(projectPublicId, normalizedLanguage)
+				.orElseThrow(() -> new NotFoundException(
+						"Không tìm thấy phụ đề '" + normalizedLanguage + "' cho Project: " + projectPublicId));
+	}
+
+	static String normalizeLanguage(String language) {
+		if (language == null || language.isBlank()) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Language is required");
+		}
+		return language.trim().toLowerCase(Locale.ROOT);
+	}
+
+	private SubtitleSegmentDto toDto(SubtitleSegment segment) {
+		return SubtitleSegmentDto.builder().id(segment.getSegmentId()).startMs(segment.getStartMs())
+				.endMs(segment.getEndMs()).text(segment.getText()).version(segment.getVersion()).build();
+	}
+
+	private SubtitleTrackDto toDto(String projectPublicId, SubtitleTrack track) {
+		return SubtitleTrackDto.builder().projectPublicId(projectPublicId).language(track.getLanguage())
+				.version(track.getVersion()).segmentCount(track.getSegmentCount()).updatedAt(track.getUpdatedAt())
+				.build();
+	}
+}
@@ -0,0 +1,222 @@
+package com.example.video.editor.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.example.video.editor.dto.BatchItemStatusDto;
+import com.example.video.editor.dto.BatchStatusDto;
+import com.example.video.editor.dto.BatchTaskRequest;
+import com.example.video.editor.dto.TaskStatusSnapshot;
+import com.example.video.editor.dto.TranscriptionRequest;
+import com.example.video.editor.exception.NotFoundException;
+import com.example.video.editor.model.BatchOperation;
+import com.example.video.editor.model.Project;
+import com.example.video.editor.model.TaskBatchItem;
+import com.example.video.editor.model.TaskJob;
+import com.example.video.editor.model.TaskJobStatus;
+import com.example.video.editor.repository.ProjectRepository;
+import com.example.video.editor.repository.TaskBatchItemRepository;
+import com.example.video.editor.service.progess.ProgressCoalescer;
+import com.example.video.editor.service.progess.ProgressTask;
+import com.example.video.editor.service.progess.TaskJobFinishedEvent;
+import com.example.video.editor.service.progess.TaskJobStore;
+import com.example.video.editor.service.progess.TaskProcessingService;
+import com.example.video.editor.service.progess.TaskStatusStore;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Chạy một thao tác (transcribe, burn, mux) trên nhiều project của một
+ * workspace. Mỗi project là một job bình thường trong hàng đợi nên được xếp
+ * lịch, giới hạn đồng thời theo gói tài khoản và single-flight như khi submit
+ * lẻ. Tiến độ gộp được gửi trên /topic/progress/{batchId} mỗi khi một job của
+ * batch kết thúc.
+ */
+@Service
+@RequiredArgsConstructor
+public class TaskBatchService {
+
+	private final ProjectRepository projectRepository;
+	private final TaskBatchItemRepository batchItemRepository;
+	private final TaskProcessingService taskProcessingService;
+	private final TaskJobStore jobStore;
+	private final TaskStatusStore taskStatusStore;
+	private final ProgressCoalescer progressCoalescer;
+	private final TranscriptionService transcriptionService;
+	private final SaveSubtitlesService saveSubtitlesService;
+
+	/**
+	 * Không chạy trong một transaction chung: job phải được commit ngay để
+	 * worker claim được trong lúc các job khác của batch còn đang được lưu.
+	 */
+	public BatchStatusDto submit(Long userId, String workspacePublicId, BatchTaskRequest request)
+			throws NotFoundException {
+		BatchOperation operation = request.getOperation();
+		String language = request.getLanguage() == null || request.getLanguage().isBlank() ? null
+				: request.getLanguage().trim();
+		if (operation != BatchOperation.TRANSCRIBE && language == null) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Language is required for " + operation);
+		}
+
+		LinkedHashSet<String> publicIds = new LinkedHashSet<>(request.getProjectPublicIds());
+		Map<String, Project> projects = projectRepository.findAllInWorkspaceWithVideo(workspacePublicId, publicIds)
+				.stream().collect(Collectors.toMap(Project::getPublicId, Function.identity()));
+		List<String> missing = publicIds.stream().filter(id -> !projects.containsKey(id)).toList();
+		if (!missing.isEmpty()) {
+			throw new NotFoundException("Không tìm thấy project trong workspace: " + missing);
+		}
+
+		String batchId = UUID.randomUUID().toString();
+		LocalDateTime now = LocalDateTime.now();
+		List<TaskBatchItem> items = new ArrayList<>(publicIds.size());
+		List<TaskBatchItem> toSubmit = new ArrayList<>();
+		List<Object[]> paramsList = new ArrayList<>();
+		for (String publicId : publicIds) {
+			Project project = projects.get(publicId);
+			TaskBatchItem item = TaskBatchItem.builder().batchId(batchId).projectPublicId(publicId)
+					.operation(operation).ownerId(userId).createdAt(now).build();
+			if (project.getVideo() == null || project.getVideo().getUrl() == null) {
+				item.setError("NO_VIDEO");
+			} else {
+				toSubmit.add(item);
+				paramsList.add(paramsFor(operation, project, language));
+			}
+			items.add(item);
+		}
+
+		List<String> taskIds = taskProcessingService.startProgressTasks(taskFor(operation), paramsList);
+		for (int i = 0; i < toSubmit.size(); i++) {
+			toSubmit.get(i).setJobId(taskIds.get(i));
+		}
+		batchItemRepository.saveAll(items);
+		BatchStatusDto status = statusOf(batchId, operation, items);
+		// Các job có thể đã xong (single-flight với job cũ) trước khi item được lưu
+		if (status.isFinished()) {
+			publishProgress(status);
+		}
+		return status;
+	}
+
+	/** Chỉ người tạo batch xem được tiến độ của nó. */
+	public BatchStatusDto getStatus(String batchId, Long userId) throws NotFoundException {
+		List<TaskBatchItem> items = findItems(batchId);
+		if (userId == null || !userId.equals(items.get(0).getOwnerId())) {
+			throw new AccessDeniedException("Không có quyền xem batch: " + batchId);
+		}
+		return statusOf(batchId, items.get(0).getOperation(), items);
+	}
+
+	/** Một job kết thúc: cập nhật tiến độ gộp của các batch chứa nó. */
+	@EventListener
+	public void onTaskFinished(TaskJobFinishedEvent event) {
+		for (String batchId : batchItemRepository.findBatchIdsByJobId(event.taskId())) {
+			try {
+				List<TaskBatchItem> items = findItems(batchId);
+				publishProgress(statusOf(batchId, items.get(0).getOperation(), items));
+			} catch (NotFoundException e) {
+				// Batch vừa bị xóa, không còn ai theo dõi
+			}
+		}
+	}
+
+	private List<TaskBatchItem> findItems(String batchId) throws NotFoundException {
+		List<TaskBatchItem> items = batchItemRepository.findByBatchIdOrderByItemIdAsc(batchId);
+		if (items.isEmpty()) {
+			throw new NotFoundException("Không tìm thấy batch: " + batchId);
+		}
+		return items;
+	}
+
+	private void publishProgress(BatchStatusDto status) {
+		String message = (status.getSucceeded() + status.getFailed()) + "/" + status.getTotal() + " project đã xong";
+		if (status.isFinished()) {
+			progressCoalescer.publishFinal(status.getBatchId(), Map.of("status", TaskStatusSnapshot.COMPLETE,
+					"result", status, "message", message));
+		} else {
+			progressCoalescer.progress(status.getBatchId(), Map.of("progress", status.getProgress(), "message",
+					message));
+		}
+	}
+
+	private BatchStatusDto statusOf(String batchId, BatchOperation operation, List<TaskBatchItem> items) {
+		List<String> jobIds = items.stream().map(TaskBatchItem::getJobId).filter(id -> id != null).toList();
+		Map<String, TaskJob> jobs = jobStore.findAllById(jobIds).stream()
+				.collect(Collectors.toMap(TaskJob::getJobId, Function.identity()));
+
+		BatchStatusDto.BatchStatusDtoBuilder status = BatchStatusDto.builder().batchId(batchId).operation(operation)
+				.total(items.size());
+		int queued = 0, running = 0, succeeded = 0, failed = 0, progressSum = 0;
+		List<BatchItemStatusDto> itemStatuses = new ArrayList<>(items.size());
+		for (TaskBatchItem item : items) {
+			BatchItemStatusDto.BatchItemStatusDtoBuilder itemStatus = BatchItemStatusDto.builder()
+					.projectPublicId(item.getProjectPublicId()).taskId(item.getJobId());
+			TaskJob job = item.getJobId() == null ? null : jobs.get(item.getJobId());
+			TaskJobStatus jobStatus = job == null ? null : job.getStatus();
+			if (jobStatus == null || jobStatus == TaskJobStatus.FAILED || jobStatus == TaskJobStatus.CANCELLED) {
+				failed++;
+				progressSum += 100;
+				itemStatus.status(TaskStatusSnapshot.ERROR).progress(100).error(item.getError() != null
+						? item.getError()
+						: jobStatus == null ? "JOB_NOT_FOUND" : jobStatus.name());
+			} else if (jobStatus == TaskJobStatus.SUCCEEDED) {
+				succeeded++;
+				progressSum += 100;
+				itemStatus.status(TaskStatusSnapshot.COMPLETE).progress(100);
+			} else {
+				// Progress chi tiết lấy từ snapshot của task, không cần query thêm
+				Optional<TaskStatusSnapshot> snapshot = taskStatusStore.find(item.getJobId());
+				int progress = snapshot.map(TaskStatusSnapshot::getProgress).orElse(0);
+				progressSum += progress;
+				if (jobStatus == TaskJobStatus.QUEUED) {
+					queued++;
+					itemStatus.status(TaskStatusSnapshot.QUEUED);
+				} else {
+					running++;
+					itemStatus.status(TaskStatusSnapshot.RUNNING);
+				}
+				itemStatus.progress(progress);
+			}
+			itemStatuses.add(itemStatus.build());
+		}
+		return status.queued(queued).running(running).succeeded(succeeded).failed(failed)
+				.progress(items.isEmpty() ? 100 : progressSum / items.size()).finished(queued + running == 0)
+				.items(itemStatuses).build();
+	}
+
+	private ProgressTask taskFor(BatchOperation operation) {
+		return operation == BatchOperation.TRANSCRIBE ? transcriptionService : saveSubtitlesService;
+	}
+
+	// Cùng tham số với các endpoint submit lẻ để single-flight gộp được với request lẻ
+	private static Object[] paramsFor(BatchOperation operation, Project project, String language) {
+		switch (operation) {
+		case TRANSCRIBE -> {
+			TranscriptionRequest request = new TranscriptionRequest();
+			request.setUrl(project.getVideo().getUrl());
+			request.setLanguage(language);
+			request.setTranslate(false);
+			request.setProjectPublicId(project.getPublicId());
+			return new Object[] { request };
+		}
+		case MUX -> {
+			return new Object[] { null, project.getPublicId(), language, Boolean.TRUE };
+		}
+		default -> {
+			return new Object[] { null, project.getPublicId(), language };
+		}
+		}
+	}
+}
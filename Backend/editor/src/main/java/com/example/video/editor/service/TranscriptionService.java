@@ -1,6 +1,7 @@
 package com.example.video.editor.service;
 
 import java.util.List;
+import java.util.Locale;
 import java.util.function.BiConsumer;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,20 +13,36 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
-import com.example.video.editor.client.PythonTranscriptionClient;
+import feign.FeignException;
+import feign.RetryableException;
+
 import com.example.video.editor.dto.TranscriptionRequest;
-import com.example.video.editor.dto.TranscriptionResponse;
+import com.example.video.editor.exception.RetryableTaskException;
 import com.example.video.editor.model.SrtSegment;
+import com.example.video.editor.service.audio.SilenceSkippingTranscriber;
+import com.example.video.editor.service.progess.CancellationToken;
 import com.example.video.editor.service.progess.ProgressTask;
+import com.example.video.editor.service.progess.TaskFingerprint;
+import com.example.video.editor.service.subtitle.PackedSubtitleTrack;
 
 @Service
 public class TranscriptionService extends ProgressTask {
 
 	@Autowired
-	private PythonTranscriptionClient pythonTranscriptionClient;
+	private SilenceSkippingTranscriber silenceSkippingTranscriber;
+	@Autowired
+	private SubtitleTrackService subtitleTrackService;
 
 	@Override
-	protected void executeTask(BiConsumer<Integer, String> progressCallback,
+	protected String fingerprint(Object... params) {
+		TranscriptionRequest request = (TranscriptionRequest) params[0];
+		String language = request.getLanguage() == null ? null : request.getLanguage().trim().toLowerCase(Locale.ROOT);
+		return TaskFingerprint.of(request.getUrl() == null ? null : request.getUrl().trim(), language,
+				request.isTranslate(), request.getProjectPublicId());
+	}
+
+	@Override
+	protected void executeTask(CancellationToken cancellationToken, BiConsumer<Integer, String> progressCallback,
 			BiConsumer<Object, String> completeCallback, BiConsumer<String, String> errorCallback, Object... params)
 			throws Exception {
 
@@ -38,15 +55,12 @@ public class TranscriptionService extends ProgressTask {
 
 			progressCallback.accept(5, "Chuẩn bị gửi yêu cầu đến Python API");
 
-			TranscriptionResponse transcriptionResponse = pythonTranscriptionClient.transcribe(request);
-
-			progressCallback.accept(15, "Đang gửi yêu cầu transcribe");
+			// Bước 2: Bỏ các đoạn im lặng rồi gửi phần còn lại đi transcribe
+			List<SrtSegment> srtContent = timed("transcription_call",
+					() -> silenceSkippingTranscriber.transcribe(request, cancellationToken, progressCallback));
 
 			progressCallback.accept(60, "Nhận phản hồi thành công");
 
-			// Bước 3: Lấy nội dung phụ đề SRT
-			List<SrtSegment> srtContent = transcriptionResponse.getSrt();
-
 			if (srtContent == null || srtContent.isEmpty()) {
 				errorCallback.accept("SUB_EMPTY", "Phụ đề rỗng hoặc không hợp lệ.");
 				return;
@@ -55,7 +69,16 @@ public class TranscriptionService extends ProgressTask {
 			// (Giả sử có thể lưu file, convert sang .ass và render video ở đây)
 			progressCallback.accept(75, "Xử lý phụ đề");
 
-			// TODO: Convert srtContent sang .ass (gọi script hoặc API phụ nếu có)
+			cancellationToken.throwIfCancelled();
+			if (request.getProjectPublicId() != null) {
+				progressCallback.accept(85, "Đang lưu phụ đề vào project");
+				timed("db_save", () -> subtitleTrackService.replaceTrack(request.getProjectPublicId(),
+						request.getLanguage() == null ? "auto" : request.getLanguage(),
+						PackedSubtitleTrack.fromSrtSegments(srtContent)));
+			}
+
+			// Chuyển sang SRT/VTT/ASS làm ở phía server khi export hoặc burn
+			// (SubtitleStreamWriter), không cần convert ở đây
 			// TODO: Render phụ đề vào video bằng FFmpeg nếu cần
 
 			// Bước 4: Hoàn tất
@@ -64,8 +87,18 @@ public class TranscriptionService extends ProgressTask {
 			// Gọi callback hoàn tất với phụ đề dạng SRT hoặc đường dẫn video sau render
 			completeCallback.accept(srtContent, "success");
 
+		} catch (FeignException e) {
+			errorCallback.accept("SYSTEM_ERROR", "Đã xảy ra lỗi: " + e.getMessage());
+			// Python API quá tải hoặc không kết nối được: job được chạy lại
+			if (isTransient(e)) {
+				throw new RetryableTaskException("Transcription API unavailable", e);
+			}
 		} catch (Exception e) {
 			errorCallback.accept("SYSTEM_ERROR", "Đã xảy ra lỗi: " + e.getMessage());
 		}
 	}
+
+	private static boolean isTransient(FeignException e) {
+		return e instanceof RetryableException || e.status() == 429 || e.status() >= 500;
+	}
 }
\ No newline at end of file
@@ -0,0 +1,5 @@
+package com.example.video.editor.service;
+
+/** Instance khác báo user đã đổi, chỉ cần bỏ entry trong cache của instance này. */
+public record UserCacheEvictEvent(Long userId, String email) {
+}
@@ -0,0 +1,7 @@
+package com.example.video.editor.service;
+
+/** Báo cho các instance khác bỏ UserDetails đã cache của một user. */
+public interface UserCacheSignal {
+
+	void userChanged(Long userId, String email);
+}
@@ -0,0 +1,8 @@
+package com.example.video.editor.service;
+
+/**
+ * User vừa đổi (status, gói, số lần sai mật khẩu, workspace...). Các cache theo
+ * user (UserDetailsCache, quyền workspace) bỏ entry sau khi transaction commit.
+ */
+public record UserChangedEvent(Long userId, String email) {
+}
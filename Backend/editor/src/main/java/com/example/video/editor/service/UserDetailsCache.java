@@ -0,0 +1,56 @@
+package com.example.video.editor.service;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Cache UserDetails theo email, giới hạn số entry và TTL
+ * ({@code user.cache.max-entries}, {@code user.cache.ttl-seconds}). Entry bị bỏ
+ * khi có {@link UserChangedEvent}, trên các instance khác qua
+ * {@link UserCacheSignal}. Hit/miss xuất qua metric {@code cache.gets} với tag
+ * cache=userDetails.
+ */
+@Component
+public class UserDetailsCache {
+	public static final String CACHE_NAME = "userDetails";
+
+	private final Cache<String, UserDetails> cache;
+	private final UserCacheSignal signal;
+
+	public UserDetailsCache(UserCacheSignal signal, MeterRegistry meterRegistry,
+			@Value("${user.cache.max-entries:10000}") long maxEntries,
+			@Value("${user.cache.ttl-seconds:300}") long ttlSeconds) {
+		this.signal = signal;
+		this.cache = Caffeine.newBuilder().maximumSize(maxEntries).expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+				.recordStats().build();
+		CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+	}
+
+	public UserDetails get(String email, Function<String, UserDetails> loader) {
+		return cache.get(email, loader);
+	}
+
+	// Sau commit: bỏ trước commit thì request khác có thể nạp lại dữ liệu cũ vào cache
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onUserChanged(UserChangedEvent event) {
+		cache.invalidate(event.email());
+		signal.userChanged(event.userId(), event.email());
+	}
+
+	@EventListener
+	public void onRemoteUserChanged(UserCacheEvictEvent event) {
+		cache.invalidate(event.email());
+	}
+}
@@ -8,6 +8,7 @@ import com.example.video.editor.model.AccountTier;
 import com.example.video.editor.model.User;
 import org.springframework.security.access.AccessDeniedException;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 
@@ -26,10 +27,9 @@ public interface UserService {
 	UserDTO unbanUser(Long userIdToUnban, Long adminId) throws NotFoundException, AccessDeniedException;
 
 	Optional<User> findUserByEmail(String email); // Để AuthenticationService có thể tìm user
-	boolean isAccountLocked(User user);
-	void incrementFailedAttempts(User user);
+	Duration getLockRemaining(User user); // Duration.ZERO nếu không bị khóa tạm
+	int incrementFailedAttempts(User user); // Trả về số lần sai liên tiếp
 	void resetFailedAttempts(User user);
-	void unlockAccountsPeriodically(); //
 
 	void updateAccountTier(Long userId, AccountTier newTier) throws NotFoundException;
 
@@ -3,11 +3,11 @@ package com.example.video.editor.service;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
-import org.springframework.cache.annotation.Cacheable;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -39,11 +39,17 @@ public class UserServiceImpl implements UserService {
 	private final WorkspaceMapper workspaceMapper;
 	private final UserMapper userMapper;
 	private final RoleRepository roleRepository;
+	private final ApplicationEventPublisher eventPublisher;
+	private final LoginAttemptStore loginAttemptStore;
+	private final WorkspaceViewService workspaceViewService;
+	private final StorageUsageService storageUsageService;
 	private static final String DEFAULT_USER_ROLE_NAME = "USER";
 	private static final String ADMIN_ROLE_NAME = "ADMIN"; // Define admin role name
 	private static final int ADMIN_ROLE_ID = 1;
 	public static final int MAX_FAILED_ATTEMPTS = 4;
 	public static final Duration BLOCK_DURATION = Duration.ofMinutes(1);
+	// Các lần sai cách nhau lâu hơn khoảng này không còn được cộng dồn
+	public static final Duration FAILED_ATTEMPT_WINDOW = Duration.ofMinutes(15);
 
 	@Override
 	public User saveUser(User user) {
@@ -87,13 +93,22 @@ public class UserServiceImpl implements UserService {
 
 		user.setWorkspace(newWorkspace);
 		userRepository.save(user);
+		// Workspace mới chưa có video nào
+		storageUsageService.reset(user.getUserId());
+		// Workspace cũ bị xóa (orphanRemoval), quyền đã cache trên nó không còn đúng
+		eventPublisher.publishEvent(new UserChangedEvent(user.getUserId(), user.getEmail()));
 		return workspaceMapper.toDto(user.getWorkspace());
 	}
 
 	@Override
 	public UserDTO getUserInfo(Long userId) throws NotFoundException {
 		var user = findById(userId);
-		return userMapper.toDto(user);
+		UserDTO dto = userMapper.toDtoWithoutWorkspace(user);
+		if (user.getWorkspace() != null) {
+			Long workspaceId = user.getWorkspace().getWorkspaceId();
+			dto.setWorkspace(workspaceViewService.getWorkspaces(List.of(workspaceId)).get(workspaceId));
+		}
+		return dto;
 	}
 
 	private User findById(long userId) throws NotFoundException {
@@ -101,17 +116,26 @@ public class UserServiceImpl implements UserService {
 				.orElseThrow(() -> new NotFoundException("Không tìm thấy người dùng với ID: " + userId));
 	}
 
-	@Cacheable(value = "userStorageCache", key = "#userId")
 	public Long calculateUsedStorage(Long userId) {
-		System.out.println("getDb");
-		return userRepository.getUsedStorageByUserId(userId);
+		return storageUsageService.getUsedBytes(userId);
 	}
     @Override
     @Transactional // Chỉ đọc dữ liệu
     public List<UserDTO> getAllUsers() {
-        List<User> users = userRepository.findAll();
+        // Hai query cho cả danh sách: user (kèm role, workspace) và project của mọi workspace
+        List<User> users = userRepository.findAllWithRoleAndWorkspace();
+        Map<Long, WorkspaceDto> workspaces = workspaceViewService.getWorkspaces(users.stream()
+                .filter(user -> user.getWorkspace() != null)
+                .map(user -> user.getWorkspace().getWorkspaceId())
+                .toList());
         return users.stream()
-                .map(userMapper::toDto) // Sử dụng UserMapper để ánh xạ
+                .map(user -> {
+                    UserDTO dto = userMapper.toDtoWithoutWorkspace(user);
+                    if (user.getWorkspace() != null) {
+                        dto.setWorkspace(workspaces.get(user.getWorkspace().getWorkspaceId()));
+                    }
+                    return dto;
+                })
                 .collect(Collectors.toList());
     }
 	@Override
@@ -133,7 +157,10 @@ public class UserServiceImpl implements UserService {
 		// 3. Update status
 		userToBan.setStatus(UserStatus.BLOCKED);
 		userToBan.setUpdatedAt(LocalDateTime.now()); // Update timestamp
+		// Token đang dùng mang status cũ, buộc đăng nhập lại
+		userToBan.revokeTokens();
 		userRepository.save(userToBan);
+		eventPublisher.publishEvent(new UserChangedEvent(userToBan.getUserId(), userToBan.getEmail()));
 
 		// 4. Return DTO of the updated user
 		return userMapper.toDto(userToBan);
@@ -153,7 +180,9 @@ public class UserServiceImpl implements UserService {
 		// 3. Update status (e.g., to ACTIVE)
 		userToUnban.setStatus(UserStatus.ACTIVE);
 		userToUnban.setUpdatedAt(LocalDateTime.now()); // Update timestamp
+		userToUnban.revokeTokens();
 		userRepository.save(userToUnban);
+		eventPublisher.publishEvent(new UserChangedEvent(userToUnban.getUserId(), userToUnban.getEmail()));
 
 		// 4. Return DTO of the updated user
 		return userMapper.toDto(userToUnban);
@@ -173,25 +202,29 @@ public class UserServiceImpl implements UserService {
 		return userRepository.findByEmail(email);
 	}
 	@Override
-	public boolean isAccountLocked(User user) {
-		return user.getFailedLoginAttempts() >= MAX_FAILED_ATTEMPTS && user.getStatus() == UserStatus.PENDING;
+	public Duration getLockRemaining(User user) {
+		return loginAttemptStore.lockRemaining(user.getUserId());
 	}
 	@Override
-	@Transactional
-	public void incrementFailedAttempts(User user) {
-		int attempts = user.getFailedLoginAttempts() + 1;
-		user.setFailedLoginAttempts(attempts);
-		if (attempts == MAX_FAILED_ATTEMPTS) {
-			user.setLastFailedLoginTime(LocalDateTime.now()); // Set lock time
-			user.setStatus(UserStatus.PENDING); // Set status to PENDING when locked
-			System.out.println("User " + user.getUsername() + " locked. Status set to PENDING.");
+	public int incrementFailedAttempts(User user) {
+		// Chỉ tăng bộ đếm (có TTL), không ghi lại dòng users cho mỗi lần sai
+		int attempts = loginAttemptStore.recordFailure(user.getUserId(), MAX_FAILED_ATTEMPTS, FAILED_ATTEMPT_WINDOW,
+				BLOCK_DURATION);
+		if (attempts >= MAX_FAILED_ATTEMPTS) {
+			System.out.println("User " + user.getUsername() + " locked for " + BLOCK_DURATION.toMinutes() + " minute(s).");
 		}
-		userRepository.save(user);
+		return attempts;
 	}
 
 	@Override
 	@Transactional
 	public void resetFailedAttempts(User user) {
+		loginAttemptStore.reset(user.getUserId());
+		// Dọn trạng thái khóa cũ còn lưu trong bảng users; user bình thường không bị ghi
+		if (user.getFailedLoginAttempts() == 0 && user.getLastFailedLoginTime() == null
+				&& user.getStatus() != UserStatus.PENDING) {
+			return;
+		}
 		user.setFailedLoginAttempts(0);
 		user.setLastFailedLoginTime(null);
 		if (user.getStatus() == UserStatus.PENDING) {
@@ -199,25 +232,7 @@ public class UserServiceImpl implements UserService {
 			System.out.println("User " + user.getUsername() + " unlocked. Status set to ACTIVE.");
 		}
 		userRepository.save(user);
-	}
-
-	@Override
-	@Scheduled(fixedRate = 60000) // 60,000 milliseconds = 1 minute
-	@Transactional
-	public void unlockAccountsPeriodically() {
-		System.out.println("Running scheduled task to unlock accounts...");
-		userRepository.findAll().forEach(user -> {
-			// Only process users that are currently PENDING due to lockout
-			if (user.getStatus() == UserStatus.PENDING && user.getFailedLoginAttempts() > 0 && user.getLastFailedLoginTime() != null) {
-				LocalDateTime blockEndTime = user.getLastFailedLoginTime().plus(BLOCK_DURATION);
-				if (LocalDateTime.now().isAfter(blockEndTime)) {
-					// Block duration expired, reset attempts and unlock
-					resetFailedAttempts(user); // This will set status back to ACTIVE
-					System.out.println("User " + user.getUsername() + " (ID: " + user.getUserId() + ") unlocked automatically. Status is now ACTIVE.");
-				}
-			}
-		});
-		System.out.println("Scheduled task finished.");
+		eventPublisher.publishEvent(new UserChangedEvent(user.getUserId(), user.getEmail()));
 	}
 
 	@Override
@@ -225,7 +240,9 @@ public class UserServiceImpl implements UserService {
 	public void updateAccountTier(Long userId, AccountTier newTier) throws NotFoundException {
 		User user = findById(userId);
 		user.setAccountTier(newTier);
+		user.revokeTokens();
 		userRepository.save(user);
+		eventPublisher.publishEvent(new UserChangedEvent(user.getUserId(), user.getEmail()));
 	}
 
 
@@ -12,9 +12,13 @@ import org.springframework.web.multipart.MultipartFile;
 import com.cloudinary.Cloudinary;
 import com.cloudinary.Transformation;
 import com.cloudinary.utils.ObjectUtils;
+import com.example.video.editor.exception.NotFoundException;
+import com.example.video.editor.model.Project;
 import com.example.video.editor.model.Video;
+import com.example.video.editor.repository.ProjectRepository;
 import com.example.video.editor.repository.VideoRepository;
 
+import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 
 @Service
@@ -23,6 +27,8 @@ public class VideoService {
 
 	private final VideoRepository videoRepository;
 	private final Cloudinary cloudinary; // Inject Cloudinary bean
+	private final ProjectRepository projectRepository;
+	private final StorageUsageService storageUsageService;
 
 	public Video uploadVideoToCloudinary(byte[] fileBytes, String title) throws IOException {
 		System.out.println(title);
@@ -49,6 +55,22 @@ public class VideoService {
 		return video;
 	}
 
+	/**
+	 * Lưu video và gắn vào project (video cũ nếu có bị xóa theo orphanRemoval),
+	 * cộng/trừ dung lượng của chủ workspace trong cùng transaction.
+	 */
+	@Transactional
+	public Video attachToProject(String projectPublicId, Video video) throws NotFoundException {
+		Project project = projectRepository.findByPublicId(projectPublicId)
+				.orElseThrow(() -> new NotFoundException("Không tìm thấy Project với ID: " + projectPublicId));
+		Video oldVideo = project.getVideo();
+		Video saved = videoRepository.save(video);
+		project.setVideo(saved);
+		projectRepository.save(project);
+		storageUsageService.recordVideoReplaced(project, oldVideo, saved);
+		return saved;
+	}
+
 	public Optional<Video> getVideoById(Long id) {
 		return videoRepository.findById(id);
 	}
@@ -57,9 +79,22 @@ public class VideoService {
 		return videoRepository.findByCloudinaryPublicId(publicId);
 	}
 
+	@Transactional
 	public void deleteVideoFromCloudinary(String publicId) throws IOException {
 		cloudinary.uploader().destroy(publicId, ObjectUtils.asMap("resource_type", "video"));
-		videoRepository.deleteByCloudinaryPublicId(publicId);
+		Optional<Video> video = videoRepository.findByCloudinaryPublicId(publicId);
+		if (video.isEmpty()) {
+			return;
+		}
+		Project project = video.get().getProject();
+		if (project != null) {
+			// Gỡ khỏi project, orphanRemoval xóa dòng video
+			project.setVideo(null);
+			projectRepository.save(project);
+		} else {
+			videoRepository.delete(video.get());
+		}
+		storageUsageService.recordVideoRemoved(project, video.get());
 	}
 
 	// Các phương thức khác liên quan đến Video (ví dụ: lấy danh sách video)
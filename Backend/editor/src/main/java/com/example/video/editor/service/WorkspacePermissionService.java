@@ -1,18 +1,102 @@
 package com.example.video.editor.service;
 
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import com.example.video.editor.repository.ProjectRepository;
 import com.example.video.editor.repository.WorkspaceRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 
+/**
+ * Kiểm tra quyền cho {@code @PreAuthorize("@workspacePermission.hasAccess(...)")}
+ * (workspace) và {@code hasProjectAccess(...)} (project thuộc workspace của user).
+ * Kết quả được cache theo (userId, publicId) với TTL ngắn, kể cả khi
+ * bị từ chối để việc dò publicId không chạm DB mỗi lần. Entry của một user bị
+ * bỏ khi có {@link UserChangedEvent} (ban, đổi workspace...) trên instance này
+ * hoặc {@link UserCacheEvictEvent} do instance khác báo qua Redis (khi bật
+ * user.cache.signal=redis), nên thu hồi quyền có hiệu lực ngay trên mọi
+ * instance; không bật Redis thì instance khác chờ tối đa một TTL.
+ */
 @Component("workspacePermission")
-@RequiredArgsConstructor
 public class WorkspacePermissionService {
+	public static final String CACHE_NAME = "workspacePermission";
 
 	private final WorkspaceRepository workspaceRepository;
+	private final ProjectRepository projectRepository;
+	private final Cache<PermissionKey, Boolean> decisions;
+
+	private record PermissionKey(Long userId, String publicId, boolean project) {
+	}
+
+	public WorkspacePermissionService(WorkspaceRepository workspaceRepository, ProjectRepository projectRepository,
+			MeterRegistry meterRegistry,
+			@Value("${workspace.permission-cache.max-entries:50000}") long maxEntries,
+			@Value("${workspace.permission-cache.granted-ttl-seconds:60}") long grantedTtlSeconds,
+			@Value("${workspace.permission-cache.denied-ttl-seconds:30}") long deniedTtlSeconds) {
+		this.workspaceRepository = workspaceRepository;
+		this.projectRepository = projectRepository;
+		long grantedTtl = Duration.ofSeconds(grantedTtlSeconds).toNanos();
+		long deniedTtl = Duration.ofSeconds(deniedTtlSeconds).toNanos();
+		this.decisions = Caffeine.newBuilder().maximumSize(maxEntries)
+				.expireAfter(new Expiry<PermissionKey, Boolean>() {
+					@Override
+					public long expireAfterCreate(PermissionKey key, Boolean granted, long currentTime) {
+						return granted ? grantedTtl : deniedTtl;
+					}
+
+					@Override
+					public long expireAfterUpdate(PermissionKey key, Boolean granted, long currentTime,
+							long currentDuration) {
+						return expireAfterCreate(key, granted, currentTime);
+					}
+
+					@Override
+					public long expireAfterRead(PermissionKey key, Boolean granted, long currentTime,
+							long currentDuration) {
+						return currentDuration;
+					}
+				}).recordStats().build();
+		CaffeineCacheMetrics.monitor(meterRegistry, decisions, CACHE_NAME);
+	}
 
 	public boolean hasAccess(Long userId, String workspacePublicId) {
-		return workspaceRepository.hasPermission(userId, workspacePublicId);
+		if (userId == null || workspacePublicId == null) {
+			return false;
+		}
+		return decisions.get(new PermissionKey(userId, workspacePublicId, false),
+				key -> workspaceRepository.hasPermission(key.userId(), key.publicId()));
+	}
+
+	public boolean hasProjectAccess(Long userId, String projectPublicId) {
+		if (userId == null || projectPublicId == null) {
+			return false;
+		}
+		return decisions.get(new PermissionKey(userId, projectPublicId, true),
+				key -> projectRepository.hasPermission(key.userId(), key.publicId()));
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onUserChanged(UserChangedEvent event) {
+		evict(event.userId());
+	}
+
+	@EventListener
+	public void onRemoteUserChanged(UserCacheEvictEvent event) {
+		evict(event.userId());
+	}
+
+	private void evict(Long userId) {
+		if (userId != null) {
+			decisions.asMap().keySet().removeIf(key -> key.userId().equals(userId));
+		}
 	}
-}
\ No newline at end of file
+}
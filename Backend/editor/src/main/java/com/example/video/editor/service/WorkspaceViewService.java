@@ -0,0 +1,97 @@
+package com.example.video.editor.service;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.stereotype.Service;
+
+import com.example.video.editor.dto.ProjectDto;
+import com.example.video.editor.dto.VideoDto;
+import com.example.video.editor.dto.WorkspaceDto;
+import com.example.video.editor.exception.NotFoundException;
+import com.example.video.editor.repository.WorkspaceRepository;
+import com.example.video.editor.repository.WorkspaceRepository.WorkspaceViewRow;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Read model của workspace (kèm project và video) cho API. Mỗi lần đọc là đúng
+ * một query projection, số query không tăng theo số project như khi map entity
+ * qua WorkspaceMapper (lazy projects, rồi video, rồi Video.project của từng
+ * project).
+ */
+@Service
+@RequiredArgsConstructor
+public class WorkspaceViewService {
+
+	private final WorkspaceRepository workspaceRepository;
+
+	public WorkspaceDto getWorkspace(String publicId) throws NotFoundException {
+		Map<Long, WorkspaceDto> workspaces = assemble(workspaceRepository.findViewRowsByPublicId(publicId));
+		if (workspaces.isEmpty()) {
+			throw new NotFoundException("Workspace not found with publicId: " + publicId);
+		}
+		return workspaces.values().iterator().next();
+	}
+
+	/** Nhiều workspace trong một query, key là workspaceId. */
+	public Map<Long, WorkspaceDto> getWorkspaces(Collection<Long> workspaceIds) {
+		if (workspaceIds.isEmpty()) {
+			return Map.of();
+		}
+		return assemble(workspaceRepository.findViewRowsByWorkspaceIds(workspaceIds));
+	}
+
+	private static Map<Long, WorkspaceDto> assemble(List<WorkspaceViewRow> rows) {
+		Map<Long, WorkspaceDto> workspaces = new LinkedHashMap<>();
+		for (WorkspaceViewRow row : rows) {
+			WorkspaceDto workspace = workspaces.computeIfAbsent(row.getWorkspaceId(), id -> toWorkspace(row));
+			if (row.getProjectId() != null) {
+				workspace.getProjects().add(toProject(row));
+			}
+		}
+		return workspaces;
+	}
+
+	private static WorkspaceDto toWorkspace(WorkspaceViewRow row) {
+		WorkspaceDto workspace = new WorkspaceDto();
+		workspace.setWorkspaceId(row.getWorkspaceId());
+		workspace.setPublicId(row.getWorkspacePublicId());
+		workspace.setWorkspaceName(row.getWorkspaceName());
+		workspace.setDescription(row.getWorkspaceDescription());
+		workspace.setCreatedAt(row.getWorkspaceCreatedAt());
+		workspace.setUpdatedAt(row.getWorkspaceUpdatedAt());
+		workspace.setProjects(new LinkedHashSet<>());
+		return workspace;
+	}
+
+	private static ProjectDto toProject(WorkspaceViewRow row) {
+		ProjectDto project = new ProjectDto();
+		project.setProjectId(row.getProjectId());
+		project.setPublicId(row.getProjectPublicId());
+		project.setProjectName(row.getProjectName());
+		project.setDescription(row.getProjectDescription());
+		project.setCreatedAt(row.getProjectCreatedAt());
+		project.setUpdatedAt(row.getProjectUpdatedAt());
+		if (row.getVideoId() != null) {
+			VideoDto video = new VideoDto();
+			video.setVideoId(row.getVideoId());
+			video.setTitle(row.getVideoTitle());
+			video.setCloudinaryPublicId(row.getVideoCloudinaryPublicId());
+			video.setUrl(row.getVideoUrl());
+			video.setThumbnailUrl(row.getVideoThumbnailUrl());
+			video.setSecureUrl(row.getVideoSecureUrl());
+			video.setResourceType(row.getVideoResourceType());
+			video.setFormat(row.getVideoFormat());
+			video.setDuration(row.getVideoDuration());
+			video.setBytes(row.getVideoBytes());
+			video.setWidth(row.getVideoWidth());
+			video.setHeight(row.getVideoHeight());
+			project.setVideo(video);
+		}
+		return project;
+	}
+}
@@ -0,0 +1,246 @@
+package com.example.video.editor.service.audio;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * VAD đơn giản dựa trên năng lượng và zero-crossing rate, chạy trên PCM 16-bit
+ * little-endian mono. Đọc dạng stream theo frame nên không cần giữ toàn bộ audio
+ * trong bộ nhớ.
+ *
+ * <p>
+ * Một frame được coi là có tiếng nói khi năng lượng vượt noise floor (ước
+ * lượng thích nghi) một khoảng {@code energyThresholdDb}, hoặc vượt ít hơn
+ * nhưng có ZCR nằm trong dải của phụ âm vô thanh (s, f, th...). Sau đó các
+ * frame được làm mượt: cần vài frame liên tiếp mới mở đoạn, cần một khoảng
+ * lặng đủ dài mới đóng đoạn, rồi mở rộng mỗi đoạn thêm padding và gộp các đoạn
+ * sát nhau.
+ */
+public class EnergyVoiceActivityDetector {
+
+	private static final double FULL_SCALE_SQUARED = 32768.0 * 32768.0;
+
+	private final Settings settings;
+
+	public EnergyVoiceActivityDetector() {
+		this(Settings.builder().build());
+	}
+
+	public EnergyVoiceActivityDetector(Settings settings) {
+		this.settings = settings;
+	}
+
+	public Settings getSettings() {
+		return settings;
+	}
+
+	@Getter
+	@Builder
+	public static class Settings {
+		@Builder.Default
+		private final int sampleRate = 16_000;
+		@Builder.Default
+		private final int frameMs = 20;
+		// Frame phải cao hơn noise floor bao nhiêu dB để tính là tiếng nói
+		@Builder.Default
+		private final double energyThresholdDb = 12;
+		// Ngưỡng thấp hơn dùng cho frame có ZCR giống phụ âm vô thanh
+		@Builder.Default
+		private final double unvoicedThresholdDb = 6;
+		@Builder.Default
+		private final double minZcr = 0.15;
+		@Builder.Default
+		private final double maxZcr = 0.5;
+		// Dưới mức này luôn là im lặng, kể cả khi noise floor rất thấp
+		@Builder.Default
+		private final double absoluteFloorDb = -55;
+		@Builder.Default
+		private final int minSpeechMs = 120;
+		@Builder.Default
+		private final int minSilenceMs = 600;
+		@Builder.Default
+		private final int paddingMs = 200;
+		@Builder.Default
+		private final int minSpanMs = 250;
+
+		int samplesPerFrame() {
+			return sampleRate * frameMs / 1000;
+		}
+	}
+
+	/** Chạy VAD trên stream PCM s16le mono, đọc đến hết stream. */
+	public Result detect(InputStream pcm) throws IOException {
+		Tracker tracker = new Tracker();
+		int frameSamples = settings.samplesPerFrame();
+		short[] frame = new short[frameSamples];
+		byte[] buf = new byte[64 * 1024];
+		int filled = 0;
+		int carry = -1; // byte thấp của sample bị cắt giữa hai lần read
+		int n;
+		while ((n = pcm.read(buf)) >= 0) {
+			int i = 0;
+			if (carry >= 0 && n > 0) {
+				frame[filled++] = (short) ((buf[0] << 8) | carry);
+				carry = -1;
+				i = 1;
+				if (filled == frameSamples) {
+					tracker.accept(frame, filled);
+					filled = 0;
+				}
+			}
+			for (; i + 1 < n; i += 2) {
+				frame[filled++] = (short) ((buf[i + 1] << 8) | (buf[i] & 0xFF));
+				if (filled == frameSamples) {
+					tracker.accept(frame, filled);
+					filled = 0;
+				}
+			}
+			if (i < n) {
+				carry = buf[i] & 0xFF;
+			}
+		}
+		if (filled > 0) {
+			tracker.accept(frame, filled);
+		}
+		return tracker.finish();
+	}
+
+	/** Chạy VAD trên mảng sample đã có sẵn. */
+	public Result detect(short[] samples) {
+		Tracker tracker = new Tracker();
+		int frameSamples = settings.samplesPerFrame();
+		short[] frame = new short[frameSamples];
+		for (int offset = 0; offset < samples.length; offset += frameSamples) {
+			int len = Math.min(frameSamples, samples.length - offset);
+			System.arraycopy(samples, offset, frame, 0, len);
+			tracker.accept(frame, len);
+		}
+		return tracker.finish();
+	}
+
+	/** Kết quả VAD: các đoạn có tiếng nói và tổng độ dài audio. */
+	public record Result(List<SpeechSpan> spans, int totalMs) {
+
+		public int speechMs() {
+			int total = 0;
+			for (SpeechSpan span : spans) {
+				total += span.durationMs();
+			}
+			return total;
+		}
+
+		public double speechRatio() {
+			return totalMs == 0 ? 0 : (double) speechMs() / totalMs;
+		}
+	}
+
+	private class Tracker {
+		private final int frameMs = settings.getFrameMs();
+		private final int onsetFrames = Math.max(1, settings.getMinSpeechMs() / frameMs);
+		private final int hangoverFrames = Math.max(1, settings.getMinSilenceMs() / frameMs);
+		private final List<SpeechSpan> rawSpans = new ArrayList<>();
+
+		private long samples;
+		private int frameIndex;
+		private double noiseFloorDb = Double.NaN;
+		private int speechRun;
+		private int silenceRun;
+		private int spanStartFrame = -1;
+
+		void accept(short[] frame, int len) {
+			long sumSquares = 0;
+			int crossings = 0;
+			for (int i = 0; i < len; i++) {
+				int s = frame[i];
+				sumSquares += (long) s * s;
+				if (i > 0 && ((s >= 0) != (frame[i - 1] >= 0))) {
+					crossings++;
+				}
+			}
+			samples += len;
+			double energyDb = 10 * Math.log10(sumSquares / (double) len / FULL_SCALE_SQUARED + 1e-10);
+			double zcr = len > 1 ? (double) crossings / (len - 1) : 0;
+
+			boolean speech = isSpeech(energyDb, zcr);
+			updateNoiseFloor(energyDb, speech);
+			advance(speech);
+			frameIndex++;
+		}
+
+		private boolean isSpeech(double energyDb, double zcr) {
+			if (Double.isNaN(noiseFloorDb)) {
+				noiseFloorDb = energyDb;
+			}
+			if (energyDb < settings.getAbsoluteFloorDb()) {
+				return false;
+			}
+			double aboveFloor = energyDb - noiseFloorDb;
+			if (aboveFloor >= settings.getEnergyThresholdDb()) {
+				return true;
+			}
+			return aboveFloor >= settings.getUnvoicedThresholdDb() && zcr >= settings.getMinZcr()
+					&& zcr <= settings.getMaxZcr();
+		}
+
+		private void updateNoiseFloor(double energyDb, boolean speech) {
+			// Giảm nhanh khi gặp frame yên tĩnh hơn, tăng chậm để không "nuốt" tiếng nói dài
+			if (energyDb < noiseFloorDb) {
+				noiseFloorDb = 0.7 * noiseFloorDb + 0.3 * energyDb;
+			} else if (!speech) {
+				noiseFloorDb = 0.98 * noiseFloorDb + 0.02 * energyDb;
+			} else {
+				noiseFloorDb += 0.001 * (energyDb - noiseFloorDb);
+			}
+		}
+
+		private void advance(boolean speech) {
+			if (speech) {
+				speechRun++;
+				silenceRun = 0;
+				if (spanStartFrame < 0 && speechRun >= onsetFrames) {
+					spanStartFrame = frameIndex - speechRun + 1;
+				}
+			} else {
+				speechRun = 0;
+				silenceRun++;
+				if (spanStartFrame >= 0 && silenceRun >= hangoverFrames) {
+					closeSpan(frameIndex - silenceRun + 1);
+				}
+			}
+		}
+
+		private void closeSpan(int endFrame) {
+			rawSpans.add(new SpeechSpan(spanStartFrame * frameMs, endFrame * frameMs));
+			spanStartFrame = -1;
+		}
+
+		Result finish() {
+			int totalMs = (int) (samples * 1000 / settings.getSampleRate());
+			if (spanStartFrame >= 0) {
+				closeSpan(frameIndex - silenceRun);
+			}
+			List<SpeechSpan> spans = new ArrayList<>(rawSpans.size());
+			int padding = settings.getPaddingMs();
+			for (SpeechSpan raw : rawSpans) {
+				int start = Math.max(0, raw.startMs() - padding);
+				int end = Math.min(totalMs, raw.endMs() + padding);
+				if (end <= start) {
+					continue;
+				}
+				SpeechSpan last = spans.isEmpty() ? null : spans.get(spans.size() - 1);
+				if (last != null && start <= last.endMs()) {
+					spans.set(spans.size() - 1, new SpeechSpan(last.startMs(), Math.max(last.endMs(), end)));
+				} else {
+					spans.add(new SpeechSpan(start, end));
+				}
+			}
+			spans.removeIf(span -> span.durationMs() < settings.getMinSpanMs());
+			return new Result(List.copyOf(spans), totalMs);
+		}
+	}
+}
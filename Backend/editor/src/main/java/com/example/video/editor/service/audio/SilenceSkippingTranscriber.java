@@ -0,0 +1,124 @@
+package com.example.video.editor.service.audio;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.video.editor.client.PythonTranscriptionClient;
+import com.example.video.editor.dto.SpeechClip;
+import com.example.video.editor.dto.TranscriptionRequest;
+import com.example.video.editor.dto.TranscriptionResponse;
+import com.example.video.editor.model.SrtSegment;
+import com.example.video.editor.service.progess.CancellationToken;
+import com.example.video.editor.service.subtitle.PackedSubtitleTrack;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Gọi Python API nhưng chỉ gửi các đoạn có tiếng nói. Whisper nhận audio đã cắt
+ * im lặng, timestamp trả về được ánh xạ ngược về timeline gốc bằng
+ * {@link TimestampRemapper}. Nếu VAD lỗi hoặc không tìm thấy đoạn nào thì
+ * transcribe toàn bộ như trước.
+ *
+ * <p>
+ * Python API cắt audio bằng bộ lọc aselect của FFmpeg, bộ lọc này giữ hoặc bỏ
+ * nguyên cả frame audio. Python chia lại audio thành frame
+ * {@value #CLIP_FRAME_MS} ms trước khi lọc, và ranh giới các đoạn gửi đi được
+ * làm tròn ra lưới {@value #CLIP_FRAME_MS} ms, nên timeline đã cắt khớp đúng
+ * với tổng độ dài các đoạn và phép ánh xạ ngược không bị trôi.
+ */
+@Service
+@RequiredArgsConstructor
+public class SilenceSkippingTranscriber {
+
+	// Phải khớp với asetnsamples trong translate_service/app/utils.py (320 mẫu ở 16 kHz)
+	static final int CLIP_FRAME_MS = 20;
+
+	private final PythonTranscriptionClient pythonTranscriptionClient;
+	private final SpeechDetectionService speechDetectionService;
+
+	@Value("${transcription.vad.enabled:true}")
+	private boolean vadEnabled;
+
+	// Tiếng nói chiếm quá tỉ lệ này thì cắt cũng không tiết kiệm được bao nhiêu
+	@Value("${transcription.vad.max-speech-ratio:0.9}")
+	private double maxSpeechRatio;
+
+	/**
+	 * Lời gọi Python API là HTTP blocking: khi task bị hủy, virtual thread chạy
+	 * task bị interrupt và socket đang chờ bị đóng, nên lời gọi dừng ngay.
+	 */
+	public List<SrtSegment> transcribe(TranscriptionRequest request, CancellationToken cancellationToken,
+			BiConsumer<Integer, String> progressCallback) {
+		EnergyVoiceActivityDetector.Result speech = vadEnabled
+				? detectSpeech(request.getUrl(), cancellationToken, progressCallback)
+				: null;
+		cancellationToken.throwIfCancelled();
+		// VAD không thấy tiếng nói thường là do tiếng nói nhỏ hoặc lẫn nhạc nền, nên
+		// transcribe toàn bộ thay vì trả về phụ đề rỗng
+		if (speech == null || speech.spans().isEmpty() || speech.speechRatio() > maxSpeechRatio) {
+			return segmentsOf(pythonTranscriptionClient.transcribe(request));
+		}
+
+		List<SpeechSpan> spans = alignToClipFrames(speech.spans());
+		List<SpeechClip> clips = new ArrayList<>(spans.size());
+		for (SpeechSpan span : spans) {
+			clips.add(new SpeechClip(span.startMs() / 1000.0, span.endMs() / 1000.0));
+		}
+		progressCallback.accept(12, String.format("Bỏ qua %d giây im lặng, transcribe %d đoạn có tiếng nói",
+				(speech.totalMs() - speech.speechMs()) / 1000, clips.size()));
+
+		TranscriptionRequest clipped = new TranscriptionRequest();
+		clipped.setUrl(request.getUrl());
+		clipped.setLanguage(request.getLanguage());
+		clipped.setTranslate(request.isTranslate());
+		clipped.setClips(clips);
+		List<SrtSegment> segments = segmentsOf(pythonTranscriptionClient.transcribe(clipped));
+		if (segments.isEmpty()) {
+			return segments;
+		}
+		TimestampRemapper remapper = new TimestampRemapper(spans);
+		return remapper.remap(PackedSubtitleTrack.fromSrtSegments(segments)).toSrtSegments();
+	}
+
+	private EnergyVoiceActivityDetector.Result detectSpeech(String url, CancellationToken cancellationToken,
+			BiConsumer<Integer, String> progressCallback) {
+		progressCallback.accept(8, "Đang tìm các đoạn có tiếng nói");
+		try {
+			return speechDetectionService.detect(url, cancellationToken);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return null;
+		} catch (Exception e) {
+			System.err.println("VAD failed, transcribing full audio: " + e.getMessage());
+			return null;
+		}
+	}
+
+	/**
+	 * Mở rộng mỗi đoạn ra lưới {@link #CLIP_FRAME_MS}: đầu đoạn làm tròn xuống,
+	 * cuối đoạn làm tròn lên, các đoạn chạm nhau sau khi làm tròn được gộp lại.
+	 */
+	static List<SpeechSpan> alignToClipFrames(List<SpeechSpan> spans) {
+		List<SpeechSpan> aligned = new ArrayList<>(spans.size());
+		for (SpeechSpan span : spans) {
+			int start = span.startMs() / CLIP_FRAME_MS * CLIP_FRAME_MS;
+			int end = (span.endMs() + CLIP_FRAME_MS - 1) / CLIP_FRAME_MS * CLIP_FRAME_MS;
+			int last = aligned.size() - 1;
+			if (last >= 0 && start <= aligned.get(last).endMs()) {
+				SpeechSpan previous = aligned.get(last);
+				aligned.set(last, new SpeechSpan(previous.startMs(), Math.max(previous.endMs(), end)));
+			} else {
+				aligned.add(new SpeechSpan(start, end));
+			}
+		}
+		return aligned;
+	}
+
+	private static List<SrtSegment> segmentsOf(TranscriptionResponse response) {
+		return response == null || response.getSrt() == null ? List.of() : response.getSrt();
+	}
+}
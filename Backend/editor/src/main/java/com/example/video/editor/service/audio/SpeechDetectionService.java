@@ -0,0 +1,40 @@
+package com.example.video.editor.service.audio;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.springframework.stereotype.Service;
+
+import com.example.video.editor.service.progess.CancellationToken;
+
+/**
+ * Tách audio bằng FFmpeg thành PCM 16 kHz mono (cùng định dạng Whisper dùng) và
+ * chạy {@link EnergyVoiceActivityDetector} trực tiếp trên stdout của FFmpeg.
+ */
+@Service
+public class SpeechDetectionService {
+
+	private final EnergyVoiceActivityDetector detector = new EnergyVoiceActivityDetector();
+
+	public EnergyVoiceActivityDetector.Result detect(String url, CancellationToken cancellationToken)
+			throws IOException, InterruptedException {
+		ProcessBuilder pb = new ProcessBuilder("ffmpeg", "-nostdin", "-v", "error", "-i", url, "-vn", "-ac", "1", "-ar",
+				String.valueOf(detector.getSettings().getSampleRate()), "-f", "s16le", "-");
+		// stderr không được đọc nên bỏ đi để FFmpeg không bị block khi buffer đầy
+		pb.redirectError(ProcessBuilder.Redirect.DISCARD);
+		Process process = pb.start();
+		EnergyVoiceActivityDetector.Result result;
+		try (CancellationToken.Registration kill = cancellationToken.onCancel(process::destroyForcibly);
+				InputStream pcm = process.getInputStream()) {
+			result = detector.detect(pcm);
+		} catch (IOException e) {
+			process.destroyForcibly();
+			throw e;
+		}
+		int exitCode = process.waitFor();
+		if (exitCode != 0) {
+			throw new IOException("FFmpeg audio extraction failed with exit code " + exitCode);
+		}
+		return result;
+	}
+}
@@ -0,0 +1,15 @@
+package com.example.video.editor.service.audio;
+
+/** Một đoạn có tiếng nói trên timeline gốc, [startMs, endMs). */
+public record SpeechSpan(int startMs, int endMs) {
+
+	public SpeechSpan {
+		if (startMs < 0 || endMs < startMs) {
+			throw new IllegalArgumentException("Invalid speech span: " + startMs + " -> " + endMs);
+		}
+	}
+
+	public int durationMs() {
+		return endMs - startMs;
+	}
+}
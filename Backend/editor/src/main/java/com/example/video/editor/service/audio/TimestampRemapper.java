@@ -0,0 +1,80 @@
+package com.example.video.editor.service.audio;
+
+import java.util.List;
+
+import com.example.video.editor.service.subtitle.PackedSubtitleTrack;
+
+/**
+ * Bảng ánh xạ từ timeline đã cắt im lặng (các đoạn tiếng nói nối liền nhau) về
+ * timeline gốc của video. Đoạn thứ i bắt đầu tại packedStart[i] trên timeline
+ * đã cắt và tại originalStart[i] trên timeline gốc.
+ */
+public final class TimestampRemapper {
+
+	private final int[] packedStart;
+	private final int[] originalStart;
+	private final int[] length;
+
+	public TimestampRemapper(List<SpeechSpan> spans) {
+		int n = spans.size();
+		packedStart = new int[n];
+		originalStart = new int[n];
+		length = new int[n];
+		int offset = 0;
+		int previousEnd = 0;
+		for (int i = 0; i < n; i++) {
+			SpeechSpan span = spans.get(i);
+			if (span.startMs() < previousEnd) {
+				throw new IllegalArgumentException("Speech spans must be sorted and non-overlapping");
+			}
+			packedStart[i] = offset;
+			originalStart[i] = span.startMs();
+			length[i] = span.durationMs();
+			offset += length[i];
+			previousEnd = span.endMs();
+		}
+	}
+
+	/** Tổng độ dài audio gửi đi transcribe. */
+	public int packedDurationMs() {
+		return length.length == 0 ? 0 : packedStart[length.length - 1] + length[length.length - 1];
+	}
+
+	/**
+	 * Chuyển mốc thời gian trên timeline đã cắt về timeline gốc. Mốc kết thúc
+	 * đúng tại ranh giới hai đoạn được gán về cuối đoạn trước, mốc bắt đầu được
+	 * gán về đầu đoạn sau.
+	 */
+	public int toOriginalMs(int packedMs, boolean isEnd) {
+		int n = length.length;
+		if (n == 0) {
+			return packedMs;
+		}
+		int lo = 0;
+		int hi = n - 1;
+		while (lo < hi) {
+			int mid = (lo + hi + 1) >>> 1;
+			if (packedStart[mid] < packedMs || (!isEnd && packedStart[mid] == packedMs)) {
+				lo = mid;
+			} else {
+				hi = mid - 1;
+			}
+		}
+		int within = Math.max(0, packedMs - packedStart[lo]);
+		if (lo < n - 1) {
+			within = Math.min(within, length[lo]);
+		}
+		return originalStart[lo] + within;
+	}
+
+	public PackedSubtitleTrack remap(PackedSubtitleTrack track) {
+		PackedSubtitleTrack.Builder builder = PackedSubtitleTrack.builder(track.size());
+		byte[] pool = track.textPool();
+		for (int i = 0; i < track.size(); i++) {
+			int start = toOriginalMs(track.startMs(i), false);
+			int end = Math.max(start, toOriginalMs(track.endMs(i), true));
+			builder.addUtf8(start, end, pool, track.textOffset(i), track.textLength(i));
+		}
+		return builder.build();
+	}
+}
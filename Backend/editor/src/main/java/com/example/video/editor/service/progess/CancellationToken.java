@@ -0,0 +1,120 @@
+package com.example.video.editor.service.progess;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.example.video.editor.exception.TaskCancelledException;
+
+/**
+ * Tín hiệu hủy truyền vào {@link ProgressTask}. Task kiểm tra
+ * {@link #throwIfCancelled()} giữa các bước và đăng ký hành động dừng tài
+ * nguyên đang chạy (process FFmpeg, kết nối HTTP) bằng {@link #onCancel}.
+ * Khi hủy, thread đang chạy task cũng bị interrupt: với virtual thread, việc
+ * này đóng luôn socket đang chờ nên lời gọi HTTP blocking bị hủy theo.
+ */
+public class CancellationToken {
+
+	private final String taskId;
+	private final ReentrantLock lock = new ReentrantLock();
+	private final List<Runnable> callbacks = new ArrayList<>();
+	private volatile boolean cancelled;
+	private Thread boundThread;
+
+	public CancellationToken(String taskId) {
+		this.taskId = taskId;
+	}
+
+	/** Token không bao giờ bị hủy, dùng khi gọi task ngoài hàng đợi. */
+	public static CancellationToken none() {
+		return new CancellationToken(null);
+	}
+
+	public boolean isCancelled() {
+		return cancelled;
+	}
+
+	public void throwIfCancelled() {
+		if (cancelled) {
+			throw new TaskCancelledException(taskId);
+		}
+	}
+
+	/**
+	 * Đăng ký hành động chạy khi task bị hủy; chạy ngay nếu đã hủy. Gọi
+	 * {@link Registration#close()} khi tài nguyên không còn dùng nữa.
+	 */
+	public Registration onCancel(Runnable callback) {
+		lock.lock();
+		try {
+			if (!cancelled) {
+				callbacks.add(callback);
+				return () -> {
+					lock.lock();
+					try {
+						callbacks.remove(callback);
+					} finally {
+						lock.unlock();
+					}
+				};
+			}
+		} finally {
+			lock.unlock();
+		}
+		callback.run();
+		return () -> {
+		};
+	}
+
+	/** Hủy task: chạy các callback đã đăng ký và interrupt thread đang chạy task. */
+	public void cancel() {
+		List<Runnable> toRun;
+		lock.lock();
+		try {
+			if (cancelled) {
+				return;
+			}
+			cancelled = true;
+			toRun = new ArrayList<>(callbacks);
+			callbacks.clear();
+			if (boundThread != null) {
+				boundThread.interrupt();
+			}
+		} finally {
+			lock.unlock();
+		}
+		for (Runnable callback : toRun) {
+			try {
+				callback.run();
+			} catch (RuntimeException e) {
+				System.err.println("Cancel callback failed for task " + taskId + ": " + e.getMessage());
+			}
+		}
+	}
+
+	void bindThread(Thread thread) {
+		lock.lock();
+		try {
+			boundThread = thread;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/** Bỏ liên kết thread và xóa cờ interrupt để thread của pool không mang theo sang task sau. */
+	void unbindThread() {
+		lock.lock();
+		try {
+			boundThread = null;
+			Thread.interrupted();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@FunctionalInterface
+	public interface Registration extends AutoCloseable {
+		@Override
+		void close();
+	}
+}
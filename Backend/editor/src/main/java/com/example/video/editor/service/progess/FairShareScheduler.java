@@ -0,0 +1,121 @@
+package com.example.video.editor.service.progess;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.video.editor.model.AccountTier;
+import com.example.video.editor.repository.TaskJobRepository.ClaimableJob;
+
+/**
+ * Quyết định thứ tự chạy của các job đang chờ.
+ * <ul>
+ * <li>Lớp ưu tiên theo {@link AccountTier}: PREMIUM trước PRO, BASIC, FREE. Job
+ * chờ quá {@code task.scheduling.aging-seconds} được nâng lên một lớp cho mỗi
+ * khoảng đó, nên job FREE không bị bỏ đói.</li>
+ * <li>Trong một lớp: weighted fair queuing giữa người dùng, người có ít job
+ * đang chạy nhất (chia cho trọng số = giới hạn của gói) được chọn trước, job cũ
+ * nhất của người đó chạy trước.</li>
+ * <li>Mỗi người dùng chỉ được chạy tối đa {@code task.scheduling.max-running.*}
+ * job cùng lúc trên toàn cluster.</li>
+ * </ul>
+ */
+@Component
+public class FairShareScheduler {
+
+	private final Map<AccountTier, Integer> maxRunning = new EnumMap<>(AccountTier.class);
+	private final int anonymousMaxRunning;
+	private final Duration aging;
+
+	public FairShareScheduler(@Value("${task.scheduling.max-running.free:1}") int free,
+			@Value("${task.scheduling.max-running.basic:2}") int basic,
+			@Value("${task.scheduling.max-running.pro:4}") int pro,
+			@Value("${task.scheduling.max-running.premium:8}") int premium,
+			@Value("${task.scheduling.max-running.anonymous:2}") int anonymous,
+			@Value("${task.scheduling.aging-seconds:300}") long agingSeconds) {
+		maxRunning.put(AccountTier.FREE, free);
+		maxRunning.put(AccountTier.BASIC, basic);
+		maxRunning.put(AccountTier.PRO, pro);
+		maxRunning.put(AccountTier.PREMIUM, premium);
+		this.anonymousMaxRunning = anonymous;
+		this.aging = Duration.ofSeconds(Math.max(1, agingSeconds));
+	}
+
+	/** Số job tối đa một người dùng được chạy cùng lúc (mọi job ẩn danh dùng chung một giới hạn). */
+	public int maxRunning(Long ownerId, AccountTier tier) {
+		if (ownerId == null) {
+			return anonymousMaxRunning;
+		}
+		return maxRunning.get(tier == null ? AccountTier.FREE : tier);
+	}
+
+	/**
+	 * Sắp xếp job theo thứ tự sẽ được chạy.
+	 *
+	 * @param running số job đang chạy của từng ownerId (key null: ẩn danh)
+	 */
+	public List<ClaimableJob> order(List<ClaimableJob> candidates, Map<Long, Integer> running, LocalDateTime now) {
+		// Lớp ưu tiên (cao -> thấp) -> ownerId -> job của người đó theo thời gian submit
+		TreeMap<Integer, Map<Long, Deque<ClaimableJob>>> classes = new TreeMap<>(Comparator.reverseOrder());
+		List<ClaimableJob> byAge = new ArrayList<>(candidates);
+		byAge.sort(Comparator.comparing(ClaimableJob::getCreatedAt));
+		for (ClaimableJob job : byAge) {
+			classes.computeIfAbsent(effectivePriority(job, now), key -> new LinkedHashMap<>())
+					.computeIfAbsent(job.getOwnerId(), key -> new ArrayDeque<>()).add(job);
+		}
+
+		Map<Long, Integer> inFlight = new HashMap<>(running);
+		List<ClaimableJob> ordered = new ArrayList<>(candidates.size());
+		for (Map<Long, Deque<ClaimableJob>> owners : classes.values()) {
+			while (!owners.isEmpty()) {
+				Map.Entry<Long, Deque<ClaimableJob>> next = null;
+				for (Map.Entry<Long, Deque<ClaimableJob>> entry : owners.entrySet()) {
+					if (next == null || isFairerChoice(entry, next, inFlight)) {
+						next = entry;
+					}
+				}
+				ClaimableJob job = next.getValue().poll();
+				ordered.add(job);
+				inFlight.merge(next.getKey(), 1, Integer::sum);
+				if (next.getValue().isEmpty()) {
+					owners.remove(next.getKey());
+				}
+			}
+		}
+		return ordered;
+	}
+
+	private int effectivePriority(ClaimableJob job, LocalDateTime now) {
+		AccountTier tier = job.getAccountTier() == null ? AccountTier.FREE : job.getAccountTier();
+		long waited = Duration.between(job.getCreatedAt(), now).toMillis();
+		long boost = waited <= 0 ? 0 : waited / aging.toMillis();
+		return (int) Math.min(AccountTier.PREMIUM.ordinal(), tier.ordinal() + boost);
+	}
+
+	// So sánh inFlight/trọng số bằng phép nhân chéo; hòa thì job cũ hơn được chọn
+	private boolean isFairerChoice(Map.Entry<Long, Deque<ClaimableJob>> candidate,
+			Map.Entry<Long, Deque<ClaimableJob>> current, Map<Long, Integer> inFlight) {
+		ClaimableJob candidateHead = candidate.getValue().peek();
+		ClaimableJob currentHead = current.getValue().peek();
+		long candidateLoad = (long) inFlight.getOrDefault(candidate.getKey(), 0)
+				* maxRunning(current.getKey(), currentHead.getAccountTier());
+		long currentLoad = (long) inFlight.getOrDefault(current.getKey(), 0)
+				* maxRunning(candidate.getKey(), candidateHead.getAccountTier());
+		if (candidateLoad != currentLoad) {
+			return candidateLoad < currentLoad;
+		}
+		return candidateHead.getCreatedAt().isBefore(currentHead.getCreatedAt());
+	}
+}
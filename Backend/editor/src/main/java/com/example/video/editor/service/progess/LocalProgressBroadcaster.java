@@ -0,0 +1,22 @@
+package com.example.video.editor.service.progess;
+
+import java.util.Map;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+/** Chỉ gửi vào simple broker của instance hiện tại (chạy một instance). */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "task.progress.relay", havingValue = "local", matchIfMissing = true)
+public class LocalProgressBroadcaster implements ProgressBroadcaster {
+	private final SimpMessagingTemplate messagingTemplate;
+
+	@Override
+	public void broadcast(String taskId, Map<String, Object> event) {
+		messagingTemplate.convertAndSend(TOPIC_PREFIX + taskId, event);
+	}
+}
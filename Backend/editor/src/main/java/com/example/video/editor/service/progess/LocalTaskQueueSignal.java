@@ -0,0 +1,14 @@
+package com.example.video.editor.service.progess;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/** Chạy một instance: không có ai để báo, job chờ được nhận khi có slot trống. */
+@Component
+@ConditionalOnProperty(name = "task.queue.signal", havingValue = "local", matchIfMissing = true)
+public class LocalTaskQueueSignal implements TaskQueueSignal {
+
+	@Override
+	public void jobsWaiting() {
+	}
+}
@@ -0,0 +1,13 @@
+package com.example.video.editor.service.progess;
+
+import java.util.Map;
+
+/**
+ * Đưa event progress đến client đang subscribe /topic/progress/{taskId}, dù
+ * client kết nối vào instance nào.
+ */
+public interface ProgressBroadcaster {
+	String TOPIC_PREFIX = "/topic/progress/";
+
+	void broadcast(String taskId, Map<String, Object> event);
+}
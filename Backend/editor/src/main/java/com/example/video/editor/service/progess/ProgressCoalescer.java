@@ -0,0 +1,180 @@
+package com.example.video.editor.service.progess;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Gộp event progress theo từng task: chỉ giữ trạng thái mới nhất và gửi tối đa
+ * {@code task.progress.max-rate-hz} lần mỗi giây. Event kết quả (partial,
+ * complete, error) được gửi ngay, sau khi đã gửi progress còn treo, nên client
+ * luôn nhận đúng thứ tự. Task đã gửi event cuối được nhớ thêm một thời gian
+ * ({@code task.progress.finished-ttl}) để progress đến muộn bị bỏ thay vì gửi
+ * RUNNING sau COMPLETE.
+ */
+@Component
+public class ProgressCoalescer {
+
+	private final ProgressBroadcaster broadcaster;
+	private final TaskStatusStore taskStatusStore;
+	private final long minIntervalNanos;
+	private final Map<String, TaskState> states = new ConcurrentHashMap<>();
+	private final Cache<String, Boolean> finished;
+	private final ScheduledExecutorService flusher = Executors
+			.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("progress-flush").daemon().factory());
+
+	public ProgressCoalescer(ProgressBroadcaster broadcaster, TaskStatusStore taskStatusStore,
+			@Value("${task.progress.max-rate-hz:4}") double maxRateHz,
+			@Value("${task.progress.finished-ttl:PT5M}") Duration finishedTtl) {
+		this.broadcaster = broadcaster;
+		this.taskStatusStore = taskStatusStore;
+		this.minIntervalNanos = maxRateHz > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / maxRateHz) : 0;
+		this.finished = Caffeine.newBuilder().maximumSize(100_000).expireAfterWrite(finishedTtl).build();
+	}
+
+	/** Event progress: gửi ngay nếu đã đủ khoảng cách, nếu không thì thay thế event đang chờ. */
+	public void progress(String taskId, Map<String, Object> payload) {
+		TaskState state = states.computeIfAbsent(taskId, id -> new TaskState());
+		state.lock.lock();
+		try {
+			if (isFinished(taskId, state)) {
+				// Task đã gửi event cuối, progress đến muộn không còn ý nghĩa
+				return;
+			}
+			long now = System.nanoTime();
+			long nextAllowed = state.lastSentNanos + minIntervalNanos;
+			if (state.pending == null && (!state.sentAny || now - nextAllowed >= 0)) {
+				send(taskId, state, payload, now);
+				return;
+			}
+			state.pending = payload;
+			if (!state.flushScheduled) {
+				state.flushScheduled = true;
+				flusher.schedule(() -> flush(taskId, state), Math.max(0, nextAllowed - now), TimeUnit.NANOSECONDS);
+			}
+		} finally {
+			state.lock.unlock();
+		}
+	}
+
+	/** Event không được gộp (partial result). Progress đang chờ được gửi trước. */
+	public void publishNow(String taskId, Map<String, Object> payload) {
+		TaskState state = states.computeIfAbsent(taskId, id -> new TaskState());
+		state.lock.lock();
+		try {
+			if (isFinished(taskId, state)) {
+				return;
+			}
+			sendPending(taskId, state);
+			send(taskId, state, payload, System.nanoTime());
+		} finally {
+			state.lock.unlock();
+		}
+	}
+
+	/**
+	 * Event cuối (complete/error): gửi progress còn treo, gửi event rồi bỏ trạng
+	 * thái của task. Task được đánh dấu đã kết thúc trước khi bỏ trạng thái, nên
+	 * event đến muộn tạo lại trạng thái mới vẫn thấy dấu này.
+	 */
+	public void publishFinal(String taskId, Map<String, Object> payload) {
+		finished.put(taskId, Boolean.TRUE);
+		TaskState state = states.remove(taskId);
+		if (state == null) {
+			publish(taskId, payload);
+			return;
+		}
+		state.lock.lock();
+		try {
+			state.closed = true;
+			sendPending(taskId, state);
+			publish(taskId, payload);
+		} finally {
+			state.lock.unlock();
+		}
+	}
+
+	/** Task kết thúc mà không có event cuối (ví dụ chờ retry): gửi nốt progress còn treo. */
+	public void release(String taskId) {
+		TaskState state = states.remove(taskId);
+		if (state == null) {
+			return;
+		}
+		state.lock.lock();
+		try {
+			state.closed = true;
+			sendPending(taskId, state);
+		} finally {
+			state.lock.unlock();
+		}
+	}
+
+	// Gọi khi đang giữ lock của state; state tạo lại sau event cuối thì bỏ khỏi map
+	private boolean isFinished(String taskId, TaskState state) {
+		if (state.closed) {
+			return true;
+		}
+		if (finished.getIfPresent(taskId) == null) {
+			return false;
+		}
+		state.closed = true;
+		states.remove(taskId, state);
+		return true;
+	}
+
+	private void flush(String taskId, TaskState state) {
+		state.lock.lock();
+		try {
+			state.flushScheduled = false;
+			sendPending(taskId, state);
+		} finally {
+			state.lock.unlock();
+		}
+	}
+
+	private void sendPending(String taskId, TaskState state) {
+		if (state.pending != null) {
+			Map<String, Object> payload = state.pending;
+			state.pending = null;
+			send(taskId, state, payload, System.nanoTime());
+		}
+	}
+
+	private void send(String taskId, TaskState state, Map<String, Object> payload, long now) {
+		state.lastSentNanos = now;
+		state.sentAny = true;
+		publish(taskId, payload);
+	}
+
+	// Snapshot được cập nhật theo đúng các event thực sự gửi đi (đã qua gộp)
+	private void publish(String taskId, Map<String, Object> payload) {
+		taskStatusStore.record(taskId, payload);
+		broadcaster.broadcast(taskId, payload);
+	}
+
+	@PreDestroy
+	void shutdown() {
+		flusher.shutdownNow();
+	}
+
+	private static final class TaskState {
+		private final ReentrantLock lock = new ReentrantLock();
+		private long lastSentNanos;
+		private boolean sentAny;
+		private boolean closed;
+		private Map<String, Object> pending;
+		private boolean flushScheduled;
+	}
+}
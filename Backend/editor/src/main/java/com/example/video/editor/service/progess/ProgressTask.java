@@ -2,11 +2,81 @@ package com.example.video.editor.service.progess;
 
 import java.util.function.BiConsumer;
 
-public abstract class ProgressTask {
+import org.springframework.beans.factory.BeanNameAware;
+import org.springframework.beans.factory.annotation.Autowired;
 
-	protected abstract void executeTask(BiConsumer<Integer, String> progressCallback,
+public abstract class ProgressTask implements BeanNameAware {
+
+	// Tên bean, cũng là task_type của job và tag task_type của metric
+	private String taskType;
+	private TaskMetrics taskMetrics;
+
+	@Override
+	public void setBeanName(String name) {
+		this.taskType = name;
+	}
+
+	@Autowired(required = false)
+	void setTaskMetrics(TaskMetrics taskMetrics) {
+		this.taskMetrics = taskMetrics;
+	}
+
+	protected final String taskType() {
+		return taskType != null ? taskType : getClass().getSimpleName();
+	}
+
+	/** Chạy một bước (download, encode, upload, db_save...) và ghi thời gian vào metric editor.task.stage. */
+	protected final <T, E extends Exception> T timed(String stage, TaskMetrics.StageWork<T, E> work) throws E {
+		if (taskMetrics == null) {
+			return work.run();
+		}
+		return taskMetrics.timeStage(taskType(), stage, work);
+	}
+
+	protected final void recordBytes(String direction, long bytes) {
+		if (taskMetrics != null) {
+			taskMetrics.recordBytes(taskType(), direction, bytes);
+		}
+	}
+
+	protected final void recordFfmpegSpeed(double speed) {
+		if (taskMetrics != null) {
+			taskMetrics.recordFfmpegSpeed(taskType(), speed);
+		}
+	}
+
+	/**
+	 * Chạy task. cancellationToken bị hủy khi client gọi DELETE
+	 * /api/tasks/{taskId}; task dừng càng sớm càng tốt và dọn file tạm.
+	 */
+	protected abstract void executeTask(CancellationToken cancellationToken,
+			BiConsumer<Integer, String> progressCallback, BiConsumer<Object, String> completeCallback,
+			BiConsumer<String, String> errorCallback, Object... params) throws Exception;
+
+	/**
+	 * Task có kết quả từng phần (ví dụ mỗi ngôn ngữ dịch xong) override method này
+	 * và gọi partialResultCallback(key, result) ngay khi có phần kết quả.
+	 */
+	protected void executeWithPartialResults(CancellationToken cancellationToken,
+			BiConsumer<Integer, String> progressCallback, BiConsumer<String, Object> partialResultCallback,
 			BiConsumer<Object, String> completeCallback, BiConsumer<String, String> errorCallback, Object... params)
-			throws Exception;
+			throws Exception {
+		executeTask(cancellationToken, progressCallback, completeCallback, errorCallback, params);
+	}
+
+	/**
+	 * Fingerprint của công việc mà params mô tả. Hai lần submit có cùng
+	 * fingerprint trong lúc task đầu còn chạy sẽ dùng chung một taskId thay vì
+	 * chạy lại. Trả về null (mặc định) để không gộp.
+	 */
+	protected String fingerprint(Object... params) {
+		return null;
+	}
+
+	/** Task mặc định là I/O-bound; task encode/transcode override thành CPU_BOUND. */
+	protected TaskKind kind() {
+		return TaskKind.IO_BOUND;
+	}
 
 	protected Object[] getParams() {
 		return new Object[0];
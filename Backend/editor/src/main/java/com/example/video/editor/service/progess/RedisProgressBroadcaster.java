@@ -0,0 +1,56 @@
+package com.example.video.editor.service.progess;
+
+import java.util.Map;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Relay qua Redis pub/sub: event được publish lên một channel chung, mọi
+ * instance (kể cả instance gửi) nhận lại và đẩy vào simple broker của mình. Vì
+ * vậy client kết nối vào instance nào cũng nhận được progress, không cần sticky
+ * session.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "task.progress.relay", havingValue = "redis")
+public class RedisProgressBroadcaster implements ProgressBroadcaster, MessageListener {
+	public static final String CHANNEL = "editor:task-progress";
+
+	private final StringRedisTemplate redisTemplate;
+	private final SimpMessagingTemplate messagingTemplate;
+	private final ObjectMapper objectMapper;
+
+	@Override
+	public void broadcast(String taskId, Map<String, Object> event) {
+		try {
+			String message = objectMapper.writeValueAsString(Map.of("taskId", taskId, "event", event));
+			redisTemplate.convertAndSend(CHANNEL, message);
+		} catch (Exception e) {
+			// Redis lỗi thì ít nhất client trên instance này vẫn nhận được
+			log.warn("Cannot relay progress through Redis: {}", e.getMessage());
+			messagingTemplate.convertAndSend(TOPIC_PREFIX + taskId, event);
+		}
+	}
+
+	@Override
+	public void onMessage(Message message, byte[] pattern) {
+		try {
+			JsonNode relayed = objectMapper.readTree(message.getBody());
+			messagingTemplate.convertAndSend(TOPIC_PREFIX + relayed.get("taskId").asText(), relayed.get("event"));
+		} catch (Exception e) {
+			log.warn("Invalid relayed progress message: {}", e.getMessage());
+		}
+	}
+}
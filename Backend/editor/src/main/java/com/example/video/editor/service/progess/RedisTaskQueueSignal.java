@@ -0,0 +1,48 @@
+package com.example.video.editor.service.progess;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Đánh thức các instance khác qua Redis pub/sub. Bản thân job vẫn nằm trong
+ * bảng task_jobs (claim bằng lease), message chỉ là tín hiệu "có việc": mất
+ * message thì job vẫn được nhận ở lần poll sau.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "task.queue.signal", havingValue = "redis")
+public class RedisTaskQueueSignal implements TaskQueueSignal, MessageListener {
+	public static final String CHANNEL = "editor:task-queue";
+
+	private final StringRedisTemplate redisTemplate;
+	private final ApplicationEventPublisher eventPublisher;
+	// Bỏ qua tín hiệu do chính instance này gửi
+	private final String nodeId = UUID.randomUUID().toString();
+
+	@Override
+	public void jobsWaiting() {
+		try {
+			redisTemplate.convertAndSend(CHANNEL, nodeId);
+		} catch (Exception e) {
+			log.warn("Cannot signal waiting jobs through Redis: {}", e.getMessage());
+		}
+	}
+
+	@Override
+	public void onMessage(Message message, byte[] pattern) {
+		if (!nodeId.equals(new String(message.getBody(), StandardCharsets.UTF_8))) {
+			eventPublisher.publishEvent(new TaskQueueWakeupEvent());
+		}
+	}
+}
@@ -0,0 +1,92 @@
+package com.example.video.editor.service.progess;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Nơi giữ tham số nhị phân của job (file video upload...) ngoài bảng task_jobs:
+ * payload chỉ lưu id của blob. Mỗi blob là một file trong task.queue.blob-dir;
+ * khi chạy nhiều instance thư mục này phải là volume dùng chung để instance
+ * nào claim job cũng đọc được. Vì vậy khi bật task.queue.signal=redis hoặc
+ * task.progress.relay=redis (chạy nhiều instance) mà không khai báo blob-dir,
+ * ứng dụng không khởi động thay vì để job fail với INVALID_PAYLOAD trên
+ * instance khác.
+ */
+@Component
+public class TaskBlobStore {
+
+	private static final String REDIS = "redis";
+
+	private final Path directory;
+
+	public TaskBlobStore(@Value("${task.queue.blob-dir:}") String blobDir,
+			@Value("${task.queue.signal:local}") String queueSignal,
+			@Value("${task.progress.relay:local}") String progressRelay) throws IOException {
+		if (blobDir.isBlank() && (REDIS.equals(queueSignal) || REDIS.equals(progressRelay))) {
+			throw new IllegalStateException("task.queue.blob-dir must point to a directory shared by all instances"
+					+ " when task.queue.signal or task.progress.relay is 'redis': any instance may claim a job"
+					+ " and must be able to read its uploaded file");
+		}
+		this.directory = blobDir.isBlank() ? Path.of(System.getProperty("java.io.tmpdir"), "editor-task-blobs")
+				: Path.of(blobDir);
+		Files.createDirectories(directory);
+	}
+
+	public String put(byte[] bytes) {
+		String id = UUID.randomUUID().toString();
+		try {
+			Files.write(directory.resolve(id), bytes);
+		} catch (IOException e) {
+			throw new UncheckedIOException("Cannot spool task blob " + id, e);
+		}
+		return id;
+	}
+
+	/** @throws IllegalArgumentException blob không tồn tại (đã bị dọn) hoặc id không hợp lệ */
+	public byte[] get(String id) {
+		try {
+			return Files.readAllBytes(pathOf(id));
+		} catch (NoSuchFileException e) {
+			throw new IllegalArgumentException("Task blob not found: " + id);
+		} catch (IOException e) {
+			throw new UncheckedIOException("Cannot read task blob " + id, e);
+		}
+	}
+
+	public void delete(String id) {
+		try {
+			Files.deleteIfExists(pathOf(id));
+		} catch (IOException | IllegalArgumentException e) {
+			System.err.println("Cannot delete task blob " + id + ": " + e.getMessage());
+		}
+	}
+
+	/** Dọn blob mồ côi (job đã bị purge, instance chết giữa chừng...). */
+	public int deleteOlderThan(Instant cutoff) {
+		int deleted = 0;
+		try (Stream<Path> files = Files.list(directory)) {
+			for (Path file : (Iterable<Path>) files::iterator) {
+				if (Files.getLastModifiedTime(file).toInstant().isBefore(cutoff) && Files.deleteIfExists(file)) {
+					deleted++;
+				}
+			}
+		} catch (IOException e) {
+			System.err.println("Cannot purge task blobs: " + e.getMessage());
+		}
+		return deleted;
+	}
+
+	// Id luôn là UUID do put() sinh ra, không cho payload trỏ ra ngoài thư mục
+	private Path pathOf(String id) {
+		return directory.resolve(UUID.fromString(id).toString());
+	}
+}
@@ -0,0 +1,46 @@
+package com.example.video.editor.service.progess;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Executor cho ProgressTask theo {@link TaskKind}: task I/O chạy mỗi task một
+ * virtual thread, task CPU chạy trên một pool platform thread cố định để số
+ * FFmpeg encode song song không vượt quá số core.
+ */
+@Component
+public class TaskExecutors {
+
+	private final ExecutorService ioExecutor = Executors
+			.newThreadPerTaskExecutor(Thread.ofVirtual().name("task-io-", 0).factory());
+	private final ThreadPoolExecutor cpuExecutor;
+
+	public TaskExecutors(@Value("${task.cpu-pool-size:0}") int cpuPoolSize) {
+		int size = cpuPoolSize > 0 ? cpuPoolSize : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+		this.cpuExecutor = new ThreadPoolExecutor(size, size, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+				Thread.ofPlatform().name("task-cpu-", 0).factory());
+	}
+
+	public ExecutorService forKind(TaskKind kind) {
+		return kind == TaskKind.CPU_BOUND ? cpuExecutor : ioExecutor;
+	}
+
+	/** Số task CPU được chạy cùng lúc. */
+	public int cpuPoolSize() {
+		return cpuExecutor.getMaximumPoolSize();
+	}
+
+	@PreDestroy
+	void shutdown() {
+		ioExecutor.shutdownNow();
+		cpuExecutor.shutdownNow();
+	}
+}
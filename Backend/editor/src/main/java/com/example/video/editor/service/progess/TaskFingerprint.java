@@ -0,0 +1,48 @@
+package com.example.video.editor.service.progess;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Tạo fingerprint SHA-256 từ các tham số của task. Mỗi phần được ghi kèm độ dài
+ * nên ("ab", "c") và ("a", "bc") cho kết quả khác nhau; byte[] được hash theo
+ * nội dung.
+ */
+public final class TaskFingerprint {
+
+	private TaskFingerprint() {
+	}
+
+	public static String of(Object... parts) {
+		MessageDigest digest = sha256();
+		for (Object part : parts) {
+			byte[] bytes;
+			if (part == null) {
+				digest.update((byte) 0);
+				continue;
+			} else if (part instanceof byte[] raw) {
+				bytes = raw;
+			} else {
+				bytes = part.toString().getBytes(StandardCharsets.UTF_8);
+			}
+			digest.update((byte) 1);
+			digest.update(intBytes(bytes.length));
+			digest.update(bytes);
+		}
+		return HexFormat.of().formatHex(digest.digest());
+	}
+
+	private static byte[] intBytes(int value) {
+		return new byte[] { (byte) (value >>> 24), (byte) (value >>> 16), (byte) (value >>> 8), (byte) value };
+	}
+
+	private static MessageDigest sha256() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
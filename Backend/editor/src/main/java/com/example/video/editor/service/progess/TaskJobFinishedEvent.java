@@ -0,0 +1,8 @@
+package com.example.video.editor.service.progess;
+
+/**
+ * Một lần chạy của job đã kết thúc (thành công, lỗi, bị hủy hoặc chờ retry).
+ * Listener đọc trạng thái thật của job từ DB.
+ */
+public record TaskJobFinishedEvent(String taskId) {
+}
@@ -0,0 +1,214 @@
+package com.example.video.editor.service.progess;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import com.example.video.editor.model.TaskJob;
+import com.example.video.editor.model.TaskJobStatus;
+import com.example.video.editor.model.TaskJobSubscriber;
+import com.example.video.editor.repository.TaskJobRepository;
+import com.example.video.editor.repository.TaskJobRepository.ClaimableJob;
+import com.example.video.editor.repository.TaskJobRepository.OwnerLoad;
+import com.example.video.editor.repository.TaskJobSubscriberRepository;
+
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+
+/** Các thao tác trên bảng task_jobs, mỗi thao tác là một transaction ngắn. */
+@Service
+@RequiredArgsConstructor
+public class TaskJobStore {
+
+	private static final int MAX_ERROR_LENGTH = 2000;
+
+	private final TaskJobRepository taskJobRepository;
+	private final TaskJobSubscriberRepository subscriberRepository;
+
+	/**
+	 * Job có fingerprint mang active_key unique: nếu instance khác vừa tạo job
+	 * đang hoạt động cho cùng việc đó thì insert ném
+	 * {@link org.springframework.dao.DataIntegrityViolationException}, người gọi
+	 * dùng lại job đã có qua {@link #findActiveJobId}.
+	 */
+	@Transactional
+	public TaskJob enqueue(String jobId, String taskType, String fingerprint, String payload, int maxAttempts,
+			TaskOwner owner) {
+		TaskJob job = taskJobRepository.saveAndFlush(TaskJob.builder().jobId(jobId).taskType(taskType)
+				.fingerprint(fingerprint).activeKey(activeKey(taskType, fingerprint)).status(TaskJobStatus.QUEUED)
+				.payload(payload).maxAttempts(maxAttempts).ownerId(owner.userId()).accountTier(owner.tier())
+				.priority(owner.tier().ordinal()).createdAt(LocalDateTime.now()).build());
+		addSubscriber(jobId, owner);
+		return job;
+	}
+
+	/**
+	 * Lần submit trùng dùng chung job đã có: thêm người chờ, job mang priority
+	 * cao nhất của họ. Trả về false nếu job vừa bị hủy (người gọi tạo job mới).
+	 * Dòng job bị khóa như trong {@link #cancelFor} nên người vừa join không bị
+	 * lần hủy của người khác kéo theo.
+	 */
+	@Transactional
+	public boolean join(String jobId, TaskOwner owner) {
+		Optional<TaskJob> job = taskJobRepository.findByIdForUpdate(jobId);
+		if (job.isEmpty() || job.get().getStatus() == TaskJobStatus.CANCELLED) {
+			return false;
+		}
+		taskJobRepository.raisePriority(jobId, owner.tier().ordinal(), owner.tier());
+		addSubscriber(jobId, owner);
+		return true;
+	}
+
+	public boolean isSubscriber(String jobId, Long userId) {
+		return userId != null && subscriberRepository.existsByJobIdAndUserId(jobId, userId);
+	}
+
+	/**
+	 * userId là người chờ job, hoặc job có lần submit ẩn danh: taskId là UUID
+	 * ngẫu nhiên chỉ trả về cho người submit, nên với submit ẩn danh biết taskId
+	 * là đủ quyền xem (giống topic /topic/progress/{taskId}).
+	 */
+	public boolean canView(String jobId, Long userId) {
+		return isSubscriber(jobId, userId) || subscriberRepository.existsByJobIdAndUserIdIsNull(jobId);
+	}
+
+	public enum CancelOutcome {
+		NOT_SUBSCRIBED,
+		// Còn người khác chờ job: userId chỉ rời khỏi job
+		DETACHED,
+		CANCELLED,
+		// Job đã kết thúc, danh sách người chờ giữ nguyên
+		ALREADY_FINISHED
+	}
+
+	/**
+	 * Bỏ userId khỏi job và hủy job nếu không còn ai chờ, trong một transaction
+	 * giữ khóa dòng job: không lần join nào chen vào giữa lúc đếm và lúc hủy, và
+	 * job đã kết thúc thì không xóa gì cả.
+	 */
+	@Transactional
+	public CancelOutcome cancelFor(String jobId, Long userId, String reason) {
+		Optional<TaskJob> job = taskJobRepository.findByIdForUpdate(jobId);
+		if (job.isEmpty() || !isSubscriber(jobId, userId)) {
+			return CancelOutcome.NOT_SUBSCRIBED;
+		}
+		if (job.get().getStatus().isFinished()) {
+			return CancelOutcome.ALREADY_FINISHED;
+		}
+		subscriberRepository.deleteByJobIdAndUserId(jobId, userId);
+		if (subscriberRepository.countByJobId(jobId) > 0) {
+			return CancelOutcome.DETACHED;
+		}
+		if (taskJobRepository.cancel(jobId, truncate(reason), LocalDateTime.now()) != 1) {
+			// Không xảy ra khi đang giữ khóa; rollback để trả lại dòng người chờ đã xóa
+			throw new IllegalStateException("Task job " + jobId + " changed while locked");
+		}
+		return CancelOutcome.CANCELLED;
+	}
+
+	/** Job QUEUED/RUNNING có cùng loại và fingerprint, dùng cho single-flight. */
+	public Optional<String> findActiveJobId(String taskType, String fingerprint) {
+		return taskJobRepository.findJobIdByActiveKey(activeKey(taskType, fingerprint));
+	}
+
+	public Optional<TaskJob> findById(String jobId) {
+		return taskJobRepository.findById(jobId);
+	}
+
+	public List<TaskJob> findAllById(Collection<String> jobIds) {
+		return jobIds.isEmpty() ? List.of() : taskJobRepository.findAllById(jobIds);
+	}
+
+	/**
+	 * Các job có thể claim: gộp cửa sổ job cũ nhất và cửa sổ job priority cao
+	 * nhất, để job gói cao không bị khuất sau hàng dài job FREE và job FREE chờ
+	 * lâu (được nâng hạng) vẫn nằm trong tầm nhìn của scheduler.
+	 */
+	public List<ClaimableJob> findClaimable(int limit) {
+		LocalDateTime now = LocalDateTime.now();
+		Map<String, ClaimableJob> merged = new LinkedHashMap<>();
+		taskJobRepository.findClaimable(now, PageRequest.of(0, limit, Sort.by("createdAt")))
+				.forEach(job -> merged.put(job.getJobId(), job));
+		Sort byPriority = Sort.by(Sort.Order.desc("priority"), Sort.Order.asc("createdAt"));
+		taskJobRepository.findClaimable(now, PageRequest.of(0, limit, byPriority))
+				.forEach(job -> merged.putIfAbsent(job.getJobId(), job));
+		return new ArrayList<>(merged.values());
+	}
+
+	/** Số job đang chạy theo ownerId (key null là các job ẩn danh). */
+	public Map<Long, Integer> countRunningByOwner() {
+		Map<Long, Integer> running = new HashMap<>();
+		for (OwnerLoad load : taskJobRepository.countRunningByOwner(LocalDateTime.now())) {
+			running.put(load.getOwnerId(), (int) load.getRunning());
+		}
+		return running;
+	}
+
+	/** Trả về job nếu worker này claim thành công (không worker nào khác giữ lease). */
+	@Transactional
+	public Optional<TaskJob> claim(String jobId, String worker, Duration lease) {
+		LocalDateTime now = LocalDateTime.now();
+		if (taskJobRepository.claim(jobId, worker, now.plus(lease), now) != 1) {
+			return Optional.empty();
+		}
+		return taskJobRepository.findById(jobId);
+	}
+
+	@Transactional
+	public int renewLeases(Collection<String> jobIds, String worker, Duration lease) {
+		if (jobIds.isEmpty()) {
+			return 0;
+		}
+		return taskJobRepository.renewLeases(jobIds, worker, LocalDateTime.now().plus(lease));
+	}
+
+	@Transactional
+	public boolean finish(String jobId, String worker, TaskJobStatus status, String error) {
+		return taskJobRepository.finish(jobId, worker, status, truncate(error), LocalDateTime.now()) == 1;
+	}
+
+	@Transactional
+	public boolean requeue(String jobId, String worker, String error, Duration delay) {
+		return taskJobRepository.requeue(jobId, worker, truncate(error), LocalDateTime.now().plus(delay)) == 1;
+	}
+
+	/** Các job trong danh sách đã bị hủy, có thể bởi request đến instance khác. */
+	public List<String> findCancelled(Collection<String> jobIds) {
+		if (jobIds.isEmpty()) {
+			return List.of();
+		}
+		return taskJobRepository.findCancelledIn(jobIds);
+	}
+
+	@Transactional
+	public int purgeFinishedBefore(LocalDateTime before) {
+		int purged = taskJobRepository.deleteFinishedBefore(
+				EnumSet.of(TaskJobStatus.SUCCEEDED, TaskJobStatus.FAILED, TaskJobStatus.CANCELLED), before);
+		subscriberRepository.deleteOrphans();
+		return purged;
+	}
+
+	private void addSubscriber(String jobId, TaskOwner owner) {
+		subscriberRepository.save(TaskJobSubscriber.builder().jobId(jobId).userId(owner.userId())
+				.createdAt(LocalDateTime.now()).build());
+	}
+
+	private static String activeKey(String taskType, String fingerprint) {
+		return fingerprint == null ? null : taskType + ":" + fingerprint;
+	}
+
+	private static String truncate(String error) {
+		return error == null || error.length() <= MAX_ERROR_LENGTH ? error : error.substring(0, MAX_ERROR_LENGTH);
+	}
+}
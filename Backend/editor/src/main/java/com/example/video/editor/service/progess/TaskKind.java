@@ -0,0 +1,9 @@
+package com.example.video.editor.service.progess;
+
+/** Loại tài nguyên chính mà task chiếm khi chạy, quyết định executor dùng cho task. */
+public enum TaskKind {
+	/** Chủ yếu chờ mạng/DB (Cloudinary, Python API): chạy trên virtual thread. */
+	IO_BOUND,
+	/** Tốn CPU (encode FFmpeg): chạy trên pool platform thread giới hạn. */
+	CPU_BOUND
+}
@@ -0,0 +1,95 @@
+package com.example.video.editor.service.progess;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Component;
+
+import com.example.video.editor.exception.TaskCancelledException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Metric của hàng đợi task, xuất qua /actuator/prometheus. Các timer đều bật
+ * percentile histogram để tính p50/p99 phía Prometheus
+ * (histogram_quantile trên *_seconds_bucket).
+ * <ul>
+ * <li>{@code editor.task.queue.wait}: từ lúc submit (hoặc lúc được phép retry)
+ * đến lúc được claim, tag task_type</li>
+ * <li>{@code editor.task.run}: thời gian chạy một lần thử, tag task_type,
+ * outcome</li>
+ * <li>{@code editor.task.stage}: từng bước trong task (download, encode,
+ * upload, db_save, transcription_call...), tag task_type, stage, outcome</li>
+ * <li>{@code editor.task.bytes}: số byte tải về/tải lên, tag task_type,
+ * direction</li>
+ * <li>{@code editor.ffmpeg.speed}: phân phối tốc độ encode của từng lần chạy
+ * FFmpeg (1.0 = realtime), tag task_type; mỗi lần encode là một mẫu nên các
+ * encode chạy song song không ghi đè nhau</li>
+ * </ul>
+ */
+@Component
+@RequiredArgsConstructor
+public class TaskMetrics {
+
+	public static final String OUTCOME_SUCCESS = "success";
+	public static final String OUTCOME_ERROR = "error";
+	public static final String OUTCOME_CANCELLED = "cancelled";
+
+	private final MeterRegistry registry;
+
+	@FunctionalInterface
+	public interface StageWork<T, E extends Exception> {
+		T run() throws E;
+	}
+
+	public void recordQueueWait(String taskType, Duration wait) {
+		timer("editor.task.queue.wait", "Thời gian job chờ trong hàng đợi", "task_type", taskType)
+				.record(wait.isNegative() ? Duration.ZERO : wait);
+	}
+
+	public void recordRun(String taskType, String outcome, long startNanos) {
+		timer("editor.task.run", "Thời gian chạy một lần thử của task", "task_type", taskType, "outcome", outcome)
+				.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+	}
+
+	/** Chạy một bước của task và ghi thời gian của nó; outcome lấy theo exception nếu có. */
+	public <T, E extends Exception> T timeStage(String taskType, String stage, StageWork<T, E> work) throws E {
+		long start = System.nanoTime();
+		String outcome = OUTCOME_ERROR;
+		try {
+			T result = work.run();
+			outcome = OUTCOME_SUCCESS;
+			return result;
+		} catch (TaskCancelledException e) {
+			outcome = OUTCOME_CANCELLED;
+			throw e;
+		} finally {
+			timer("editor.task.stage", "Thời gian từng bước của task", "task_type", taskType, "stage", stage,
+					"outcome", outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+		}
+	}
+
+	public void recordBytes(String taskType, String direction, long bytes) {
+		if (bytes <= 0) {
+			return;
+		}
+		Counter.builder("editor.task.bytes").description("Số byte task tải về/tải lên").baseUnit("bytes")
+				.tag("task_type", taskType).tag("direction", direction).register(registry).increment(bytes);
+	}
+
+	/** Một mẫu cho mỗi lần encode: tốc độ trung bình FFmpeg báo khi encode xong. */
+	public void recordFfmpegSpeed(String taskType, double speed) {
+		DistributionSummary.builder("editor.ffmpeg.speed").description("Tốc độ encode của FFmpeg so với realtime")
+				.tag("task_type", taskType).publishPercentileHistogram().minimumExpectedValue(0.05)
+				.maximumExpectedValue(100.0).register(registry).record(speed);
+	}
+
+	private Timer timer(String name, String description, String... tags) {
+		return Timer.builder(name).description(description).tags(tags).publishPercentileHistogram()
+				.register(registry);
+	}
+}
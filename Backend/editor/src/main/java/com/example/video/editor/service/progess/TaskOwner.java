@@ -0,0 +1,9 @@
+package com.example.video.editor.service.progess;
+
+import com.example.video.editor.model.AccountTier;
+
+/** Người submit task và gói tài khoản của họ; userId null nếu gọi ẩn danh. */
+public record TaskOwner(Long userId, AccountTier tier) {
+
+	public static final TaskOwner ANONYMOUS = new TaskOwner(null, AccountTier.FREE);
+}
@@ -0,0 +1,34 @@
+package com.example.video.editor.service.progess;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import com.example.video.editor.model.AccountTier;
+import com.example.video.editor.model.SecurityUser;
+import com.example.video.editor.repository.UserRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Xác định người submit task từ request hiện tại. Các route submit task là
+ * route public nhưng JwtAuthenticationFilter vẫn đặt principal khi request có
+ * token hợp lệ, nên chỉ request thật sự không có token mới là ANONYMOUS.
+ */
+@Component
+@RequiredArgsConstructor
+public class TaskOwnerResolver {
+
+	private final UserRepository userRepository;
+
+	public TaskOwner currentOwner() {
+		Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+		if (authentication == null || !(authentication.getPrincipal() instanceof SecurityUser user)
+				|| user.getUserId() == null) {
+			return TaskOwner.ANONYMOUS;
+		}
+		// Đọc tier từ DB để gói vừa nâng cấp có hiệu lực ngay
+		AccountTier tier = userRepository.findAccountTierByUserId(user.getUserId()).orElse(AccountTier.FREE);
+		return new TaskOwner(user.getUserId(), tier);
+	}
+}
@@ -0,0 +1,110 @@
+package com.example.video.editor.service.progess;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Serialize params của ProgressTask thành JSON có kèm kiểu, ví dụ
+ * {@code [{"type":"...dto.TranscriptionRequest","value":{...}},{"type":null}]}.
+ * byte[] (file upload) không nằm trong payload mà được ghi ra {@link TaskBlobStore},
+ * payload chỉ giữ id của blob. Chỉ cho phép decode các kiểu trong package dto
+ * và một số kiểu cơ bản của java.lang.
+ */
+@Component
+@RequiredArgsConstructor
+public class TaskPayloadCodec {
+
+	private static final String DTO_PACKAGE = "com.example.video.editor.dto.";
+	// Payload cũ ghi byte[] dạng base64 ngay trong JSON, vẫn đọc được
+	private static final String BYTES = "bytes";
+	private static final String BLOB = "blob";
+
+	private final ObjectMapper objectMapper;
+	private final TaskBlobStore blobStore;
+
+	public String encode(Object... params) {
+		ArrayNode array = objectMapper.createArrayNode();
+		try {
+			for (Object param : params) {
+				ObjectNode node = array.addObject();
+				if (param == null) {
+					node.putNull("type");
+				} else if (param instanceof byte[] bytes) {
+					node.put("type", BLOB);
+					node.put("value", blobStore.put(bytes));
+				} else {
+					node.put("type", checkAllowed(param.getClass().getName()));
+					node.set("value", objectMapper.valueToTree(param));
+				}
+			}
+			return objectMapper.writeValueAsString(array);
+		} catch (JsonProcessingException e) {
+			release(array);
+			throw new IllegalArgumentException("Cannot serialize task params: " + e.getMessage(), e);
+		} catch (RuntimeException e) {
+			// Không để lại blob của những param đã ghi trước param lỗi
+			release(array);
+			throw e;
+		}
+	}
+
+	public Object[] decode(String payload) {
+		try {
+			JsonNode array = objectMapper.readTree(payload);
+			List<Object> params = new ArrayList<>(array.size());
+			for (JsonNode node : array) {
+				JsonNode type = node.get("type");
+				if (type == null || type.isNull()) {
+					params.add(null);
+				} else if (BLOB.equals(type.asText())) {
+					params.add(blobStore.get(node.get("value").asText()));
+				} else if (BYTES.equals(type.asText())) {
+					params.add(node.get("value").binaryValue());
+				} else {
+					Class<?> clazz = Class.forName(checkAllowed(type.asText()));
+					params.add(objectMapper.treeToValue(node.get("value"), clazz));
+				}
+			}
+			return params.toArray();
+		} catch (Exception e) {
+			throw new IllegalArgumentException("Cannot deserialize task params: " + e.getMessage(), e);
+		}
+	}
+
+	/** Xóa các blob mà payload tham chiếu; gọi khi job không còn chạy lại nữa. */
+	public void release(String payload) {
+		try {
+			release(objectMapper.readTree(payload));
+		} catch (JsonProcessingException e) {
+			// Payload hỏng thì cũng không có blob nào đọc được từ nó
+		}
+	}
+
+	private void release(JsonNode array) {
+		for (JsonNode node : array) {
+			JsonNode type = node.get("type");
+			if (type != null && BLOB.equals(type.asText())) {
+				blobStore.delete(node.get("value").asText());
+			}
+		}
+	}
+
+	private static String checkAllowed(String className) {
+		if (className.startsWith(DTO_PACKAGE) || className.equals(String.class.getName())
+				|| className.equals(Integer.class.getName()) || className.equals(Long.class.getName())
+				|| className.equals(Boolean.class.getName())) {
+			return className;
+		}
+		throw new IllegalArgumentException("Unsupported task param type: " + className);
+	}
+}
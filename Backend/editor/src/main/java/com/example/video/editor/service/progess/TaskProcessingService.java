@@ -1,53 +1,572 @@
 package com.example.video.editor.service.progess;
 
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
+import com.example.video.editor.dto.TaskStatusSnapshot;
+import com.example.video.editor.exception.NotFoundException;
+import com.example.video.editor.exception.RetryableTaskException;
+import com.example.video.editor.model.TaskJob;
+import com.example.video.editor.model.TaskJobStatus;
+import com.example.video.editor.repository.TaskJobRepository.ClaimableJob;
+
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Hàng đợi task bền vững: mỗi lần submit được lưu thành một {@link TaskJob}
+ * trước khi chạy. Worker (mỗi instance của ứng dụng) claim job bằng lease và
+ * gia hạn lease định kỳ khi job còn chạy; nếu instance chết hoặc restart, lease
+ * hết hạn và job được instance khác (hoặc chính nó sau khi khởi động lại) chạy
+ * lại với cùng taskId, nên client vẫn nhận được progress trên topic cũ.
+ * <p>
+ * Mọi instance dùng chung bảng task_jobs nên instance nào còn slot cũng nhận
+ * được job, không chỉ instance nhận HTTP request. Khi instance nhận request đã
+ * hết slot, {@link TaskQueueSignal} đánh thức các instance khác; progress về
+ * tới client qua {@link ProgressBroadcaster}.
+ */
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class TaskProcessingService {
 
 	private final SimpMessagingTemplate messagingTemplate;
-	private final ExecutorService taskExecutor = Executors.newCachedThreadPool();
+	private final TaskJobStore jobStore;
+	private final TaskPayloadCodec payloadCodec;
+	private final TaskBlobStore blobStore;
+	private final TaskExecutors taskExecutors;
+	private final ProgressCoalescer progressCoalescer;
+	private final TaskStatusStore taskStatusStore;
+	private final FairShareScheduler scheduler;
+	private final TaskOwnerResolver ownerResolver;
+	private final TaskMetrics taskMetrics;
+	private final ApplicationEventPublisher eventPublisher;
+	private final TaskQueueSignal queueSignal;
+	private final AtomicBoolean wakeupPending = new AtomicBoolean();
+	private final ExecutorService wakeupExecutor = Executors
+			.newSingleThreadExecutor(Thread.ofPlatform().name("task-queue-wakeup").daemon().factory());
+	// Tên bean -> ProgressTask, tên bean được lưu làm task_type của job
+	private final Map<String, ProgressTask> tasks;
+	// Các job instance này đang chạy (cần gia hạn lease) và loại executor của chúng
+	private final Map<String, TaskKind> runningJobs = new ConcurrentHashMap<>();
+	// Token hủy của các job đang chạy trên instance này
+	private final Map<String, CancellationToken> runningTokens = new ConcurrentHashMap<>();
+	// Vị trí trong hàng đợi đã báo cho client, chỉ gửi lại khi thay đổi
+	private final Map<String, Integer> queuePositions = new ConcurrentHashMap<>();
+	// Khóa theo fingerprint để hai request giống nhau trên instance này không cùng tạo job;
+	// giữa các instance thì active_key unique của task_jobs chặn job trùng
+	private final Map<String, ReentrantLock> submitLocks = new ConcurrentHashMap<>();
+	// Dùng ReentrantLock thay cho synchronized để không pin virtual thread khi chờ DB
+	private final ReentrantLock dispatchLock = new ReentrantLock();
+	private final String workerId = ManagementFactory.getRuntimeMXBean().getName() + "-"
+			+ UUID.randomUUID().toString().substring(0, 8);
+
+	// Số task I/O chạy cùng lúc trên instance; task CPU bị giới hạn bởi task.cpu-pool-size
+	@Value("${task.queue.max-concurrent:256}")
+	private int maxConcurrent;
+	@Value("${task.queue.max-attempts:3}")
+	private int maxAttempts;
+	@Value("${task.queue.lease-seconds:60}")
+	private long leaseSeconds;
+	@Value("${task.queue.retry-backoff-seconds:5}")
+	private long retryBackoffSeconds;
+	@Value("${task.queue.retention-days:7}")
+	private long retentionDays;
+	// Số job đang chờ scheduler xem xét mỗi lượt (mỗi cửa sổ: cũ nhất và priority cao nhất)
+	@Value("${task.scheduling.window:200}")
+	private int schedulingWindow;
 
+	/**
+	 * Lưu task vào hàng đợi và trả về taskId. Nếu một task cùng loại với cùng
+	 * fingerprint đang chờ hoặc đang chạy (kể cả job được khôi phục sau restart),
+	 * trả về taskId của task đó để client subscribe chung progress.
+	 */
 	public String startProgressTask(ProgressTask task, Object... params) {
+		String taskId = submit(ownerResolver.currentOwner(), task, params);
+		dispatchAndSignal();
+		return taskId;
+	}
+
+	/**
+	 * Submit nhiều task cùng loại của cùng một người dùng (batch): owner chỉ
+	 * resolve một lần và hàng đợi chỉ dispatch một lần sau khi đã lưu hết.
+	 * Số task chạy đồng thời vẫn bị giới hạn bởi cap của gói tài khoản.
+	 */
+	public List<String> startProgressTasks(ProgressTask task, List<Object[]> paramsList) {
+		TaskOwner owner = ownerResolver.currentOwner();
+		List<String> taskIds = new ArrayList<>(paramsList.size());
+		for (Object[] params : paramsList) {
+			taskIds.add(submit(owner, task, params));
+		}
+		dispatchAndSignal();
+		return taskIds;
+	}
+
+	// Instance nhận request hết slot: báo cho instance đang rảnh claim ngay
+	private void dispatchAndSignal() {
+		if (dispatch()) {
+			queueSignal.jobsWaiting();
+		}
+	}
+
+	/** Instance khác báo có job chờ; gộp nhiều tín hiệu liên tiếp thành một lượt dispatch. */
+	@EventListener
+	public void onQueueWakeup(TaskQueueWakeupEvent event) {
+		if (wakeupPending.compareAndSet(false, true)) {
+			wakeupExecutor.execute(() -> {
+				wakeupPending.set(false);
+				dispatchPending();
+			});
+		}
+	}
+
+	private String submit(TaskOwner owner, ProgressTask task, Object... params) {
+		String taskType = taskTypeOf(task);
+		String fingerprint = task.fingerprint(params);
+		String taskId;
+		if (fingerprint == null) {
+			taskId = enqueue(taskType, null, params, owner);
+		} else {
+			String lockKey = taskType + ":" + fingerprint;
+			ReentrantLock lock = submitLocks.computeIfAbsent(lockKey, key -> new ReentrantLock());
+			lock.lock();
+			try {
+				Optional<String> active = jobStore.findActiveJobId(taskType, fingerprint);
+				if (active.isEmpty()) {
+					try {
+						return enqueue(taskType, fingerprint, params, owner);
+					} catch (DataIntegrityViolationException e) {
+						// Instance khác vừa tạo job cho cùng việc (active_key unique): dùng chung job đó
+						active = jobStore.findActiveJobId(taskType, fingerprint);
+						if (active.isEmpty()) {
+							throw e;
+						}
+					}
+				}
+				if (!jobStore.join(active.get(), owner)) {
+					// Job vừa bị hủy giữa lúc tìm và lúc join: tạo job mới
+					return enqueue(taskType, fingerprint, params, owner);
+				}
+				return active.get();
+			} finally {
+				lock.unlock();
+				if (!lock.hasQueuedThreads()) {
+					submitLocks.remove(lockKey, lock);
+				}
+			}
+		}
+		return taskId;
+	}
+
+	/**
+	 * Snapshot mới nhất của task. Nếu snapshot đã hết hạn (hoặc instance vừa
+	 * restart mà không bật Redis) thì dựng lại trạng thái từ bảng task_jobs.
+	 * Chỉ người đã submit task được xem, trừ task có lần submit ẩn danh (xem
+	 * {@link TaskJobStore#canView}); userId null là người gọi ẩn danh.
+	 */
+	public TaskStatusSnapshot getStatus(String taskId, Long userId) throws NotFoundException {
+		if (!jobStore.canView(taskId, userId)) {
+			if (jobStore.findById(taskId).isEmpty()) {
+				throw new NotFoundException("Không tìm thấy task: " + taskId);
+			}
+			throw new AccessDeniedException("Không có quyền xem task: " + taskId);
+		}
+		Optional<TaskStatusSnapshot> snapshot = taskStatusStore.find(taskId);
+		if (snapshot.isPresent()) {
+			return snapshot.get();
+		}
+		TaskJob job = jobStore.findById(taskId)
+				.orElseThrow(() -> new NotFoundException("Không tìm thấy task: " + taskId));
+		TaskStatusSnapshot.TaskStatusSnapshotBuilder fromJob = TaskStatusSnapshot.builder().taskId(taskId)
+				.updatedAt(job.getFinishedAt() != null ? job.getFinishedAt() : job.getCreatedAt());
+		switch (job.getStatus()) {
+		case QUEUED -> fromJob.status(TaskStatusSnapshot.QUEUED).progress(0);
+		case RUNNING -> fromJob.status(TaskStatusSnapshot.RUNNING);
+		case SUCCEEDED -> fromJob.status(TaskStatusSnapshot.COMPLETE).progress(100);
+		case FAILED, CANCELLED -> fromJob.status(TaskStatusSnapshot.ERROR).error(job.getStatus().name())
+				.message(job.getLastError());
+		}
+		return fromJob.build();
+	}
+
+	/**
+	 * Hủy task đang chờ hoặc đang chạy. Chỉ người đã submit task (kể cả submit
+	 * trùng qua single-flight) được hủy; nếu còn người khác chờ cùng job thì
+	 * userId chỉ rời khỏi job và job tiếp tục chạy. Job chạy trên instance này
+	 * dừng ngay (FFmpeg bị kill, lời gọi HTTP bị ngắt); job chạy trên instance
+	 * khác dừng ở lần heartbeat kế tiếp. Client nhận event error với error =
+	 * "CANCELLED".
+	 */
+	public void cancel(String taskId, Long userId) throws NotFoundException {
+		TaskJob job = jobStore.findById(taskId)
+				.orElseThrow(() -> new NotFoundException("Không tìm thấy task: " + taskId));
+		switch (jobStore.cancelFor(taskId, userId, "Cancelled by client")) {
+		case NOT_SUBSCRIBED -> throw new AccessDeniedException("Không có quyền hủy task: " + taskId);
+		case DETACHED -> {
+			return;
+		}
+		case ALREADY_FINISHED -> {
+			String status = jobStore.findById(taskId).map(TaskJob::getStatus).orElse(job.getStatus()).name();
+			throw new ResponseStatusException(HttpStatus.CONFLICT, "Task đã kết thúc (" + status + ")");
+		}
+		case CANCELLED -> {
+		}
+		}
+		sendError(taskId, "CANCELLED", "Task đã bị hủy");
+		CancellationToken token = runningTokens.get(taskId);
+		if (token != null) {
+			// Worker trên instance này dọn blob và báo kết thúc trong finally của nó
+			token.cancel();
+			return;
+		}
+		payloadCodec.release(job.getPayload());
+		notifyFinished(taskId);
+	}
+
+	// Payload chỉ được encode (ghi blob) khi thật sự tạo job, không phải khi dùng chung job đã có
+	private String enqueue(String taskType, String fingerprint, Object[] params, TaskOwner owner) {
 		String taskId = UUID.randomUUID().toString();
-		taskExecutor.submit(() -> {
+		String payload = payloadCodec.encode(params);
+		try {
+			jobStore.enqueue(taskId, taskType, fingerprint, payload, maxAttempts, owner);
+		} catch (RuntimeException e) {
+			payloadCodec.release(payload);
+			throw e;
+		}
+		taskStatusStore.markQueued(taskId);
+		return taskId;
+	}
+
+	/**
+	 * Claim các job đang chờ theo thứ tự của {@link FairShareScheduler} cho đến
+	 * khi hết slot. Slot I/O và slot CPU tính riêng, job CPU phải chờ khi pool CPU
+	 * đầy nhưng không chặn job I/O phía sau; job của người dùng đã chạm giới hạn
+	 * cũng được bỏ qua. Các job còn lại được báo vị trí trong hàng đợi.
+	 */
+	@Scheduled(fixedDelayString = "${task.queue.poll-interval-ms:2000}")
+	public void dispatchPending() {
+		dispatch();
+	}
+
+	// Trả về true nếu còn job phải chờ vì instance này hết slot (không tính job chờ do cap của người dùng)
+	private boolean dispatch() {
+		boolean outOfSlots = false;
+		dispatchLock.lock();
+		try {
+			List<ClaimableJob> candidates = jobStore.findClaimable(schedulingWindow);
+			Map<Long, Integer> running = candidates.isEmpty() ? Map.of() : jobStore.countRunningByOwner();
+			Map<Long, Integer> inFlight = new HashMap<>(running);
+			Set<String> waiting = new HashSet<>();
+			int position = 0;
+			for (ClaimableJob candidate : scheduler.order(candidates, running, LocalDateTime.now())) {
+				Long owner = candidate.getOwnerId();
+				boolean underCap = inFlight.getOrDefault(owner, 0) < scheduler.maxRunning(owner,
+						candidate.getAccountTier());
+				boolean hasSlot = freeSlots(kindOf(candidate.getTaskType())) > 0;
+				outOfSlots |= underCap && !hasSlot;
+				if (underCap && hasSlot) {
+					Optional<TaskJob> claimed = jobStore.claim(candidate.getJobId(), workerId, lease());
+					if (claimed.isPresent()) {
+						inFlight.merge(owner, 1, Integer::sum);
+						queuePositions.remove(candidate.getJobId());
+						run(claimed.get());
+					}
+					// Không claim được: instance khác vừa lấy job này
+					continue;
+				}
+				waiting.add(candidate.getJobId());
+				announceQueuePosition(candidate.getJobId(), ++position);
+			}
+			forgetQueuePositions(waiting);
+		} finally {
+			dispatchLock.unlock();
+		}
+		return outOfSlots;
+	}
+
+	@Scheduled(fixedDelayString = "${task.queue.heartbeat-interval-ms:15000}")
+	public void renewLeases() {
+		Set<String> running = Set.copyOf(runningJobs.keySet());
+		jobStore.renewLeases(running, workerId, lease());
+		// Job bị hủy qua instance khác: dừng phần đang chạy ở đây
+		for (String taskId : jobStore.findCancelled(running)) {
+			CancellationToken token = runningTokens.get(taskId);
+			if (token != null) {
+				token.cancel();
+			}
+		}
+	}
+
+	@Scheduled(cron = "${task.queue.purge-cron:0 30 3 * * *}")
+	public void purgeFinishedJobs() {
+		jobStore.purgeFinishedBefore(LocalDateTime.now().minusDays(retentionDays));
+		blobStore.deleteOlderThan(Instant.now().minus(Duration.ofDays(retentionDays)));
+	}
+
+	// Chạy lại các job còn dang dở ngay khi khởi động, không đợi lần poll đầu tiên
+	@EventListener(ApplicationReadyEvent.class)
+	public void resumeOnStartup() {
+		dispatchPending();
+	}
+
+	private void run(TaskJob job) {
+		String taskId = job.getJobId();
+		ProgressTask task = tasks.get(job.getTaskType());
+		if (task == null) {
+			failPermanently(job, "UNKNOWN_TASK", "Không tìm thấy loại task: " + job.getTaskType());
+			return;
+		}
+		if (job.getAttempts() > job.getMaxAttempts()) {
+			failPermanently(job, "MAX_ATTEMPTS_EXCEEDED",
+					"Task đã thất bại sau " + job.getMaxAttempts() + " lần thử: " + job.getLastError());
+			return;
+		}
+		Object[] params;
+		try {
+			params = payloadCodec.decode(job.getPayload());
+		} catch (IllegalArgumentException e) {
+			failPermanently(job, "INVALID_PAYLOAD", e.getMessage());
+			return;
+		}
+
+		// Lần đầu: chờ từ lúc submit; lần retry: chờ từ lúc hết backoff
+		LocalDateTime readyAt = job.getNextAttemptAt() != null ? job.getNextAttemptAt() : job.getCreatedAt();
+		taskMetrics.recordQueueWait(job.getTaskType(), Duration.between(readyAt, job.getStartedAt()));
+
+		TaskKind kind = task.kind();
+		CancellationToken token = new CancellationToken(taskId);
+		runningTokens.put(taskId, token);
+		runningJobs.put(taskId, kind);
+		taskExecutors.forKind(kind).submit(() -> {
+			token.bindThread(Thread.currentThread());
+			// Task đã báo complete thì kết quả đó là cuối cùng. Lỗi task báo qua errorCallback
+			// chỉ được ghi lại: job kết thúc khi task trả về, hoặc được retry nếu sau đó task
+			// ném RetryableTaskException. Sau khi hủy, event cuối đã được cancel() gửi nên
+			// các callback bị bỏ qua.
+			AtomicBoolean reported = new AtomicBoolean();
+			AtomicReference<ReportedError> reportedError = new AtomicReference<>();
+			AtomicBoolean failed = new AtomicBoolean();
+			AtomicBoolean requeued = new AtomicBoolean();
+			long startNanos = System.nanoTime();
 			try {
-				task.executeTask((progress, message) -> sendProgress(taskId, progress, message),
-						(result, message) -> sendComplete(taskId, result, message),
-						(error, message) -> sendError(taskId, error, message), params);
+				token.throwIfCancelled();
+				task.executeWithPartialResults(token, (progress, message) -> {
+					if (!token.isCancelled()) {
+						sendProgress(taskId, progress, message);
+					}
+				}, (key, result) -> {
+					if (!token.isCancelled()) {
+						sendPartialResult(taskId, key, result);
+					}
+				}, (result, message) -> {
+					if (token.isCancelled()) {
+						return;
+					}
+					if (reported.compareAndSet(false, true)) {
+						jobStore.finish(taskId, workerId, TaskJobStatus.SUCCEEDED, null);
+					}
+					sendComplete(taskId, result, message);
+				}, (error, message) -> {
+					if (!token.isCancelled()) {
+						reportedError.compareAndSet(null, new ReportedError(error, message));
+					}
+				}, params);
+				ReportedError error = reportedError.get();
+				if (!token.isCancelled() && reported.compareAndSet(false, true)) {
+					if (error == null) {
+						jobStore.finish(taskId, workerId, TaskJobStatus.SUCCEEDED, null);
+					} else {
+						failed.set(true);
+						failWith(taskId, error);
+					}
+				}
 			} catch (Exception e) {
-				sendError(taskId, "Task execution failed: " + e.getMessage(), null);
-				e.printStackTrace();
+				if (token.isCancelled()) {
+					log.info("Task {} đã dừng do bị hủy", taskId);
+				} else {
+					failed.set(true);
+					ReportedError error = reportedError.get();
+					if (reported.compareAndSet(false, true)) {
+						if (shouldRetry(e, error != null)) {
+							requeued.set(retryOrFail(job, e, error));
+						} else {
+							failWith(taskId, error);
+						}
+					}
+					log.warn("Task {} ({}) failed", taskId, job.getTaskType(), e);
+				}
+			} finally {
+				taskMetrics.recordRun(job.getTaskType(), token.isCancelled() ? TaskMetrics.OUTCOME_CANCELLED
+						: failed.get() ? TaskMetrics.OUTCOME_ERROR : TaskMetrics.OUTCOME_SUCCESS, startNanos);
+				// Xóa cờ interrupt trước khi thread này truy cập DB trong dispatchPending
+				token.unbindThread();
+				runningTokens.remove(taskId);
+				runningJobs.remove(taskId);
+				progressCoalescer.release(taskId);
+				// Blob (file upload) chỉ được giữ lại khi job còn được chạy lại
+				if (!requeued.get()) {
+					payloadCodec.release(job.getPayload());
+				}
+				notifyFinished(taskId);
+				// Slot vừa trống: nhận job kế tiếp ngay
+				dispatchPending();
 			}
 		});
-		return taskId;
 	}
 
+	// Lỗi của listener (ví dụ cập nhật batch) không được làm hỏng vòng đời của job
+	private void notifyFinished(String taskId) {
+		try {
+			eventPublisher.publishEvent(new TaskJobFinishedEvent(taskId));
+		} catch (RuntimeException e) {
+			log.error("TaskJobFinishedEvent listener failed for task {}", taskId, e);
+		}
+	}
+
+	private void announceQueuePosition(String taskId, int position) {
+		Integer previous = queuePositions.put(taskId, position);
+		if (previous == null || previous != position) {
+			progressCoalescer.progress(taskId, Map.of("progress", 0, "message",
+					"Đang chờ xử lý, vị trí " + position + " trong hàng đợi", "queuePosition", position));
+		}
+	}
+
+	// Job không còn chờ (đã chạy ở instance khác hoặc bị hủy): bỏ trạng thái gộp event của nó
+	private void forgetQueuePositions(Set<String> stillWaiting) {
+		for (String taskId : Set.copyOf(queuePositions.keySet())) {
+			if (!stillWaiting.contains(taskId) && queuePositions.remove(taskId) != null
+					&& !runningJobs.containsKey(taskId)) {
+				progressCoalescer.release(taskId);
+			}
+		}
+	}
+
+	/**
+	 * Task đã tự báo lỗi qua errorCallback thì lỗi đó là cuối cùng, trừ khi task
+	 * ném {@link RetryableTaskException}. Exception task không tự báo (lỗi bất ngờ)
+	 * vẫn được retry như trước.
+	 */
+	static boolean shouldRetry(Exception thrown, boolean errorReported) {
+		return !errorReported || thrown instanceof RetryableTaskException;
+	}
+
+	private void failWith(String taskId, ReportedError error) {
+		jobStore.finish(taskId, workerId, TaskJobStatus.FAILED, error.error() + ": " + error.message());
+		sendError(taskId, error.error(), error.message());
+	}
+
+	// Trả về true nếu job được đưa lại hàng đợi; hết lượt thử thì báo lỗi task đã báo (nếu có)
+	private boolean retryOrFail(TaskJob job, Exception e, ReportedError reportedError) {
+		String error = e.getClass().getSimpleName() + ": " + e.getMessage();
+		if (job.getAttempts() < job.getMaxAttempts()) {
+			Duration delay = Duration.ofSeconds(retryBackoffSeconds << (job.getAttempts() - 1));
+			boolean requeued = jobStore.requeue(job.getJobId(), workerId, error, delay);
+			sendProgress(job.getJobId(), 0, "Lỗi tạm thời, thử lại sau " + delay.toSeconds() + " giây");
+			return requeued;
+		}
+		if (reportedError != null) {
+			failWith(job.getJobId(), reportedError);
+		} else {
+			jobStore.finish(job.getJobId(), workerId, TaskJobStatus.FAILED, error);
+			sendError(job.getJobId(), "Task execution failed: " + e.getMessage(), null);
+		}
+		return false;
+	}
+
+	private record ReportedError(String error, String message) {
+	}
+
+	private void failPermanently(TaskJob job, String error, String message) {
+		String taskId = job.getJobId();
+		jobStore.finish(taskId, workerId, TaskJobStatus.FAILED, error + ": " + message);
+		payloadCodec.release(job.getPayload());
+		sendError(taskId, error, message);
+		notifyFinished(taskId);
+	}
+
+	private String taskTypeOf(ProgressTask task) {
+		for (Map.Entry<String, ProgressTask> entry : tasks.entrySet()) {
+			if (entry.getValue() == task) {
+				return entry.getKey();
+			}
+		}
+		throw new IllegalArgumentException("ProgressTask is not a Spring bean: " + task.getClass().getName());
+	}
+
+	private TaskKind kindOf(String taskType) {
+		ProgressTask task = tasks.get(taskType);
+		return task == null ? TaskKind.IO_BOUND : task.kind();
+	}
+
+	private int freeSlots(TaskKind kind) {
+		int limit = kind == TaskKind.CPU_BOUND ? taskExecutors.cpuPoolSize() : maxConcurrent;
+		int running = 0;
+		for (TaskKind runningKind : runningJobs.values()) {
+			if (runningKind == kind) {
+				running++;
+			}
+		}
+		return limit - running;
+	}
+
+	private Duration lease() {
+		return Duration.ofSeconds(leaseSeconds);
+	}
+
+	// Progress được gộp và giới hạn tần suất; partial/complete/error gửi ngay theo thứ tự
 	private void sendProgress(String taskId, int progress, String message) {
-		messagingTemplate.convertAndSend("/topic/progress/" + taskId,
-				Map.of("progress", progress, "message", message == null ? "" : message));
+		progressCoalescer.progress(taskId, Map.of("progress", progress, "message", message == null ? "" : message));
+	}
+
+	private void sendPartialResult(String taskId, String key, Object result) {
+		progressCoalescer.publishNow(taskId, Map.of("status", "partial", "key", key, "result", result));
 	}
 
 	private void sendComplete(String taskId, Object result, String message) {
-		messagingTemplate.convertAndSend("/topic/progress/" + taskId,
+		progressCoalescer.publishFinal(taskId,
 				Map.of("status", "complete", "result", result, "message", message == null ? "" : message));
 	}
 
 	private void sendError(String taskId, Object error, String message) {
-		messagingTemplate.convertAndSend("/topic/progress/" + taskId, Map.of("status", "error", "error",
-				error == null ? "" : error.toString(), "message", message == null ? "" : message));
+		progressCoalescer.publishFinal(taskId, Map.of("status", "error", "error", error == null ? "" : error.toString(),
+				"message", message == null ? "" : message));
+	}
+
+	@PreDestroy
+	void shutdown() {
+		wakeupExecutor.shutdownNow();
 	}
 
 	public SimpMessagingTemplate getMessagingTemplate() {
 		return messagingTemplate;
 	}
-}
\ No newline at end of file
+}
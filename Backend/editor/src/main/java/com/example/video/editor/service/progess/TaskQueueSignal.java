@@ -0,0 +1,10 @@
+package com.example.video.editor.service.progess;
+
+/**
+ * Báo cho các instance khác rằng hàng đợi có job mà instance hiện tại không còn
+ * slot để chạy, để instance đang rảnh claim ngay thay vì đợi lần poll kế tiếp.
+ */
+public interface TaskQueueSignal {
+
+	void jobsWaiting();
+}
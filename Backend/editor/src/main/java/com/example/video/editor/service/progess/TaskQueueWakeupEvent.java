@@ -0,0 +1,5 @@
+package com.example.video.editor.service.progess;
+
+/** Instance khác báo có job đang chờ trong task_jobs. */
+public record TaskQueueWakeupEvent() {
+}
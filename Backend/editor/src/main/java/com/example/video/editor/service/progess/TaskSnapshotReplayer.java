@@ -0,0 +1,55 @@
+package com.example.video.editor.service.progess;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+
+/**
+ * Khi client subscribe /topic/progress/{taskId}, gửi lại snapshot mới nhất chỉ
+ * cho subscription đó (không broadcast), để client vào muộn hoặc reconnect vẫn
+ * biết trạng thái hiện tại mà không phải chạy lại task.
+ */
+@Component
+public class TaskSnapshotReplayer {
+
+	private static final String TOPIC_PREFIX = "/topic/progress/";
+
+	private final TaskStatusStore taskStatusStore;
+	private final SimpMessagingTemplate messagingTemplate;
+	private final MessageChannel clientOutboundChannel;
+
+	public TaskSnapshotReplayer(TaskStatusStore taskStatusStore, SimpMessagingTemplate messagingTemplate,
+			@Qualifier("clientOutboundChannel") MessageChannel clientOutboundChannel) {
+		this.taskStatusStore = taskStatusStore;
+		this.messagingTemplate = messagingTemplate;
+		this.clientOutboundChannel = clientOutboundChannel;
+	}
+
+	@EventListener
+	public void onSubscribe(SessionSubscribeEvent event) {
+		SimpMessageHeaderAccessor subscribe = SimpMessageHeaderAccessor.wrap(event.getMessage());
+		String destination = subscribe.getDestination();
+		if (destination == null || !destination.startsWith(TOPIC_PREFIX)) {
+			return;
+		}
+		String taskId = destination.substring(TOPIC_PREFIX.length());
+		taskStatusStore.find(taskId).ifPresent(snapshot -> {
+			SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+			headers.setSessionId(subscribe.getSessionId());
+			headers.setSubscriptionId(subscribe.getSubscriptionId());
+			headers.setDestination(destination);
+			headers.setLeaveMutable(true);
+			Message<?> message = messagingTemplate.getMessageConverter().toMessage(snapshot.toEvent(),
+					headers.getMessageHeaders());
+			if (message != null) {
+				clientOutboundChannel.send(message);
+			}
+		});
+	}
+}
@@ -0,0 +1,128 @@
+package com.example.video.editor.service.progess;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import com.example.video.editor.dto.TaskStatusSnapshot;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Lưu snapshot trạng thái mới nhất của từng task: Caffeine cache giới hạn số
+ * entry và TTL, cộng thêm Redis (nếu bật {@code task.status.redis-enabled}) để
+ * instance khác hoặc instance vừa restart cũng đọc được. Snapshot chỉ giữ
+ * status, progress, message và kết quả nhỏ (URL, id...); kết quả lớn như danh
+ * sách phụ đề đã có trong event complete và được lưu ở DB nên không giữ lại.
+ */
+@Component
+public class TaskStatusStore {
+	public static final String CACHE_NAME = "taskStatus";
+
+	private static final String REDIS_PREFIX = "task:status:";
+
+	private final ObjectMapper objectMapper;
+	private final StringRedisTemplate redisTemplate;
+	private final Duration ttl;
+	private final int maxResultLength;
+	private final Cache<String, TaskStatusSnapshot> entries;
+
+	public TaskStatusStore(ObjectMapper objectMapper, ObjectProvider<StringRedisTemplate> redisTemplate,
+			MeterRegistry meterRegistry, @Value("${task.status.redis-enabled:false}") boolean redisEnabled,
+			@Value("${task.status.ttl-minutes:60}") long ttlMinutes,
+			@Value("${task.status.max-entries:10000}") long maxEntries,
+			@Value("${task.status.max-result-length:2048}") int maxResultLength) {
+		this.objectMapper = objectMapper;
+		this.redisTemplate = redisEnabled ? redisTemplate.getIfAvailable() : null;
+		this.ttl = Duration.ofMinutes(ttlMinutes);
+		this.maxResultLength = maxResultLength;
+		this.entries = Caffeine.newBuilder().maximumSize(maxEntries).expireAfterWrite(ttl).recordStats().build();
+		CaffeineCacheMetrics.monitor(meterRegistry, entries, CACHE_NAME);
+	}
+
+	public void markQueued(String taskId) {
+		save(TaskStatusSnapshot.builder().taskId(taskId).status(TaskStatusSnapshot.QUEUED).progress(0).build());
+	}
+
+	/** Cập nhật snapshot từ event đã gửi cho client. */
+	public void record(String taskId, Map<String, Object> event) {
+		TaskStatusSnapshot current = find(taskId).orElseGet(() -> TaskStatusSnapshot.builder().taskId(taskId).build());
+		if (current.isFinished()) {
+			return;
+		}
+		Object status = event.get("status");
+		TaskStatusSnapshot.TaskStatusSnapshotBuilder next = current.toBuilder();
+		if (status == null) {
+			Integer queuePosition = (Integer) event.get("queuePosition");
+			next.status(queuePosition != null ? TaskStatusSnapshot.QUEUED : TaskStatusSnapshot.RUNNING)
+					.queuePosition(queuePosition).progress((Integer) event.get("progress"))
+					.message((String) event.get("message"));
+		} else if (TaskStatusSnapshot.COMPLETE.equals(status)) {
+			next.status(TaskStatusSnapshot.COMPLETE).progress(100).result(resultReference(event.get("result")))
+					.message((String) event.get("message"));
+		} else if (TaskStatusSnapshot.ERROR.equals(status)) {
+			next.status(TaskStatusSnapshot.ERROR).error((String) event.get("error"))
+					.message((String) event.get("message"));
+		} else {
+			// Kết quả từng phần không lưu vào snapshot, event complete sẽ chứa đầy đủ
+			next.status(TaskStatusSnapshot.RUNNING).queuePosition(null);
+		}
+		save(next.build());
+	}
+
+	public Optional<TaskStatusSnapshot> find(String taskId) {
+		TaskStatusSnapshot snapshot = entries.getIfPresent(taskId);
+		if (snapshot != null) {
+			return Optional.of(snapshot);
+		}
+		return findInRedis(taskId);
+	}
+
+	// Chỉ giữ kết quả dạng giá trị nhỏ; object (Video, danh sách phụ đề...) bị bỏ khỏi snapshot
+	private Object resultReference(Object result) {
+		if (result instanceof Number || result instanceof Boolean) {
+			return result;
+		}
+		if (result instanceof String text && text.length() <= maxResultLength) {
+			return text;
+		}
+		return null;
+	}
+
+	private void save(TaskStatusSnapshot snapshot) {
+		snapshot.setUpdatedAt(LocalDateTime.now());
+		entries.put(snapshot.getTaskId(), snapshot);
+		if (redisTemplate != null) {
+			try {
+				redisTemplate.opsForValue().set(REDIS_PREFIX + snapshot.getTaskId(),
+						objectMapper.writeValueAsString(snapshot), ttl);
+			} catch (Exception e) {
+				System.err.println("Cannot store task status in Redis: " + e.getMessage());
+			}
+		}
+	}
+
+	private Optional<TaskStatusSnapshot> findInRedis(String taskId) {
+		if (redisTemplate == null) {
+			return Optional.empty();
+		}
+		try {
+			String json = redisTemplate.opsForValue().get(REDIS_PREFIX + taskId);
+			return json == null ? Optional.empty()
+					: Optional.of(objectMapper.readValue(json, TaskStatusSnapshot.class));
+		} catch (Exception e) {
+			System.err.println("Cannot read task status from Redis: " + e.getMessage());
+			return Optional.empty();
+		}
+	}
+}
@@ -0,0 +1,39 @@
+package com.example.video.editor.service.subtitle;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/** Style "Default" dùng cho file ASS sinh phía server. Màu theo định dạng &HAABBGGRR. */
+@Getter
+@Builder
+public class AssStyle {
+	@Builder.Default
+	private final int playResX = 1920;
+	@Builder.Default
+	private final int playResY = 1080;
+	@Builder.Default
+	private final String fontName = "Arial";
+	@Builder.Default
+	private final int fontSize = 56;
+	@Builder.Default
+	private final String primaryColour = "&H00FFFFFF";
+	@Builder.Default
+	private final String outlineColour = "&H00000000";
+	@Builder.Default
+	private final String backColour = "&H80000000";
+	@Builder.Default
+	private final boolean bold = false;
+	@Builder.Default
+	private final int outline = 2;
+	@Builder.Default
+	private final int shadow = 0;
+	// 2 = giữa, phía dưới (numpad layout)
+	@Builder.Default
+	private final int alignment = 2;
+	@Builder.Default
+	private final int marginV = 60;
+
+	public static AssStyle defaults() {
+		return AssStyle.builder().build();
+	}
+}
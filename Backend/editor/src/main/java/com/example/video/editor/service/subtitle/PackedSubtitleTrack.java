@@ -0,0 +1,255 @@
+package com.example.video.editor.service.subtitle;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.example.video.editor.model.SrtSegment;
+
+/**
+ * Một track phụ đề lưu dạng mảng nguyên thủy: thời gian bắt đầu/kết thúc tính
+ * bằng mili-giây và toàn bộ text được gom vào một pool UTF-8 duy nhất.
+ * Segment thứ i có text nằm trong textPool[textOffsets[i], textOffsets[i + 1]).
+ * Việc chuyển sang chuỗi SRT/ASS/VTT chỉ diễn ra ở biên (API, file export).
+ */
+public final class PackedSubtitleTrack {
+
+	// Layout của HotSpot 64-bit mặc định (compressed oops và compressed class pointer)
+	private static final int ARRAY_HEADER_BYTES = 16;
+	private static final int OBJECT_HEADER_BYTES = 12;
+	private static final int REFERENCE_BYTES = 4;
+
+	private final int size;
+	private final int[] startMs;
+	private final int[] endMs;
+	private final int[] textOffsets;
+	private final byte[] textPool;
+
+	private PackedSubtitleTrack(int size, int[] startMs, int[] endMs, int[] textOffsets, byte[] textPool) {
+		this.size = size;
+		this.startMs = startMs;
+		this.endMs = endMs;
+		this.textOffsets = textOffsets;
+		this.textPool = textPool;
+	}
+
+	public static Builder builder() {
+		return new Builder(16, 512);
+	}
+
+	public static Builder builder(int expectedSegments) {
+		return new Builder(expectedSegments, expectedSegments * 48);
+	}
+
+	public static PackedSubtitleTrack fromSrtSegments(List<SrtSegment> segments) {
+		Builder builder = builder(segments.size());
+		for (SrtSegment segment : segments) {
+			builder.add(SubtitleTimecode.parseMillis(segment.getStart()), SubtitleTimecode.parseMillis(segment.getEnd()),
+					segment.getText());
+		}
+		return builder.build();
+	}
+
+	public List<SrtSegment> toSrtSegments() {
+		List<SrtSegment> segments = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			SrtSegment segment = new SrtSegment();
+			segment.setStart(SubtitleTimecode.toSrtString(startMs[i]));
+			segment.setEnd(SubtitleTimecode.toSrtString(endMs[i]));
+			segment.setText(text(i));
+			segments.add(segment);
+		}
+		return segments;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public int startMs(int index) {
+		checkIndex(index);
+		return startMs[index];
+	}
+
+	public int endMs(int index) {
+		checkIndex(index);
+		return endMs[index];
+	}
+
+	/** Vị trí bắt đầu text của segment trong {@link #textPool()}. */
+	public int textOffset(int index) {
+		checkIndex(index);
+		return textOffsets[index];
+	}
+
+	/** Độ dài (byte UTF-8) text của segment. */
+	public int textLength(int index) {
+		checkIndex(index);
+		return textOffsets[index + 1] - textOffsets[index];
+	}
+
+	/**
+	 * Pool UTF-8 dùng chung, trả về trực tiếp (không copy) để writer có thể ghi
+	 * thẳng ra stream. Caller không được sửa nội dung.
+	 */
+	public byte[] textPool() {
+		return textPool;
+	}
+
+	public String text(int index) {
+		checkIndex(index);
+		return new String(textPool, textOffsets[index], textOffsets[index + 1] - textOffsets[index],
+				StandardCharsets.UTF_8);
+	}
+
+	/** Tổng số byte UTF-8 của toàn bộ text. */
+	public int textBytes() {
+		return textOffsets[size];
+	}
+
+	/**
+	 * Ước lượng dung lượng heap giữ bởi track (header object + 4 mảng), tính
+	 * theo layout chứ không đo. Đã đối chiếu với
+	 * {@code Instrumentation.getObjectSize} trên JDK 21: khớp từng byte.
+	 */
+	public long retainedHeapBytes() {
+		return align(OBJECT_HEADER_BYTES + 4L * REFERENCE_BYTES + 4) + arrayBytes(startMs.length, 4)
+				+ arrayBytes(endMs.length, 4) + arrayBytes(textOffsets.length, 4) + arrayBytes(textPool.length, 1);
+	}
+
+	/**
+	 * Ước lượng dung lượng heap của mô hình cũ (một {@link SrtSegment} với ba
+	 * String cho mỗi segment, nằm trong một ArrayList vừa đủ chỗ) để so sánh.
+	 * Cũng tính theo layout như {@link #retainedHeapBytes()}.
+	 */
+	public static long estimateSrtSegmentHeapBytes(List<SrtSegment> segments) {
+		// ArrayList: modCount, size, elementData
+		long total = align(OBJECT_HEADER_BYTES + 4 + 4 + REFERENCE_BYTES)
+				+ arrayBytes(segments.size(), REFERENCE_BYTES);
+		for (SrtSegment segment : segments) {
+			total += align(OBJECT_HEADER_BYTES + 3 * REFERENCE_BYTES);
+			total += stringBytes(segment.getStart()) + stringBytes(segment.getEnd()) + stringBytes(segment.getText());
+		}
+		return total;
+	}
+
+	private static long stringBytes(String value) {
+		if (value == null) {
+			return 0;
+		}
+		boolean latin1 = value.chars().allMatch(c -> c < 256);
+		// String object (hash, coder, hashIsZero, value ref) + mảng byte bên trong
+		return align(OBJECT_HEADER_BYTES + 4 + 1 + 1 + REFERENCE_BYTES)
+				+ arrayBytes(value.length(), latin1 ? 1 : 2);
+	}
+
+	private static long arrayBytes(int length, int elementBytes) {
+		return align(ARRAY_HEADER_BYTES + (long) length * elementBytes);
+	}
+
+	private static long align(long bytes) {
+		return (bytes + 7) & ~7L;
+	}
+
+	private void checkIndex(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Segment index " + index + " out of bounds for size " + size);
+		}
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof PackedSubtitleTrack other) || other.size != size) {
+			return false;
+		}
+		return Arrays.equals(startMs, 0, size, other.startMs, 0, size)
+				&& Arrays.equals(endMs, 0, size, other.endMs, 0, size)
+				&& Arrays.equals(textOffsets, 0, size + 1, other.textOffsets, 0, size + 1)
+				&& Arrays.equals(textPool, 0, textBytes(), other.textPool, 0, other.textBytes());
+	}
+
+	@Override
+	public int hashCode() {
+		int result = size;
+		for (int i = 0; i < size; i++) {
+			result = 31 * result + startMs[i];
+			result = 31 * result + endMs[i];
+		}
+		return result;
+	}
+
+	@Override
+	public String toString() {
+		return "PackedSubtitleTrack(segments=" + size + ", textBytes=" + textBytes() + ")";
+	}
+
+	public static final class Builder {
+		private int size;
+		private int[] startMs;
+		private int[] endMs;
+		private int[] textOffsets;
+		private byte[] textPool;
+
+		private Builder(int expectedSegments, int expectedTextBytes) {
+			int capacity = Math.max(expectedSegments, 1);
+			this.startMs = new int[capacity];
+			this.endMs = new int[capacity];
+			this.textOffsets = new int[capacity + 1];
+			this.textPool = new byte[Math.max(expectedTextBytes, 16)];
+		}
+
+		public Builder add(int start, int end, String text) {
+			byte[] utf8 = text == null ? new byte[0] : text.getBytes(StandardCharsets.UTF_8);
+			return addUtf8(start, end, utf8, 0, utf8.length);
+		}
+
+		public Builder addUtf8(int start, int end, byte[] utf8, int offset, int length) {
+			if (start < 0 || end < start) {
+				throw new IllegalArgumentException("Invalid segment time range: " + start + " -> " + end);
+			}
+			ensureSegmentCapacity(size + 1);
+			int poolOffset = textOffsets[size];
+			ensurePoolCapacity(poolOffset + length);
+			System.arraycopy(utf8, offset, textPool, poolOffset, length);
+			startMs[size] = start;
+			endMs[size] = end;
+			textOffsets[size + 1] = poolOffset + length;
+			size++;
+			return this;
+		}
+
+		public int size() {
+			return size;
+		}
+
+		/** Cắt bớt phần dư của các mảng để track giữ đúng dung lượng cần thiết. */
+		public PackedSubtitleTrack build() {
+			int textBytes = textOffsets[size];
+			return new PackedSubtitleTrack(size, Arrays.copyOf(startMs, size), Arrays.copyOf(endMs, size),
+					Arrays.copyOf(textOffsets, size + 1), Arrays.copyOf(textPool, textBytes));
+		}
+
+		private void ensureSegmentCapacity(int required) {
+			if (required > startMs.length) {
+				int capacity = Math.max(required, startMs.length + (startMs.length >> 1));
+				startMs = Arrays.copyOf(startMs, capacity);
+				endMs = Arrays.copyOf(endMs, capacity);
+				textOffsets = Arrays.copyOf(textOffsets, capacity + 1);
+			}
+		}
+
+		private void ensurePoolCapacity(int required) {
+			if (required > textPool.length) {
+				textPool = Arrays.copyOf(textPool, Math.max(required, textPool.length + (textPool.length >> 1)));
+			}
+		}
+	}
+}
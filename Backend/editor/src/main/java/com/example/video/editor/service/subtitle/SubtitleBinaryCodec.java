@@ -0,0 +1,142 @@
+package com.example.video.editor.service.subtitle;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Mã hóa nhị phân gọn cho {@link PackedSubtitleTrack}, dùng để lưu trữ và truyền
+ * tải.
+ *
+ * <pre>
+ * magic "SUBT" | version (1 byte) | count (varint)
+ * mỗi segment: startDelta (zigzag varint, so với start của segment trước)
+ *              duration (varint) | textLength (varint) | text (UTF-8)
+ * </pre>
+ */
+public final class SubtitleBinaryCodec {
+
+	public static final String CONTENT_TYPE = "application/x-subtitle-track";
+
+	private static final byte[] MAGIC = { 'S', 'U', 'B', 'T' };
+	private static final int VERSION = 1;
+
+	private SubtitleBinaryCodec() {
+	}
+
+	public static byte[] encode(PackedSubtitleTrack track) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream(16 + track.size() * 6 + track.textBytes());
+		try {
+			encode(track, out);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return out.toByteArray();
+	}
+
+	public static void encode(PackedSubtitleTrack track, OutputStream out) throws IOException {
+		byte[] scratch = new byte[15];
+		out.write(MAGIC);
+		out.write(VERSION);
+		out.write(scratch, 0, writeVarint(track.size(), scratch, 0));
+		byte[] pool = track.textPool();
+		int previousStart = 0;
+		for (int i = 0; i < track.size(); i++) {
+			int start = track.startMs(i);
+			int len = writeVarint(zigzag(start - previousStart), scratch, 0);
+			len = writeVarint(track.endMs(i) - start, scratch, len);
+			len = writeVarint(track.textLength(i), scratch, len);
+			out.write(scratch, 0, len);
+			out.write(pool, track.textOffset(i), track.textLength(i));
+			previousStart = start;
+		}
+	}
+
+	public static PackedSubtitleTrack decode(byte[] data) {
+		try {
+			return decode(new ByteArrayInputStream(data));
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Invalid subtitle track encoding: " + e.getMessage(), e);
+		}
+	}
+
+	public static PackedSubtitleTrack decode(InputStream in) throws IOException {
+		for (byte b : MAGIC) {
+			if (readByte(in) != b) {
+				throw new IOException("Bad magic header");
+			}
+		}
+		int version = readByte(in);
+		if (version != VERSION) {
+			throw new IOException("Unsupported subtitle track version " + version);
+		}
+		int count = readVarint(in);
+		PackedSubtitleTrack.Builder builder = PackedSubtitleTrack.builder(Math.min(count, 1 << 16));
+		byte[] text = new byte[256];
+		int previousStart = 0;
+		for (int i = 0; i < count; i++) {
+			int start = previousStart + unzigzag(readVarint(in));
+			int end = start + readVarint(in);
+			int textLength = readVarint(in);
+			if (textLength > text.length) {
+				text = new byte[Math.max(textLength, text.length * 2)];
+			}
+			readFully(in, text, textLength);
+			builder.addUtf8(start, end, text, 0, textLength);
+			previousStart = start;
+		}
+		return builder.build();
+	}
+
+	private static int writeVarint(int value, byte[] buf, int pos) {
+		while ((value & ~0x7F) != 0) {
+			buf[pos++] = (byte) ((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		buf[pos++] = (byte) value;
+		return pos;
+	}
+
+	private static int readVarint(InputStream in) throws IOException {
+		int result = 0;
+		for (int shift = 0; shift < 35; shift += 7) {
+			int b = readByte(in);
+			result |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return result;
+			}
+		}
+		throw new IOException("Malformed varint");
+	}
+
+	private static int zigzag(int value) {
+		return (value << 1) ^ (value >> 31);
+	}
+
+	private static int unzigzag(int value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	private static int readByte(InputStream in) throws IOException {
+		int b = in.read();
+		if (b < 0) {
+			throw new EOFException("Unexpected end of subtitle track data");
+		}
+		return b;
+	}
+
+	private static void readFully(InputStream in, byte[] buf, int length) throws IOException {
+		int read = 0;
+		while (read < length) {
+			int n = in.read(buf, read, length - read);
+			if (n < 0) {
+				throw new EOFException("Unexpected end of subtitle track data");
+			}
+			read += n;
+		}
+	}
+}
@@ -0,0 +1,33 @@
+package com.example.video.editor.service.subtitle;
+
+import java.util.Locale;
+
+public enum SubtitleFormat {
+	SRT("application/x-subrip", "srt"),
+	VTT("text/vtt", "vtt"),
+	ASS("text/x-ssa", "ass");
+
+	private final String contentType;
+	private final String extension;
+
+	SubtitleFormat(String contentType, String extension) {
+		this.contentType = contentType;
+		this.extension = extension;
+	}
+
+	public String getContentType() {
+		return contentType;
+	}
+
+	public String getExtension() {
+		return extension;
+	}
+
+	public static SubtitleFormat fromString(String value) {
+		try {
+			return SubtitleFormat.valueOf(value.trim().toUpperCase(Locale.ROOT));
+		} catch (IllegalArgumentException | NullPointerException e) {
+			throw new IllegalArgumentException("Unsupported subtitle format: " + value);
+		}
+	}
+}
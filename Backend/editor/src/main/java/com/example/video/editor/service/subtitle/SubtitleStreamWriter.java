@@ -0,0 +1,203 @@
+package com.example.video.editor.service.subtitle;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Ghi một {@link PackedSubtitleTrack} ra SRT, WebVTT hoặc ASS trực tiếp vào
+ * {@link OutputStream}. Writer tự đệm vào một buffer byte tái sử dụng; vòng lặp
+ * từng segment không cấp phát object nào (timecode được format thẳng vào
+ * buffer, text được copy từ pool UTF-8 của track).
+ *
+ * Một instance không thread-safe; có thể dùng lại cho nhiều track liên tiếp.
+ */
+public class SubtitleStreamWriter {
+
+	private static final int DEFAULT_BUFFER_SIZE = 16 * 1024;
+	// Đủ cho số thứ tự + 2 timecode + phần prefix "Dialogue: ..." của một dòng
+	private static final int MAX_LINE_OVERHEAD = 96;
+
+	private static final byte[] ARROW = " --> ".getBytes(StandardCharsets.US_ASCII);
+	private static final byte[] VTT_HEADER = "WEBVTT\n\n".getBytes(StandardCharsets.US_ASCII);
+	private static final byte[] ASS_DIALOGUE = "Dialogue: 0,".getBytes(StandardCharsets.US_ASCII);
+	private static final byte[] ASS_DIALOGUE_STYLE = ",Default,,0,0,0,,".getBytes(StandardCharsets.US_ASCII);
+	private static final byte[] ASS_NEWLINE = { '\\', 'N' };
+	private static final byte[] NEWLINE = { '\n' };
+	private static final byte[] EMPTY = {};
+	private static final byte[] VTT_AMP = "&amp;".getBytes(StandardCharsets.US_ASCII);
+	private static final byte[] VTT_LT = "&lt;".getBytes(StandardCharsets.US_ASCII);
+	private static final byte[] VTT_GT = "&gt;".getBytes(StandardCharsets.US_ASCII);
+	// libass (FFmpeg dùng khi burn phụ đề) đọc \{ và \} là dấu ngoặc thường, không mở override tag
+	private static final byte[] ASS_LBRACE = { '\\', '{' };
+	private static final byte[] ASS_RBRACE = { '\\', '}' };
+	// Chèn WORD JOINER (U+2060) sau '\' để text như "\N" hay "\h" của người dùng không thành lệnh ASS
+	private static final byte[] ASS_BACKSLASH = { '\\', (byte) 0xE2, (byte) 0x81, (byte) 0xA0 };
+
+	private final byte[] buffer;
+	private int position;
+
+	public SubtitleStreamWriter() {
+		this(DEFAULT_BUFFER_SIZE);
+	}
+
+	public SubtitleStreamWriter(int bufferSize) {
+		this.buffer = new byte[Math.max(bufferSize, MAX_LINE_OVERHEAD * 2)];
+	}
+
+	public void write(PackedSubtitleTrack track, SubtitleFormat format, OutputStream out) throws IOException {
+		write(track, format, AssStyle.defaults(), out);
+	}
+
+	public void write(PackedSubtitleTrack track, SubtitleFormat format, AssStyle style, OutputStream out)
+			throws IOException {
+		position = 0;
+		switch (format) {
+		case SRT -> writeSrt(track, out);
+		case VTT -> writeVtt(track, out);
+		case ASS -> writeAss(track, style, out);
+		}
+		flush(out);
+	}
+
+	private void writeSrt(PackedSubtitleTrack track, OutputStream out) throws IOException {
+		byte[] pool = track.textPool();
+		for (int i = 0; i < track.size(); i++) {
+			ensureCapacity(MAX_LINE_OVERHEAD, out);
+			position = SubtitleTimecode.writeUnpadded(i + 1, buffer, position);
+			buffer[position++] = '\n';
+			position += SubtitleTimecode.formatSrt(track.startMs(i), buffer, position);
+			putAscii(ARROW);
+			position += SubtitleTimecode.formatSrt(track.endMs(i), buffer, position);
+			buffer[position++] = '\n';
+			writeText(pool, track.textOffset(i), track.textLength(i), SubtitleFormat.SRT, out);
+			ensureCapacity(2, out);
+			buffer[position++] = '\n';
+			buffer[position++] = '\n';
+		}
+	}
+
+	private void writeVtt(PackedSubtitleTrack track, OutputStream out) throws IOException {
+		putAscii(VTT_HEADER);
+		byte[] pool = track.textPool();
+		for (int i = 0; i < track.size(); i++) {
+			ensureCapacity(MAX_LINE_OVERHEAD, out);
+			position += SubtitleTimecode.formatVtt(track.startMs(i), buffer, position);
+			putAscii(ARROW);
+			position += SubtitleTimecode.formatVtt(track.endMs(i), buffer, position);
+			buffer[position++] = '\n';
+			writeText(pool, track.textOffset(i), track.textLength(i), SubtitleFormat.VTT, out);
+			ensureCapacity(2, out);
+			buffer[position++] = '\n';
+			buffer[position++] = '\n';
+		}
+	}
+
+	private void writeAss(PackedSubtitleTrack track, AssStyle style, OutputStream out) throws IOException {
+		writeHeaderBytes(assHeader(style), out);
+		byte[] pool = track.textPool();
+		for (int i = 0; i < track.size(); i++) {
+			ensureCapacity(MAX_LINE_OVERHEAD, out);
+			putAscii(ASS_DIALOGUE);
+			position += SubtitleTimecode.formatAss(track.startMs(i), buffer, position);
+			buffer[position++] = ',';
+			position += SubtitleTimecode.formatAss(track.endMs(i), buffer, position);
+			putAscii(ASS_DIALOGUE_STYLE);
+			writeText(pool, track.textOffset(i), track.textLength(i), SubtitleFormat.ASS, out);
+			ensureCapacity(1, out);
+			buffer[position++] = '\n';
+		}
+	}
+
+	/**
+	 * Copy text UTF-8 vào buffer, xử lý ký tự đặc biệt theo từng định dạng: VTT
+	 * escape &amp;, &lt;, &gt;; ASS escape ngoặc nhọn và dấu '\' để text của người
+	 * dùng không chèn được override tag. Các byte ASCII không bao giờ xuất hiện
+	 * bên trong một chuỗi multi-byte UTF-8 nên có thể quét theo từng byte.
+	 */
+	private void writeText(byte[] pool, int offset, int length, SubtitleFormat format, OutputStream out)
+			throws IOException {
+		int end = offset + length;
+		// Bỏ xuống dòng ở cuối text để không sinh cue rỗng
+		while (end > offset && (pool[end - 1] == '\n' || pool[end - 1] == '\r')) {
+			end--;
+		}
+		int runStart = offset;
+		for (int i = offset; i < end; i++) {
+			byte b = pool[i];
+			byte[] replacement;
+			if (b == '\r') {
+				replacement = EMPTY;
+			} else if (b == '\n') {
+				replacement = format == SubtitleFormat.ASS ? ASS_NEWLINE : NEWLINE;
+			} else if (format == SubtitleFormat.VTT && (b == '&' || b == '<' || b == '>')) {
+				replacement = b == '&' ? VTT_AMP : b == '<' ? VTT_LT : VTT_GT;
+			} else if (format == SubtitleFormat.ASS && (b == '{' || b == '}' || b == '\\')) {
+				replacement = b == '{' ? ASS_LBRACE : b == '}' ? ASS_RBRACE : ASS_BACKSLASH;
+			} else {
+				continue;
+			}
+			put(pool, runStart, i - runStart, out);
+			put(replacement, 0, replacement.length, out);
+			runStart = i + 1;
+		}
+		put(pool, runStart, end - runStart, out);
+	}
+
+	private static byte[] assHeader(AssStyle style) {
+		String header = "[Script Info]\n"
+				+ "ScriptType: v4.00+\n"
+				+ "WrapStyle: 0\n"
+				+ "ScaledBorderAndShadow: yes\n"
+				+ "PlayResX: " + style.getPlayResX() + "\n"
+				+ "PlayResY: " + style.getPlayResY() + "\n\n"
+				+ "[V4+ Styles]\n"
+				+ "Format: Name, Fontname, Fontsize, PrimaryColour, SecondaryColour, OutlineColour, BackColour, Bold, "
+				+ "Italic, Underline, StrikeOut, ScaleX, ScaleY, Spacing, Angle, BorderStyle, Outline, Shadow, "
+				+ "Alignment, MarginL, MarginR, MarginV, Encoding\n"
+				+ "Style: Default," + style.getFontName() + "," + style.getFontSize() + "," + style.getPrimaryColour()
+				+ ",&H000000FF," + style.getOutlineColour() + "," + style.getBackColour() + ","
+				+ (style.isBold() ? -1 : 0) + ",0,0,0,100,100,0,0,1," + style.getOutline() + "," + style.getShadow()
+				+ "," + style.getAlignment() + ",20,20," + style.getMarginV() + ",1\n\n"
+				+ "[Events]\n"
+				+ "Format: Layer, Start, End, Style, Name, MarginL, MarginR, MarginV, Effect, Text\n";
+		return header.getBytes(StandardCharsets.UTF_8);
+	}
+
+	private void writeHeaderBytes(byte[] bytes, OutputStream out) throws IOException {
+		put(bytes, 0, bytes.length, out);
+	}
+
+	private void putAscii(byte[] bytes) {
+		System.arraycopy(bytes, 0, buffer, position, bytes.length);
+		position += bytes.length;
+	}
+
+	private void put(byte[] src, int offset, int length, OutputStream out) throws IOException {
+		if (length <= 0) {
+			return;
+		}
+		if (length > buffer.length - position) {
+			flush(out);
+			if (length > buffer.length) {
+				out.write(src, offset, length);
+				return;
+			}
+		}
+		System.arraycopy(src, offset, buffer, position, length);
+		position += length;
+	}
+
+	private void ensureCapacity(int bytes, OutputStream out) throws IOException {
+		if (buffer.length - position < bytes) {
+			flush(out);
+		}
+	}
+
+	private void flush(OutputStream out) throws IOException {
+		if (position > 0) {
+			out.write(buffer, 0, position);
+			position = 0;
+		}
+	}
+}
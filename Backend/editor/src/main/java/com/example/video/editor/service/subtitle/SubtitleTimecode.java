@@ -0,0 +1,157 @@
+package com.example.video.editor.service.subtitle;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Chuyển đổi giữa mốc thời gian dạng chuỗi (SRT/VTT/ASS) và số mili-giây.
+ * Các hàm format ghi thẳng vào buffer byte ASCII do caller cấp để có thể tái sử
+ * dụng buffer trên hot path.
+ */
+public final class SubtitleTimecode {
+
+	/** "HH:MM:SS,mmm" - 12 ký tự (giờ có thể nhiều hơn 2 chữ số). */
+	public static final int SRT_LENGTH = 12;
+	/** "HH:MM:SS.mmm" */
+	public static final int VTT_LENGTH = 12;
+	/** "H:MM:SS.cc" */
+	public static final int ASS_LENGTH = 10;
+
+	private SubtitleTimecode() {
+	}
+
+	/**
+	 * Parse các dạng "HH:MM:SS,mmm", "HH:MM:SS.mmm", "MM:SS.mmm", "H:MM:SS.cc" hoặc
+	 * số giây thuần ("83.5").
+	 */
+	public static int parseMillis(CharSequence value) {
+		if (value == null) {
+			throw new IllegalArgumentException("Timecode is null");
+		}
+		int begin = 0;
+		int len = value.length();
+		while (begin < len && Character.isWhitespace(value.charAt(begin))) {
+			begin++;
+		}
+		while (len > begin && Character.isWhitespace(value.charAt(len - 1))) {
+			len--;
+		}
+		long fields = 0; // giá trị tích lũy của phần H:M:S
+		long current = 0;
+		int fraction = 0;
+		int fractionDigits = 0;
+		boolean inFraction = false;
+		boolean sawDigit = false;
+		for (int i = begin; i < len; i++) {
+			char c = value.charAt(i);
+			if (c >= '0' && c <= '9') {
+				sawDigit = true;
+				if (inFraction) {
+					if (fractionDigits < 3) {
+						fraction = fraction * 10 + (c - '0');
+						fractionDigits++;
+					}
+				} else {
+					current = current * 10 + (c - '0');
+				}
+			} else if (c == ':' && !inFraction) {
+				fields = (fields + current) * 60;
+				current = 0;
+			} else if ((c == ',' || c == '.') && !inFraction) {
+				inFraction = true;
+			} else {
+				throw new IllegalArgumentException("Invalid timecode: " + value);
+			}
+		}
+		if (!sawDigit) {
+			throw new IllegalArgumentException("Invalid timecode: " + value);
+		}
+		while (fractionDigits < 3) {
+			fraction *= 10;
+			fractionDigits++;
+		}
+		long millis = (fields + current) * 1000 + fraction;
+		if (millis > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Timecode out of range: " + value);
+		}
+		return (int) millis;
+	}
+
+	/** Ghi "HH:MM:SS,mmm" vào buf tại offset, trả về số byte đã ghi. */
+	public static int formatSrt(int millis, byte[] buf, int offset) {
+		return formatClock(millis, buf, offset, (byte) ',');
+	}
+
+	/** Ghi "HH:MM:SS.mmm" vào buf tại offset, trả về số byte đã ghi. */
+	public static int formatVtt(int millis, byte[] buf, int offset) {
+		return formatClock(millis, buf, offset, (byte) '.');
+	}
+
+	/** Ghi "H:MM:SS.cc" (centi-giây) vào buf tại offset, trả về số byte đã ghi. */
+	public static int formatAss(int millis, byte[] buf, int offset) {
+		if (millis < 0) {
+			millis = 0;
+		}
+		int centis = millis / 10;
+		int hours = centis / 360000;
+		int pos = offset;
+		pos = writeUnpadded(hours, buf, pos);
+		buf[pos++] = ':';
+		pos = write2(centis / 6000 % 60, buf, pos);
+		buf[pos++] = ':';
+		pos = write2(centis / 100 % 60, buf, pos);
+		buf[pos++] = '.';
+		pos = write2(centis % 100, buf, pos);
+		return pos - offset;
+	}
+
+	public static String toSrtString(int millis) {
+		byte[] buf = new byte[SRT_LENGTH + 8];
+		int len = formatSrt(millis, buf, 0);
+		return new String(buf, 0, len, StandardCharsets.US_ASCII);
+	}
+
+	private static int formatClock(int millis, byte[] buf, int offset, byte separator) {
+		if (millis < 0) {
+			millis = 0;
+		}
+		int hours = millis / 3600000;
+		int pos = offset;
+		if (hours < 100) {
+			pos = write2(hours, buf, pos);
+		} else {
+			pos = writeUnpadded(hours, buf, pos);
+		}
+		buf[pos++] = ':';
+		pos = write2(millis / 60000 % 60, buf, pos);
+		buf[pos++] = ':';
+		pos = write2(millis / 1000 % 60, buf, pos);
+		buf[pos++] = separator;
+		int ms = millis % 1000;
+		buf[pos++] = (byte) ('0' + ms / 100);
+		buf[pos++] = (byte) ('0' + ms / 10 % 10);
+		buf[pos++] = (byte) ('0' + ms % 10);
+		return pos - offset;
+	}
+
+	private static int write2(int value, byte[] buf, int pos) {
+		buf[pos] = (byte) ('0' + value / 10);
+		buf[pos + 1] = (byte) ('0' + value % 10);
+		return pos + 2;
+	}
+
+	static int writeUnpadded(int value, byte[] buf, int pos) {
+		if (value == 0) {
+			buf[pos] = '0';
+			return pos + 1;
+		}
+		int digits = 0;
+		for (int v = value; v > 0; v /= 10) {
+			digits++;
+		}
+		for (int i = pos + digits - 1; i >= pos; i--) {
+			buf[i] = (byte) ('0' + value % 10);
+			value /= 10;
+		}
+		return pos + digits;
+	}
+}
@@ -0,0 +1,43 @@
+package com.example.video.editor.service.translation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.example.video.editor.client.TranslationClient;
+import com.example.video.editor.dto.TranslationRequest;
+import com.example.video.editor.dto.TranslationResponse;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Gọi dịch vụ dịch tương thích LibreTranslate (POST /translate với q là mảng)
+ * tại translation.url. Đây là backend mặc định khi không khai báo
+ * translation.backend.
+ */
+@Component
+@ConditionalOnProperty(name = "translation.backend", havingValue = "remote", matchIfMissing = true)
+@RequiredArgsConstructor
+public class RemoteTranslationBackend implements TranslationBackend {
+	private static final int CHUNK_SIZE = 100;
+
+	private final TranslationClient translationClient;
+
+	@Override
+	public List<String> translate(List<String> texts, String sourceLanguage, String targetLanguage) {
+		List<String> translated = new ArrayList<>(texts.size());
+		for (int from = 0; from < texts.size(); from += CHUNK_SIZE) {
+			List<String> chunk = texts.subList(from, Math.min(from + CHUNK_SIZE, texts.size()));
+			TranslationResponse response = translationClient
+					.translate(new TranslationRequest(chunk, sourceLanguage, targetLanguage, "text"));
+			if (response == null || response.getTranslatedText() == null
+					|| response.getTranslatedText().size() != chunk.size()) {
+				throw new IllegalStateException("Translation service returned an invalid response for " + targetLanguage);
+			}
+			translated.addAll(response.getTranslatedText());
+		}
+		return translated;
+	}
+}
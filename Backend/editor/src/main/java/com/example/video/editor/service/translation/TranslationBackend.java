@@ -0,0 +1,13 @@
+package com.example.video.editor.service.translation;
+
+import java.util.List;
+
+/**
+ * Backend dịch text của segment phụ đề. Kết quả phải cùng số phần tử và cùng
+ * thứ tự với đầu vào. Chọn bằng translation.backend, hiện chỉ có "remote" (mặc
+ * định). Không có backend giả trong bản build để bản dịch giả không bao giờ bị
+ * cache/lưu như thật.
+ */
+public interface TranslationBackend {
+	List<String> translate(List<String> texts, String sourceLanguage, String targetLanguage);
+}
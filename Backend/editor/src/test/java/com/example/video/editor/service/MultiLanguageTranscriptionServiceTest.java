@@ -0,0 +1,122 @@
+package com.example.video.editor.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import com.example.video.editor.dto.MultiLanguageTranscriptionRequest;
+import com.example.video.editor.model.SrtSegment;
+import com.example.video.editor.service.audio.SilenceSkippingTranscriber;
+import com.example.video.editor.service.progess.CancellationToken;
+import com.example.video.editor.service.progess.TaskExecutors;
+import com.example.video.editor.service.translation.StubTranslationBackend;
+
+class MultiLanguageTranscriptionServiceTest {
+
+	private static final String URL = "https://example.com/video.mp4";
+
+	private final SilenceSkippingTranscriber transcriber = mock(SilenceSkippingTranscriber.class);
+	private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(
+			MultiLanguageTranscriptionService.TRANSCRIPT_CACHE, MultiLanguageTranscriptionService.TRANSLATION_CACHE);
+
+	MultiLanguageTranscriptionServiceTest() {
+		when(transcriber.transcribe(any(), any(), any())).thenReturn(List.of(
+				segment("00:00:01,000", "00:00:02,500", "xin chào"), segment("00:00:03,000", "00:00:04,000", "tạm biệt")));
+	}
+
+	@Test
+	void translatesOnceAndSendsEachLanguageAsItFinishes() throws Exception {
+		StubTranslationBackend backend = new StubTranslationBackend();
+
+		Run run = run(backend, "EN", "de", "vi");
+
+		assertNull(run.error);
+		assertEquals(List.of("en", "de", "vi"), List.copyOf(run.result.keySet()));
+		assertEquals(run.result.keySet(), run.partials.keySet());
+		assertEquals("[en] xin chào", run.result.get("en").get(0).getText());
+		assertEquals("00:00:02,500", run.result.get("de").get(0).getEnd());
+		// Ngôn ngữ gốc dùng luôn bản transcribe, không gọi backend
+		assertEquals("tạm biệt", run.result.get("vi").get(1).getText());
+		assertEquals(2, backend.calls());
+		verify(transcriber, times(1)).transcribe(any(), any(), any());
+	}
+
+	@Test
+	void reusesCachedTranscriptAndTranslations() throws Exception {
+		StubTranslationBackend backend = new StubTranslationBackend();
+		run(backend, "en");
+
+		Run cached = run(backend, "en");
+		assertEquals("[en] xin chào", cached.result.get("en").get(0).getText());
+		assertEquals(1, backend.calls());
+
+		run(backend, "en", "de");
+		// Chỉ ngôn ngữ chưa có trong cache được dịch; audio chỉ transcribe một lần
+		assertEquals(2, backend.calls());
+		verify(transcriber, times(1)).transcribe(any(), any(), any());
+	}
+
+	@Test
+	void failedLanguageDoesNotFailTheOthers() throws Exception {
+		Run run = run(new StubTranslationBackend("fr"), "en", "fr");
+
+		assertNull(run.error);
+		assertEquals(List.of("en"), List.copyOf(run.result.keySet()));
+		assertTrue(run.message.contains("fr"), run.message);
+		assertNull(cacheManager.getCache(MultiLanguageTranscriptionService.TRANSLATION_CACHE).get(URL + "|vi|fr"));
+		assertNotNull(cacheManager.getCache(MultiLanguageTranscriptionService.TRANSLATION_CACHE).get(URL + "|vi|en"));
+
+		Run allFailed = run(new StubTranslationBackend("fr"), "fr");
+		assertEquals("TRANSLATION_FAILED", allFailed.error);
+		assertNull(allFailed.result);
+	}
+
+	private Run run(StubTranslationBackend backend, String... targets) throws Exception {
+		MultiLanguageTranscriptionService service = new MultiLanguageTranscriptionService(transcriber, backend,
+				mock(SubtitleTrackService.class), cacheManager, new TaskExecutors(1));
+		MultiLanguageTranscriptionRequest request = new MultiLanguageTranscriptionRequest();
+		request.setUrl(URL);
+		request.setSourceLanguage("vi");
+		request.setTargetLanguages(List.of(targets));
+		Run run = new Run();
+		service.executeWithPartialResults(CancellationToken.none(), (progress, message) -> {
+		}, run.partials::put, (result, message) -> {
+			run.result = castResult(result);
+			run.message = message;
+		}, (error, message) -> run.error = error, request);
+		return run;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Map<String, List<SrtSegment>> castResult(Object result) {
+		return (Map<String, List<SrtSegment>>) result;
+	}
+
+	private static SrtSegment segment(String start, String end, String text) {
+		SrtSegment segment = new SrtSegment();
+		segment.setStart(start);
+		segment.setEnd(end);
+		segment.setText(text);
+		return segment;
+	}
+
+	private static class Run {
+		final Map<String, Object> partials = new ConcurrentHashMap<>();
+		Map<String, List<SrtSegment>> result;
+		String message;
+		String error;
+	}
+}
@@ -0,0 +1,136 @@
+package com.example.video.editor.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import com.example.video.editor.dto.ProjectPageDto;
+import com.example.video.editor.dto.ProjectSort;
+import com.example.video.editor.dto.ProjectSummaryDto;
+import com.example.video.editor.mapstruct.ProjectMapper;
+import com.example.video.editor.model.Project;
+import com.example.video.editor.model.Workspace;
+import com.example.video.editor.repository.ProjectRepository;
+
+@DataJpaTest
+class ProjectServiceTest {
+
+	private static final LocalDateTime UPDATED_AT = LocalDateTime.of(2020, 1, 1, 12, 0);
+
+	@Configuration
+	@EntityScan(basePackageClasses = Workspace.class)
+	@EnableJpaRepositories(basePackageClasses = ProjectRepository.class)
+	@Import(ProjectService.class)
+	static class Config {
+	}
+
+	@MockitoBean
+	private ProjectMapper projectMapper;
+
+	@MockitoBean
+	private StorageUsageService storageUsageService;
+
+	@Autowired
+	private ProjectService projectService;
+
+	@Autowired
+	private ProjectRepository projectRepository;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	private Workspace workspace;
+
+	@BeforeEach
+	void createWorkspace() {
+		workspace = entityManager.persist(Workspace.builder().workspaceName("ws").createdAt(UPDATED_AT)
+				.updatedAt(UPDATED_AT).build());
+	}
+
+	@Test
+	void cursorWalksEveryProjectOnceWhenUpdatedAtTies() {
+		for (int i = 0; i < 5; i++) {
+			persist("project-" + i, UPDATED_AT);
+		}
+		persist("newest", UPDATED_AT.plusMinutes(1));
+
+		List<String> names = new ArrayList<>();
+		String cursor = null;
+		do {
+			ProjectPageDto page = projectService.listProjects(workspace.getPublicId(), ProjectSort.UPDATED, null,
+					cursor, 2);
+			page.getItems().stream().map(ProjectSummaryDto::getProjectName).forEach(names::add);
+			cursor = page.getNextCursor();
+		} while (cursor != null);
+
+		// Cùng updated_at thì project_id giảm dần
+		assertEquals(List.of("newest", "project-4", "project-3", "project-2", "project-1", "project-0"), names);
+	}
+
+	@Test
+	void namePrefixMatchesPercentAndUnderscoreLiterally() {
+		persist("50%_off", UPDATED_AT);
+		persist("50%xoff", UPDATED_AT);
+		persist("50_x", UPDATED_AT);
+		persist("50ax", UPDATED_AT);
+		persist("50!x", UPDATED_AT);
+
+		assertEquals(List.of("50%_off"), names("50%_"));
+		assertEquals(List.of("50_x"), names("50_"));
+		assertEquals(List.of("50!x"), names("50!"));
+		assertEquals(5, names("50").size());
+	}
+
+	@Test
+	void lastPageHasNoCursor() {
+		persist("only", UPDATED_AT);
+
+		ProjectPageDto page = projectService.listProjects(workspace.getPublicId(), ProjectSort.NAME, null, null, 1);
+
+		assertEquals(1, page.getItems().size());
+		assertNull(page.getNextCursor());
+	}
+
+	@Test
+	void renameMovesProjectToTheTopOfTheUpdatedList() throws Exception {
+		Project older = persist("older", UPDATED_AT);
+		persist("newer", UPDATED_AT.plusMinutes(1));
+
+		projectService.reName(older.getPublicId(), "renamed");
+		entityManager.flush();
+		entityManager.clear();
+
+		Project renamed = projectRepository.findByPublicId(older.getPublicId()).orElseThrow();
+		assertTrue(renamed.getUpdatedAt().isAfter(UPDATED_AT.plusMinutes(1)));
+		ProjectPageDto page = projectService.listProjects(workspace.getPublicId(), ProjectSort.UPDATED, null,
+				null, 1);
+		assertEquals("renamed", page.getItems().get(0).getProjectName());
+	}
+
+	private Project persist(String name, LocalDateTime updatedAt) {
+		Project project = entityManager.persist(Project.builder().workspace(workspace).projectName(name)
+				.createdAt(updatedAt).updatedAt(updatedAt).build());
+		entityManager.flush();
+		return project;
+	}
+
+	private List<String> names(String prefix) {
+		return projectService.listProjects(workspace.getPublicId(), ProjectSort.NAME, prefix, null, 100).getItems()
+				.stream().map(ProjectSummaryDto::getProjectName).toList();
+	}
+}
@@ -0,0 +1,128 @@
+package com.example.video.editor.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import com.cloudinary.Cloudinary;
+import com.cloudinary.Uploader;
+import com.example.video.editor.model.Project;
+import com.example.video.editor.model.Role;
+import com.example.video.editor.model.User;
+import com.example.video.editor.model.UserStatus;
+import com.example.video.editor.model.Video;
+import com.example.video.editor.model.Workspace;
+import com.example.video.editor.repository.UserRepository;
+
+@DataJpaTest
+class StorageUsageServiceTest {
+
+	@Configuration
+	@EntityScan(basePackageClasses = User.class)
+	@EnableJpaRepositories(basePackageClasses = UserRepository.class)
+	@Import({ StorageUsageService.class, VideoService.class })
+	static class Config {
+		@Bean
+		CacheManager cacheManager() {
+			return new ConcurrentMapCacheManager(StorageUsageService.CACHE_NAME);
+		}
+	}
+
+	@MockitoBean
+	private Cloudinary cloudinary;
+
+	@Autowired
+	private StorageUsageService storageUsageService;
+
+	@Autowired
+	private VideoService videoService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	private Long userId;
+	private String projectPublicId;
+
+	@BeforeEach
+	void createUserWithProject() {
+		when(cloudinary.uploader()).thenReturn(mock(Uploader.class));
+		Role role = entityManager.persist(Role.builder().roleName("USER").build());
+		Workspace workspace = Workspace.builder().workspaceName("ws").build();
+		User user = entityManager.persist(User.builder().username("owner").email("owner@example.com")
+				.status(UserStatus.ACTIVE).role(role).workspace(workspace).build());
+		Project project = entityManager.persist(Project.builder().workspace(workspace).projectName("p").build());
+		userId = user.getUserId();
+		projectPublicId = project.getPublicId();
+		clear();
+	}
+
+	@Test
+	void replacingAndDeletingVideosAdjustsTheOwnersCounter() throws Exception {
+		videoService.attachToProject(projectPublicId, video("v1", 100));
+		clear();
+		assertEquals(100, usedBytes());
+
+		// Video cũ bị thay: chỉ tính phần chênh lệch
+		videoService.attachToProject(projectPublicId, video("v2", 250));
+		clear();
+		assertEquals(250, usedBytes());
+
+		videoService.deleteVideoFromCloudinary("v2");
+		clear();
+		assertEquals(0, usedBytes());
+	}
+
+	@Test
+	void resetClearsTheCounter() {
+		userRepository.setUsedBytes(userId, 4_096);
+
+		storageUsageService.reset(userId);
+
+		assertEquals(0, usedBytes());
+	}
+
+	@Test
+	void reconcileFixesDriftButNotACounterThatChangedMeanwhile() throws Exception {
+		videoService.attachToProject(projectPublicId, video("v1", 100));
+		userRepository.setUsedBytes(userId, 999);
+		clear();
+
+		// Bộ đếm đã đổi (upload khác chen vào) sau lúc tính: lần sửa dựa trên giá trị cũ bị bỏ qua
+		assertEquals(0, userRepository.correctUsedBytes(userId, 5, 100));
+		assertEquals(999, usedBytes());
+
+		storageUsageService.reconcile();
+		assertEquals(100, usedBytes());
+	}
+
+	private long usedBytes() {
+		return userRepository.findUsedBytesByUserId(userId).orElseThrow();
+	}
+
+	private void clear() {
+		entityManager.flush();
+		entityManager.clear();
+	}
+
+	private static Video video(String publicId, long bytes) {
+		return Video.builder().title(publicId).cloudinaryPublicId(publicId).url("http://cdn/" + publicId)
+				.secureUrl("https://cdn/" + publicId).resourceType("video").format("mp4").bytes(bytes).build();
+	}
+}
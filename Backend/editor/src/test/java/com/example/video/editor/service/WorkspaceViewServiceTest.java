@@ -0,0 +1,71 @@
+package com.example.video.editor.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import com.example.video.editor.dto.WorkspaceDto;
+import com.example.video.editor.model.Project;
+import com.example.video.editor.model.Video;
+import com.example.video.editor.model.Workspace;
+import com.example.video.editor.repository.WorkspaceRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class WorkspaceViewServiceTest {
+
+	// Chỉ cần JPA và service đọc, không nạp cấu hình security/feign của EditorApplication
+	@Configuration
+	@EntityScan(basePackageClasses = Workspace.class)
+	@EnableJpaRepositories(basePackageClasses = WorkspaceRepository.class)
+	@Import(WorkspaceViewService.class)
+	static class Config {
+	}
+
+	@Autowired
+	private WorkspaceViewService workspaceViewService;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@ParameterizedTest
+	@ValueSource(ints = { 0, 1, 30 })
+	void workspaceViewIsOneQueryRegardlessOfProjectCount(int projectCount) throws Exception {
+		Workspace workspace = entityManager.persist(Workspace.builder().workspaceName("ws")
+				.createdAt(LocalDateTime.now()).updatedAt(LocalDateTime.now()).build());
+		for (int i = 0; i < projectCount; i++) {
+			Video video = entityManager.persist(Video.builder().title("video-" + i).cloudinaryPublicId("cld-" + i)
+					.url("http://cdn/" + i + ".mp4").secureUrl("https://cdn/" + i + ".mp4").resourceType("video")
+					.format("mp4").build());
+			entityManager.persist(Project.builder().workspace(workspace).projectName("project-" + i).video(video)
+					.createdAt(LocalDateTime.now()).updatedAt(LocalDateTime.now()).build());
+		}
+		entityManager.flush();
+		entityManager.clear();
+
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		WorkspaceDto dto = workspaceViewService.getWorkspace(workspace.getPublicId());
+
+		assertEquals(1, statistics.getPrepareStatementCount());
+		assertEquals(projectCount, dto.getProjects().size());
+		dto.getProjects().forEach(project -> assertNotNull(project.getVideo()));
+	}
+}
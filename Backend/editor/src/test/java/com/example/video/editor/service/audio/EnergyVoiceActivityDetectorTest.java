@@ -0,0 +1,104 @@
+package com.example.video.editor.service.audio;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.video.editor.service.subtitle.PackedSubtitleTrack;
+
+class EnergyVoiceActivityDetectorTest {
+
+	private static final int RATE = 16_000;
+
+	@Test
+	void findsSpeechBetweenLongSilences() throws Exception {
+		// 10s im lặng (nhiễu nhỏ) | 5s "tiếng nói" | 20s im lặng | 3s "tiếng nói" | 10s im lặng
+		short[] audio = concat(noise(10_000), tone(5_000), noise(20_000), tone(3_000), noise(10_000));
+		EnergyVoiceActivityDetector detector = new EnergyVoiceActivityDetector();
+
+		EnergyVoiceActivityDetector.Result result = detector.detect(audio);
+
+		assertEquals(48_000, result.totalMs());
+		assertEquals(2, result.spans().size(), result.spans().toString());
+		assertNear(10_000, result.spans().get(0).startMs(), 300);
+		assertNear(15_000, result.spans().get(0).endMs(), 300);
+		assertNear(35_000, result.spans().get(1).startMs(), 300);
+		assertNear(38_000, result.spans().get(1).endMs(), 300);
+		assertTrue(result.speechRatio() < 0.25);
+
+		// Đọc dạng stream PCM s16le phải cho cùng kết quả
+		assertEquals(result, detector.detect(new ByteArrayInputStream(toLittleEndian(audio))));
+	}
+
+	@Test
+	void remapsTimestampsBackToOriginalTimeline() {
+		TimestampRemapper remapper = new TimestampRemapper(
+				List.of(new SpeechSpan(10_000, 15_000), new SpeechSpan(35_000, 38_000)));
+		assertEquals(8_000, remapper.packedDurationMs());
+
+		PackedSubtitleTrack packed = PackedSubtitleTrack.builder().add(500, 4_000, "a").add(5_000, 7_500, "b")
+				.add(4_000, 5_000, "c").build();
+		PackedSubtitleTrack original = remapper.remap(packed);
+
+		assertEquals(10_500, original.startMs(0));
+		assertEquals(14_000, original.endMs(0));
+		assertEquals(35_000, original.startMs(1));
+		assertEquals(37_500, original.endMs(1));
+		// Kết thúc đúng ranh giới thuộc về đoạn trước
+		assertEquals(14_000, original.startMs(2));
+		assertEquals(15_000, original.endMs(2));
+	}
+
+	private static void assertNear(int expected, int actual, int tolerance) {
+		assertTrue(Math.abs(expected - actual) <= tolerance, "expected ~" + expected + " but was " + actual);
+	}
+
+	private static short[] noise(int ms) {
+		Random random = new Random(ms);
+		short[] samples = new short[RATE * ms / 1000];
+		for (int i = 0; i < samples.length; i++) {
+			samples[i] = (short) (random.nextGaussian() * 30);
+		}
+		return samples;
+	}
+
+	private static short[] tone(int ms) {
+		Random random = new Random(ms);
+		short[] samples = new short[RATE * ms / 1000];
+		for (int i = 0; i < samples.length; i++) {
+			// Âm hữu thanh 220 Hz, biên độ dao động theo âm tiết (~4 Hz)
+			double envelope = 0.55 + 0.45 * Math.sin(2 * Math.PI * 4 * i / RATE);
+			samples[i] = (short) (8_000 * envelope * Math.sin(2 * Math.PI * 220 * i / RATE)
+					+ random.nextGaussian() * 30);
+		}
+		return samples;
+	}
+
+	private static short[] concat(short[]... parts) {
+		int length = 0;
+		for (short[] part : parts) {
+			length += part.length;
+		}
+		short[] result = new short[length];
+		int offset = 0;
+		for (short[] part : parts) {
+			System.arraycopy(part, 0, result, offset, part.length);
+			offset += part.length;
+		}
+		return result;
+	}
+
+	private static byte[] toLittleEndian(short[] samples) {
+		byte[] bytes = new byte[samples.length * 2];
+		for (int i = 0; i < samples.length; i++) {
+			bytes[2 * i] = (byte) samples[i];
+			bytes[2 * i + 1] = (byte) (samples[i] >> 8);
+		}
+		return bytes;
+	}
+}
@@ -0,0 +1,97 @@
+package com.example.video.editor.service.audio;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.video.editor.client.PythonTranscriptionClient;
+import com.example.video.editor.dto.SpeechClip;
+import com.example.video.editor.dto.TranscriptionRequest;
+import com.example.video.editor.dto.TranscriptionResponse;
+import com.example.video.editor.model.SrtSegment;
+import com.example.video.editor.service.progess.CancellationToken;
+
+class SilenceSkippingTranscriberTest {
+
+	private final PythonTranscriptionClient client = mock(PythonTranscriptionClient.class);
+	private final SpeechDetectionService detection = mock(SpeechDetectionService.class);
+	private final SilenceSkippingTranscriber transcriber = new SilenceSkippingTranscriber(client, detection);
+
+	SilenceSkippingTranscriberTest() {
+		ReflectionTestUtils.setField(transcriber, "vadEnabled", true);
+		ReflectionTestUtils.setField(transcriber, "maxSpeechRatio", 0.9);
+	}
+
+	@Test
+	void noDetectedSpeechFallsBackToFullAudio() throws Exception {
+		when(detection.detect(any(), any())).thenReturn(new EnergyVoiceActivityDetector.Result(List.of(), 60_000));
+		when(client.transcribe(any())).thenReturn(response(segment("00:00:01,000", "00:00:02,000", "xin chào")));
+
+		List<SrtSegment> segments = transcriber.transcribe(request(), CancellationToken.none(), (p, m) -> {
+		});
+
+		assertEquals(1, segments.size());
+		ArgumentCaptor<TranscriptionRequest> sent = ArgumentCaptor.forClass(TranscriptionRequest.class);
+		verify(client).transcribe(sent.capture());
+		assertNull(sent.getValue().getClips());
+	}
+
+	@Test
+	void spansAreAlignedToClipFramesAndMerged() {
+		List<SpeechSpan> aligned = SilenceSkippingTranscriber.alignToClipFrames(List.of(new SpeechSpan(10_005, 14_990),
+				new SpeechSpan(15_000, 20_010), new SpeechSpan(30_013, 31_001)));
+
+		assertEquals(List.of(new SpeechSpan(10_000, 20_020), new SpeechSpan(30_000, 31_020)), aligned);
+	}
+
+	@Test
+	void remapsOnTheAlignedTimelineWithoutDrift() throws Exception {
+		// Span chưa khớp lưới 20 ms: nếu ánh xạ bằng span gốc, mỗi ranh giới lệch tới một frame
+		when(detection.detect(any(), any())).thenReturn(new EnergyVoiceActivityDetector.Result(
+				List.of(new SpeechSpan(10_005, 15_007), new SpeechSpan(35_003, 38_001)), 60_000));
+		// Timeline đã cắt: đoạn 1 dài 5_020 ms, đoạn 2 bắt đầu ngay sau đó
+		when(client.transcribe(any())).thenReturn(response(segment("00:00:00,500", "00:00:05,020", "a"),
+				segment("00:00:05,020", "00:00:08,000", "b")));
+
+		List<SrtSegment> segments = transcriber.transcribe(request(), CancellationToken.none(), (p, m) -> {
+		});
+
+		ArgumentCaptor<TranscriptionRequest> sent = ArgumentCaptor.forClass(TranscriptionRequest.class);
+		verify(client).transcribe(sent.capture());
+		assertEquals(List.of(new SpeechClip(10.0, 15.02), new SpeechClip(35.0, 38.02)), sent.getValue().getClips());
+		assertEquals("00:00:10,500", segments.get(0).getStart());
+		assertEquals("00:00:15,020", segments.get(0).getEnd());
+		assertEquals("00:00:35,000", segments.get(1).getStart());
+		assertEquals("00:00:37,980", segments.get(1).getEnd());
+	}
+
+	private static TranscriptionRequest request() {
+		TranscriptionRequest request = new TranscriptionRequest();
+		request.setUrl("https://example.com/video.mp4");
+		request.setLanguage("vi");
+		return request;
+	}
+
+	private static TranscriptionResponse response(SrtSegment... segments) {
+		TranscriptionResponse response = new TranscriptionResponse();
+		response.setSrt(List.of(segments));
+		return response;
+	}
+
+	private static SrtSegment segment(String start, String end, String text) {
+		SrtSegment segment = new SrtSegment();
+		segment.setStart(start);
+		segment.setEnd(end);
+		segment.setText(text);
+		return segment;
+	}
+}
@@ -0,0 +1,79 @@
+package com.example.video.editor.service.progess;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.video.editor.model.AccountTier;
+import com.example.video.editor.repository.TaskJobRepository.ClaimableJob;
+
+class FairShareSchedulerTest {
+
+	private static final LocalDateTime NOW = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+	private final FairShareScheduler scheduler = new FairShareScheduler(1, 2, 4, 8, 2, 300);
+
+	@Test
+	void premiumJobsRunBeforeOlderFreeJobs() {
+		List<ClaimableJob> jobs = List.of(job("free-1", 1L, AccountTier.FREE, 60),
+				job("free-2", 1L, AccountTier.FREE, 50), job("premium-1", 2L, AccountTier.PREMIUM, 10));
+
+		assertEquals(List.of("premium-1", "free-1", "free-2"), ids(scheduler.order(jobs, Map.of(), NOW)));
+	}
+
+	@Test
+	void usersInTheSameClassTakeTurns() {
+		List<ClaimableJob> jobs = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			jobs.add(job("a-" + i, 1L, AccountTier.FREE, 100 - i));
+		}
+		jobs.add(job("b-0", 2L, AccountTier.FREE, 10));
+		jobs.add(job("b-1", 2L, AccountTier.FREE, 5));
+
+		assertEquals(List.of("a-0", "b-0", "a-1", "b-1", "a-2", "a-3"), ids(scheduler.order(jobs, Map.of(), NOW)));
+	}
+
+	@Test
+	void usersWithRunningJobsWaitBehindIdleUsers() {
+		List<ClaimableJob> jobs = List.of(job("a-0", 1L, AccountTier.FREE, 100), job("b-0", 2L, AccountTier.FREE, 10));
+
+		assertEquals(List.of("b-0", "a-0"), ids(scheduler.order(jobs, Map.of(1L, 1), NOW)));
+	}
+
+	@Test
+	void longWaitingFreeJobsAreNotStarved() {
+		List<ClaimableJob> jobs = List.of(job("premium", 2L, AccountTier.PREMIUM, 5),
+				job("free-old", 1L, AccountTier.FREE, 3 * 300 + 1));
+
+		assertEquals(List.of("free-old", "premium"), ids(scheduler.order(jobs, Map.of(), NOW)));
+	}
+
+	@Test
+	void capsDependOnTier() {
+		assertEquals(1, scheduler.maxRunning(1L, AccountTier.FREE));
+		assertEquals(8, scheduler.maxRunning(1L, AccountTier.PREMIUM));
+		assertEquals(2, scheduler.maxRunning(null, null));
+	}
+
+	private static ClaimableJob job(String id, Long ownerId, AccountTier tier, long waitedSeconds) {
+		return new TestJob(id, ownerId, tier, NOW.minusSeconds(waitedSeconds));
+	}
+
+	private static List<String> ids(List<ClaimableJob> jobs) {
+		return jobs.stream().map(ClaimableJob::getJobId).toList();
+	}
+
+	private record TestJob(String getJobId, Long getOwnerId, AccountTier getAccountTier, LocalDateTime getCreatedAt)
+			implements ClaimableJob {
+
+		@Override
+		public String getTaskType() {
+			return "transcriptionService";
+		}
+	}
+}
@@ -0,0 +1,33 @@
+package com.example.video.editor.service.progess;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class ProgressCoalescerTest {
+
+	@Test
+	void dropsProgressThatArrivesAfterTheFinalEvent() {
+		List<Object> sent = new ArrayList<>();
+		ProgressBroadcaster broadcaster = (taskId, payload) -> sent.add(payload.get("status"));
+		ProgressCoalescer coalescer = new ProgressCoalescer(broadcaster, mock(TaskStatusStore.class), 0,
+				Duration.ofMinutes(5));
+
+		coalescer.progress("t1", Map.of("status", "RUNNING"));
+		coalescer.publishFinal("t1", Map.of("status", "COMPLETE"));
+		coalescer.progress("t1", Map.of("status", "RUNNING"));
+		coalescer.publishNow("t1", Map.of("status", "PARTIAL"));
+
+		assertEquals(List.of("RUNNING", "COMPLETE"), sent);
+		// Task đang chạy lại sau khi chờ retry (release) không bị chặn
+		coalescer.release("t2");
+		coalescer.progress("t2", Map.of("status", "RUNNING"));
+		assertEquals(List.of("RUNNING", "COMPLETE", "RUNNING"), sent);
+	}
+}
@@ -0,0 +1,56 @@
+package com.example.video.editor.service.progess;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.video.editor.exception.RetryableTaskException;
+import com.example.video.editor.model.Project;
+import com.example.video.editor.repository.ProjectRepository;
+import com.example.video.editor.service.FileUploadService;
+import com.example.video.editor.service.VideoService;
+
+class TaskRetryTest {
+
+	@Test
+	void unreportedExceptionsAreRetried() {
+		assertTrue(TaskProcessingService.shouldRetry(new IllegalStateException("boom"), false));
+	}
+
+	@Test
+	void reportedErrorIsFinalUnlessTheTaskSaysItIsTransient() {
+		assertFalse(TaskProcessingService.shouldRetry(new IllegalStateException("boom"), true));
+		assertTrue(TaskProcessingService.shouldRetry(new RetryableTaskException("timeout", null), true));
+	}
+
+	@Test
+	void cloudinaryFailureIsReportedAndRetryable() throws Exception {
+		ProjectRepository projectRepository = mock(ProjectRepository.class);
+		VideoService videoService = mock(VideoService.class);
+		when(projectRepository.findByPublicId("p1")).thenReturn(Optional.of(new Project()));
+		when(videoService.uploadVideoToCloudinary(any(), anyString())).thenThrow(new IOException("503"));
+		FileUploadService task = new FileUploadService(projectRepository, videoService);
+		List<String> errors = new ArrayList<>();
+
+		RetryableTaskException thrown = assertThrows(RetryableTaskException.class,
+				() -> task.executeWithPartialResults(new CancellationToken("t1"), (progress, message) -> {
+				}, (key, result) -> {
+				}, (result, message) -> {
+				}, (error, message) -> errors.add(error), new byte[] { 1 }, "a.mp4", "p1"));
+
+		assertEquals(List.of("CLOUDINARY_UPLOAD_FAILED"), errors);
+		assertTrue(TaskProcessingService.shouldRetry(thrown, !errors.isEmpty()));
+	}
+}
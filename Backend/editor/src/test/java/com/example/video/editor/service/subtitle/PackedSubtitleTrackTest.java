@@ -0,0 +1,58 @@
+package com.example.video.editor.service.subtitle;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.video.editor.model.SrtSegment;
+
+class PackedSubtitleTrackTest {
+
+	@Test
+	void parsesAndFormatsTimecodes() {
+		assertEquals(83_000, SubtitleTimecode.parseMillis("00:01:23,000"));
+		assertEquals(3_723_450, SubtitleTimecode.parseMillis("01:02:03.45"));
+		assertEquals(5_500, SubtitleTimecode.parseMillis("5.5"));
+		assertEquals("01:02:03,450", SubtitleTimecode.toSrtString(3_723_450));
+	}
+
+	@Test
+	void binaryEncodingRoundTrips() {
+		List<SrtSegment> segments = sampleSegments(1_000);
+		PackedSubtitleTrack track = PackedSubtitleTrack.fromSrtSegments(segments);
+
+		PackedSubtitleTrack decoded = SubtitleBinaryCodec.decode(SubtitleBinaryCodec.encode(track));
+
+		assertEquals(track, decoded);
+		assertEquals(segments, decoded.toSrtSegments());
+	}
+
+	@Test
+	void usesMuchLessMemoryThanSegmentObjects() {
+		List<SrtSegment> segments = sampleSegments(10_000);
+		PackedSubtitleTrack track = PackedSubtitleTrack.fromSrtSegments(segments);
+
+		long packedPerSegment = track.retainedHeapBytes() / segments.size();
+		long objectPerSegment = PackedSubtitleTrack.estimateSrtSegmentHeapBytes(segments) / segments.size();
+
+		assertTrue(packedPerSegment * 3 < objectPerSegment,
+				"packed=" + packedPerSegment + "B/segment, objects=" + objectPerSegment + "B/segment");
+		assertTrue(SubtitleBinaryCodec.encode(track).length < track.retainedHeapBytes());
+	}
+
+	private static List<SrtSegment> sampleSegments(int count) {
+		List<SrtSegment> segments = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			SrtSegment segment = new SrtSegment();
+			segment.setStart(SubtitleTimecode.toSrtString(i * 2_000));
+			segment.setEnd(SubtitleTimecode.toSrtString(i * 2_000 + 1_500));
+			segment.setText(i % 2 == 0 ? "Xin chào " + i : "Hello");
+			segments.add(segment);
+		}
+		return segments;
+	}
+}
@@ -0,0 +1,84 @@
+package com.example.video.editor.service.subtitle;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.example.video.editor.model.SrtSegment;
+
+/**
+ * Đo throughput ghi phụ đề 100k segment. Chạy bằng
+ * {@code java -cp target/test-classes:<test classpath> ...SubtitleStreamWriterBenchmark}
+ * hoặc qua method main trong IDE. Baseline "stringFormatSrt" mô phỏng cách
+ * convert cũ (String.format + Writer trên từng SrtSegment).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SubtitleStreamWriterBenchmark {
+
+	@Param({ "100000" })
+	private int segments;
+
+	@Param({ "SRT", "VTT", "ASS" })
+	private SubtitleFormat format;
+
+	private PackedSubtitleTrack track;
+	private List<SrtSegment> srtSegments;
+	private SubtitleStreamWriter writer;
+	private OutputStream sink;
+
+	@Setup
+	public void setUp() {
+		PackedSubtitleTrack.Builder builder = PackedSubtitleTrack.builder(segments);
+		for (int i = 0; i < segments; i++) {
+			builder.add(i * 2_000, i * 2_000 + 1_800, "Phụ đề số " + i + "\nsecond line");
+		}
+		track = builder.build();
+		srtSegments = track.toSrtSegments();
+		writer = new SubtitleStreamWriter();
+		sink = OutputStream.nullOutputStream();
+	}
+
+	@Benchmark
+	public void streamWriter() throws IOException {
+		writer.write(track, format, sink);
+	}
+
+	@Benchmark
+	public void stringFormatSrt() throws IOException {
+		Writer out = new OutputStreamWriter(sink, StandardCharsets.UTF_8);
+		int index = 1;
+		for (SrtSegment segment : srtSegments) {
+			out.write(String.format("%d\n%s --> %s\n%s\n\n", index++, segment.getStart(), segment.getEnd(),
+					segment.getText()));
+		}
+		out.flush();
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(SubtitleStreamWriterBenchmark.class.getSimpleName()).build()).run();
+	}
+}
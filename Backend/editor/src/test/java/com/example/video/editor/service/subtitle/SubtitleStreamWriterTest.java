@@ -0,0 +1,97 @@
+package com.example.video.editor.service.subtitle;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+class SubtitleStreamWriterTest {
+
+	private static final String WORD_JOINER = "\u2060";
+
+	private static final PackedSubtitleTrack TRACK = PackedSubtitleTrack.builder()
+			.add(0, 999, "Xin chào")
+			.add(61_005, 62_999, "Dòng một\r\nDòng hai\n")
+			.add(36_000_000, 36_001_500, "Tom & Jerry <b>không</b> {\\an8}bị chèn tag \\N")
+			.build();
+
+	@Test
+	void writesSrt() throws IOException {
+		assertEquals("""
+				1
+				00:00:00,000 --> 00:00:00,999
+				Xin chào
+
+				2
+				00:01:01,005 --> 00:01:02,999
+				Dòng một
+				Dòng hai
+
+				3
+				10:00:00,000 --> 10:00:01,500
+				Tom & Jerry <b>không</b> {\\an8}bị chèn tag \\N
+
+				""", write(SubtitleFormat.SRT, new SubtitleStreamWriter()));
+	}
+
+	@Test
+	void writesVttWithEscapedMarkup() throws IOException {
+		assertEquals("""
+				WEBVTT
+
+				00:00:00.000 --> 00:00:00.999
+				Xin chào
+
+				00:01:01.005 --> 00:01:02.999
+				Dòng một
+				Dòng hai
+
+				10:00:00.000 --> 10:00:01.500
+				Tom &amp; Jerry &lt;b&gt;không&lt;/b&gt; {\\an8}bị chèn tag \\N
+
+				""", write(SubtitleFormat.VTT, new SubtitleStreamWriter()));
+	}
+
+	@Test
+	void writesAssWithCentisecondsAndEscapedOverrides() throws IOException {
+		String ass = write(SubtitleFormat.ASS, new SubtitleStreamWriter());
+
+		assertTrue(ass.startsWith("[Script Info]\n"));
+		// Centi-giây bị cắt (999 ms -> .99), xuống dòng thành \N, ngoặc nhọn và '\' của người dùng bị vô hiệu
+		assertEquals("""
+				Dialogue: 0,0:00:00.00,0:00:00.99,Default,,0,0,0,,Xin chào
+				Dialogue: 0,0:01:01.00,0:01:02.99,Default,,0,0,0,,Dòng một\\NDòng hai
+				Dialogue: 0,10:00:00.00,10:00:01.50,Default,,0,0,0,,Tom & Jerry <b>không</b> \\{\\%san8\\}bị chèn tag \\%sN
+				""".formatted(WORD_JOINER, WORD_JOINER), ass.substring(ass.indexOf("Dialogue: ")));
+	}
+
+	@Test
+	void smallBufferProducesTheSameBytes() throws IOException {
+		StringBuilder longText = new StringBuilder();
+		for (int i = 0; i < 500; i++) {
+			longText.append("đoạn văn dài & <dài> {").append(i).append("}\n");
+		}
+		PackedSubtitleTrack track = PackedSubtitleTrack.builder().add(1_000, 2_000, longText.toString())
+				.add(3_000, 4_000, "b").build();
+
+		for (SubtitleFormat format : SubtitleFormat.values()) {
+			assertEquals(write(track, format, new SubtitleStreamWriter()),
+					write(track, format, new SubtitleStreamWriter(1)), format.name());
+		}
+	}
+
+	private static String write(SubtitleFormat format, SubtitleStreamWriter writer) throws IOException {
+		return write(TRACK, format, writer);
+	}
+
+	private static String write(PackedSubtitleTrack track, SubtitleFormat format, SubtitleStreamWriter writer)
+			throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		writer.write(track, format, out);
+		return out.toString(StandardCharsets.UTF_8);
+	}
+}
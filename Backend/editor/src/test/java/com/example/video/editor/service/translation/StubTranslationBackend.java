@@ -0,0 +1,33 @@
+package com.example.video.editor.service.translation;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Backend giả lập cho test: gắn tiền tố ngôn ngữ vào text, đếm số lần gọi và
+ * ném lỗi với các ngôn ngữ trong failingLanguages. Chỉ có trong classpath test
+ * để kết quả giả không bao giờ bị cache/lưu như thật.
+ */
+public class StubTranslationBackend implements TranslationBackend {
+
+	private final Set<String> failingLanguages;
+	private final AtomicInteger calls = new AtomicInteger();
+
+	public StubTranslationBackend(String... failingLanguages) {
+		this.failingLanguages = Set.of(failingLanguages);
+	}
+
+	@Override
+	public List<String> translate(List<String> texts, String sourceLanguage, String targetLanguage) {
+		calls.incrementAndGet();
+		if (failingLanguages.contains(targetLanguage)) {
+			throw new IllegalStateException("Translation service unavailable for " + targetLanguage);
+		}
+		return texts.stream().map(text -> "[" + targetLanguage + "] " + text).toList();
+	}
+
+	public int calls() {
+		return calls.get();
+	}
+}
@@ -9,13 +9,14 @@ def transcribe():
     url = data.get("url")
     lang = data.get("language", "en")
     translate = data.get("translate")
+    clips = data.get("clips")
 
 
     if not url:
         return jsonify({"error": "Missing 'url'"}), 400
 
     try:
-        srt_segments = transcribe_audio(url, lang,translate)
+        srt_segments = transcribe_audio(url, lang, translate, clips)
         return jsonify({"srt": srt_segments})
     except Exception as e:
         return jsonify({"error": str(e)}), 500
@@ -5,11 +5,18 @@ import os
 
 model = whisper.load_model("small")
 
-def transcribe_audio(video_url, language, translate):
+def format_timestamp(seconds):
+    millis = int(round(seconds * 1000))
+    hours, millis = divmod(millis, 3600000)
+    minutes, millis = divmod(millis, 60000)
+    secs, millis = divmod(millis, 1000)
+    return f"{hours:02d}:{minutes:02d}:{secs:02d},{millis:03d}"
+
+def transcribe_audio(video_url, language, translate, clips=None):
     try:
         with tempfile.NamedTemporaryFile(suffix=".wav", delete=False) as temp_audio:
             wav_path = temp_audio.name
-            download_audio(video_url, wav_path)
+            download_audio(video_url, wav_path, clips)
             task_type = "translate" if translate else "transcribe"
             print(task_type)
             result = model.transcribe(wav_path, language=language, task=task_type)
@@ -20,8 +27,9 @@ def transcribe_audio(video_url, language, translate):
                 end = segment["end"]
                 text = segment["text"]
 
-                start_srt = f"00:{int(start//60):02d}:{int(start%60):02d},000"
-                end_srt = f"00:{int(end//60):02d}:{int(end%60):02d},000"
+                # Giữ mili-giây để backend ánh xạ lại timestamp khi audio đã bị cắt im lặng
+                start_srt = format_timestamp(start)
+                end_srt = format_timestamp(end)
 
                 srt_segments.append({
                     "start": start_srt,
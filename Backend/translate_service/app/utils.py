@@ -1,8 +1,15 @@
 import subprocess
 
-def download_audio(video_url, output_path):
-    cmd = [
-        "ffmpeg", "-y", "-i", video_url,
-        "-acodec", "pcm_s16le", "-ar", "16000", "-ac", "1", output_path
-    ]
+def download_audio(video_url, output_path, clips=None):
+    cmd = ["ffmpeg", "-y", "-i", video_url]
+    if clips:
+        # Chỉ giữ các đoạn có tiếng nói (do backend Java phát hiện) và nối liền lại.
+        # aselect giữ/bỏ nguyên frame nên chia lại thành frame 20 ms (320 mẫu ở
+        # 16 kHz, khớp CLIP_FRAME_MS bên Java) và chọn nửa mở [start, end) để độ
+        # dài audio sau khi cắt đúng bằng tổng độ dài các đoạn.
+        selector = "+".join(
+            f"gte(t,{float(c['start']):.3f})*lt(t,{float(c['end']):.3f})" for c in clips
+        )
+        cmd += ["-af", f"aresample=16000,asetnsamples=n=320:p=0,aselect='{selector}',asetpts=N/SR/TB"]
+    cmd += ["-acodec", "pcm_s16le", "-ar", "16000", "-ac", "1", output_path]
     subprocess.run(cmd, check=True)